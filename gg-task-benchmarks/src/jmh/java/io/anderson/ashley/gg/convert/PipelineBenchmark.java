@@ -0,0 +1,138 @@
+package io.anderson.ashley.gg.convert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.query.Query;
+import io.anderson.ashley.gg.web.WebConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The EntryFile conversion pipeline, stage by stage: parse, parse and convert (sequentially and in parallel chunks),
+ * serialise a converted list, the whole pipeline streamed straight to an output as the streaming mode of the web
+ * controller does, and a filtered, grouped aggregate query that only materialises the fields it uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PipelineBenchmark
+{
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	private int rows;
+	@Param({ "csv", "pipe" })
+	private String entryParser;
+	@Param({ "false", "true" })
+	private boolean fixedPointSpeeds;
+
+	private IEntryParser parser;
+	private ParallelEntryConverter parallelConverter;
+	private ObjectMapper objectMapper;
+	private List<Outcome> outcomes;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		final var config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+		config.setFixedPointSpeeds(fixedPointSpeeds);
+		config.getParallel().setChunkSize(DataSize.ofMegabytes(1));
+		parser = "pipe".equals(entryParser) ? new PipeEntryParser(config) : new CsvEntryParser(config);
+		parallelConverter = new ParallelEntryConverter(config, parser);
+		objectMapper = JsonMapper.builder().build();
+		try (final var entries = parser.parse(new SyntheticEntryFile(rows)))
+		{
+			outcomes = entries.map(Outcome::fromEntry).toList();
+		}
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		parallelConverter.shutdown();
+	}
+
+	@Benchmark
+	public void parse(final Blackhole blackhole) throws IOException
+	{
+		try (final var entries = parser.parse(new SyntheticEntryFile(rows)))
+		{
+			entries.forEach(blackhole::consume);
+		}
+	}
+
+	@Benchmark
+	public void parseConvert(final Blackhole blackhole) throws IOException
+	{
+		try (final var entries = parser.parse(new SyntheticEntryFile(rows)))
+		{
+			entries.map(Outcome::fromEntry).forEach(blackhole::consume);
+		}
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> parseAggregate() throws IOException
+	{
+		final var query = Query.parse(null, new String[] { "topSpeed>100" }, null, "transport");
+		final var aggregation = query.aggregation();
+		try (final var entries = parser.parse(new SyntheticEntryFile(rows), query.materialise()))
+		{
+			query.filter(entries).forEach(aggregation);
+		}
+		return aggregation.results();
+	}
+
+	@Benchmark
+	public void parseConvertParallel(final Blackhole blackhole)
+	{
+		try (final var outcomes = parallelConverter.convert(new SyntheticEntryFile(rows)))
+		{
+			outcomes.forEach(blackhole::consume);
+		}
+	}
+
+	@Benchmark
+	public void serialise() throws IOException
+	{
+		objectMapper.writeValue(OutputStream.nullOutputStream(), outcomes);
+	}
+
+	@Benchmark
+	public void parseConvertSerialise() throws IOException
+	{
+		final var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		try (final var entries = parser.parse(new SyntheticEntryFile(rows));
+		     final var generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream()))
+		{
+			generator.writeStartArray();
+			for (final var iterator = entries.map(Outcome::fromEntry).iterator(); iterator.hasNext(); )
+			{
+				writer.writeValue(generator, iterator.next());
+			}
+			generator.writeEndArray();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package io.anderson.ashley.gg.convert;
+
+import java.io.Reader;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * A synthetic EntryFile of any number of rows. A block of random rows is generated once and then repeated, so even the
+ * largest files are read in constant memory and the cost of reading is just an array copy.
+ */
+public final class SyntheticEntryFile extends Reader
+{
+	private static final int TEMPLATE_ROWS = 1024;
+	private static final String[] NAMES = { "John Smith", "Mike Smith", "Jenny Walters", "Ashley Anderson", "Sam Jones" };
+	private static final String[] LIKES = { "Likes Apricots", "Likes Grape", "Likes Avocados", "Likes Bananas" };
+	private static final String[] TRANSPORT = { "Rides A Bike", "Drives an SUV", "Rides A Scooter", "Takes The Bus" };
+
+	private static final char[] TEMPLATE;
+	private static final int[] ROW_OFFSETS = new int[TEMPLATE_ROWS + 1];
+
+	static
+	{
+		final var random = new Random(42);
+		final var builder = new StringBuilder();
+		for (int i = 0; i < TEMPLATE_ROWS; i++)
+		{
+			ROW_OFFSETS[i] = builder.length();
+			builder.append(new UUID(random.nextLong(), random.nextLong())).append('|')
+					.append(i + 1).append('X').append(random.nextInt(10)).append("D").append(random.nextInt(100)).append('|')
+					.append(NAMES[random.nextInt(NAMES.length)]).append('|')
+					.append(LIKES[random.nextInt(LIKES.length)]).append('|')
+					.append(TRANSPORT[random.nextInt(TRANSPORT.length)]).append('|')
+					.append(random.nextInt(50)).append('.').append(random.nextInt(10)).append('|')
+					.append(50 + random.nextInt(100)).append('.').append(random.nextInt(10))
+					.append('\n');
+		}
+		ROW_OFFSETS[TEMPLATE_ROWS] = builder.length();
+		TEMPLATE = builder.toString().toCharArray();
+	}
+
+	private final long length;
+	private long position;
+
+	/**
+	 * Create a synthetic EntryFile.
+	 *
+	 * @param rows The number of rows in the file.
+	 */
+	public SyntheticEntryFile(final long rows)
+	{
+		length = rows / TEMPLATE_ROWS * TEMPLATE.length + ROW_OFFSETS[(int) (rows % TEMPLATE_ROWS)];
+	}
+
+	/**
+	 * The size of the file.
+	 *
+	 * @return The number of characters in the file.
+	 */
+	public long length()
+	{
+		return length;
+	}
+
+	@Override
+	public int read(final char[] buffer, final int offset, final int count)
+	{
+		if (position >= length)
+		{
+			return -1;
+		}
+		final var start = (int) (position % TEMPLATE.length);
+		final var read = (int) Math.min(Math.min(count, TEMPLATE.length - start), length - position);
+		System.arraycopy(TEMPLATE, start, buffer, offset, read);
+		position += read;
+		return read;
+	}
+
+	@Override
+	public void close()
+	{
+	}
+}
@@ -0,0 +1,86 @@
+package io.anderson.ashley.gg.log;
+
+import io.anderson.ashley.gg.Main;
+import io.anderson.ashley.gg.model.LogRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging a request against the in-memory H2 database, either synchronously or write-behind; the latter measures
+ * only what the request thread pays, which is the point of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogServiceBenchmark
+{
+	@Param({ "false", "true" })
+	private boolean writeBehind;
+
+	private ConfigurableApplicationContext context;
+	private ILogService logService;
+	private LogRepository repository;
+	private LogRequest request;
+
+	@Setup
+	public void setup()
+	{
+		context = new SpringApplicationBuilder(Main.class)
+				.web(WebApplicationType.NONE)
+				.properties("log.write-behind.enabled=" + writeBehind,
+						"spring.jpa.show-sql=false",
+						"logging.level.root=WARN")
+				.run();
+		logService = context.getBean(ILogService.class);
+		repository = context.getBean(LogRepository.class);
+		final var end = Instant.now();
+		request = new LogRequest(URI.create("http://localhost"),
+				URI.create("http://ip-api.com/json/86.8.134.206"),
+				"86.8.134.206",
+				end.minus(Duration.ofMillis(5)),
+				end,
+				200,
+				"GB",
+				"Virgin Media");
+	}
+
+	@TearDown(Level.Iteration)
+	public void clear()
+	{
+		repository.deleteAllInBatch();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		context.close();
+	}
+
+	@Benchmark
+	public void logRequest()
+	{
+		logService.logRequest(request);
+	}
+}
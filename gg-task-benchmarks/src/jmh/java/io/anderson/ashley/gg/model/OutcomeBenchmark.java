@@ -0,0 +1,38 @@
+package io.anderson.ashley.gg.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutcomeBenchmark
+{
+	private final Entry entry = new Entry(UUID.randomUUID(),
+			"1X1D14",
+			"John Smith",
+			"Likes Apricots",
+			"Rides A Bike",
+			new BigDecimal("6.2"),
+			new BigDecimal("12.1"));
+
+	@Benchmark
+	public Outcome fromEntry()
+	{
+		return Outcome.fromEntry(entry);
+	}
+}
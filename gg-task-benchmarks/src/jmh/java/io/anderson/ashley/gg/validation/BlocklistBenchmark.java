@@ -0,0 +1,101 @@
+package io.anderson.ashley.gg.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compare the compiled Blocklist against the original stream/List.contains based checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlocklistBenchmark
+{
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ.,";
+	private static final String[] ISPS = {
+			"Virgin Media",
+			"British Telecommunications PLC",
+			"China Mobile communications corporation",
+			"Sky Broadband",
+			"Vodafone Limited"
+	};
+	private static final String[] COUNTRIES = { "GB", "IE", "FR", "DE", "ZW" };
+
+	@Param({ "10", "1000", "5000" })
+	private int providers;
+	@Param({ "3", "50" })
+	private int countries;
+
+	private List<String> blockedProviders;
+	private List<String> blockedCountries;
+	private Blocklist blocklist;
+	private int next;
+
+	@Setup
+	public void setup()
+	{
+		final var random = new Random(42);
+		blockedProviders = IntStream.range(0, providers)
+				.mapToObj(i -> randomString(random, 6 + random.nextInt(10)))
+				.toList();
+		blockedCountries = IntStream.range(0, countries)
+				.mapToObj(i -> String.valueOf(new char[]{ (char) ('A' + i / 26 % 26), (char) ('A' + i % 26) }))
+				.toList();
+		final var config = new ValidationConfig();
+		config.setBlockedProviders(blockedProviders);
+		config.setBlockedCountries(blockedCountries);
+		blocklist = new Blocklist(config);
+	}
+
+	@Benchmark
+	public boolean ispStream()
+	{
+		final var isp = ISPS[next++ % ISPS.length];
+		return blockedProviders.stream().anyMatch(isp::contains);
+	}
+
+	@Benchmark
+	public boolean ispAhoCorasick()
+	{
+		return blocklist.isIspBlocked(ISPS[next++ % ISPS.length]);
+	}
+
+	@Benchmark
+	public boolean countryList()
+	{
+		return blockedCountries.contains(COUNTRIES[next++ % COUNTRIES.length]);
+	}
+
+	@Benchmark
+	public boolean countryBitSet()
+	{
+		return blocklist.isCountryBlocked(COUNTRIES[next++ % COUNTRIES.length]);
+	}
+
+	private static String randomString(final Random random, final int length)
+	{
+		final var builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+		{
+			builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return builder.toString();
+	}
+}
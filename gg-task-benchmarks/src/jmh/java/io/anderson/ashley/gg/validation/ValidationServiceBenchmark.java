@@ -0,0 +1,68 @@
+package io.anderson.ashley.gg.validation;
+
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Determining the validation status of an IP-API response, with the default blocklists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationServiceBenchmark
+{
+	@Param({ "okay", "blocked-ip", "blocked-isp", "private" })
+	private String response;
+
+	private ValidationService validationService;
+	private IpApiResponse ipApiResponse;
+
+	@Setup
+	public void setup()
+	{
+		final var config = new ValidationConfig();
+		config.setBlockedCountries(List.of("CN", "ES", "US"));
+		config.setBlockedProviders(List.of("Amazon", "Google", "Microsoft"));
+		validationService = new ValidationService(config, new Blocklist(config), null, null, null, null, new SimpleMeterRegistry());
+
+		ipApiResponse = new IpApiResponse();
+		switch (response)
+		{
+			case "okay" -> response("success", null, "GB", "Virgin Media");
+			case "blocked-ip" -> response("success", null, "CN", "China Mobile communications corporation");
+			case "blocked-isp" -> response("success", null, "IE", "Amazon.com, Inc.");
+			default -> response("fail", "private range", null, null);
+		}
+	}
+
+	@Benchmark
+	public ValidationResult.Status calculateStatus()
+	{
+		return validationService.calculateStatus(ipApiResponse);
+	}
+
+	private void response(final String status, final String message, final String countryCode, final String isp)
+	{
+		ipApiResponse.setStatus(status);
+		ipApiResponse.setMessage(message);
+		ipApiResponse.setCountryCode(countryCode);
+		ipApiResponse.setIsp(isp);
+	}
+}
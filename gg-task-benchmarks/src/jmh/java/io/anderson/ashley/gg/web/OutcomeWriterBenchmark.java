@@ -0,0 +1,87 @@
+package io.anderson.ashley.gg.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.convert.PipeEntryParser;
+import io.anderson.ashley.gg.convert.SyntheticEntryFile;
+import io.anderson.ashley.gg.model.Outcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of each OutcomeFormat; the payload size of each is printed once, during setup, as it does not vary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutcomeWriterBenchmark
+{
+	@Param({ "100000" })
+	private int rows;
+
+	@Param({ "JSON", "NDJSON", "SMILE", "CBOR", "PROTOBUF" })
+	private OutcomeFormat format;
+
+	private List<Outcome> outcomes;
+	private OutcomeWriter writer;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		final var config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		try (final var entries = new PipeEntryParser(config).parse(new SyntheticEntryFile(rows)))
+		{
+			outcomes = entries.map(Outcome::fromEntry).toList();
+		}
+		writer = new OutcomeWriter(new ObjectMapper());
+
+		final var outputStream = new CountingOutputStream();
+		writer.write(format, outcomes.stream(), outputStream);
+		System.out.printf("%n%s payload: %d bytes, %.1f bytes per row%n", format, outputStream.count, (double) outputStream.count / rows);
+	}
+
+	@Benchmark
+	public long write() throws IOException
+	{
+		final var outputStream = new CountingOutputStream();
+		writer.write(format, outcomes.stream(), outputStream);
+		return outputStream.count;
+	}
+
+	/**
+	 * Discard the payload, only counting its size, so the benchmark measures encoding rather than copying.
+	 */
+	private static final class CountingOutputStream extends OutputStream
+	{
+		private long count;
+
+		@Override
+		public void write(final int b)
+		{
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+		{
+			count += len;
+		}
+	}
+}
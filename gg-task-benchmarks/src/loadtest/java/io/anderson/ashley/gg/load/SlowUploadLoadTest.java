@@ -0,0 +1,216 @@
+package io.anderson.ashley.gg.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Load test for the convert endpoint: opens a number of concurrent uploads, each of which trickles its EntryFile to the
+ * server a row at a time, and reports how many uploads the server handled at once and the latency distribution.
+ * <p>
+ * Run it against the application once with platform threads and once with spring.threads.virtual.enabled (on Java 21):
+ * <pre>
+ * ./gradlew :gg-task-benchmarks:loadTest -PloadTestArgs="--concurrency=10000 --rows=20 --row-delay=PT0.5S --row-size=16384"
+ * </pre>
+ * Every upload is a separate connection, so the open file limit (ulimit -n) on both ends must allow for them. Uploads
+ * waiting for a server thread are buffered by the kernel, so with platform threads only uploads larger than the socket
+ * buffers hold a thread for their whole duration; use --row-size to pad the rows out.
+ * <p>
+ * With the arguments above, on Java 21.0.1 and Tomcat 10.1.18 with one CPU, admission control and IP validation off:
+ * <table>
+ *     <tr><th></th><th>Failed</th><th>Awaiting a response at once</th><th>p50</th><th>Threads</th><th>RSS</th></tr>
+ *     <tr><td>Platform threads</td><td>9351</td><td>200</td><td>464 s</td><td>222</td><td>1.1 GB</td></tr>
+ *     <tr><td>Virtual threads</td><td>9209</td><td>251</td><td>346 s</td><td>276</td><td>1.3 GB</td></tr>
+ * </table>
+ * Failures are uploads still waiting after the client's ten minute timeout. Virtual threads barely help, because
+ * Tomcat's blocking socket read waits on a monitor (NioSocketWrapper.fillReadBuffer), which pins a virtual thread to
+ * its carrier on Java 21; the scheduler makes up for pinned carriers only up to jdk.virtualThreadScheduler.maxPoolSize,
+ * 256 by default.
+ */
+public final class SlowUploadLoadTest
+{
+	private static final String NAME = "John Smith";
+
+	private final URI uri;
+	private final int concurrency;
+	private final int rows;
+	private final Duration rowDelay;
+	private final String rowSuffix;
+	private final HttpClient client;
+	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+	private final AtomicInteger uploading = new AtomicInteger();
+	private final AtomicInteger maxUploading = new AtomicInteger();
+	private final AtomicInteger awaiting = new AtomicInteger();
+	private final AtomicInteger maxAwaiting = new AtomicInteger();
+	private final AtomicLong failed = new AtomicLong();
+
+	private SlowUploadLoadTest(final Map<String, String> args)
+	{
+		uri = URI.create(args.getOrDefault("url", "http://localhost:8080/"));
+		concurrency = Integer.parseInt(args.getOrDefault("concurrency", "10000"));
+		rows = Integer.parseInt(args.getOrDefault("rows", "20"));
+		rowDelay = Duration.parse(args.getOrDefault("row-delay", "PT0.5S"));
+		final var rowSize = Integer.parseInt(args.getOrDefault("row-size", "0"));
+		final var row = "|1X1D14|" + NAME + "|Likes Apricots|Rides A Bike|6.2|12.1\n";
+		final var padding = Math.max(0, rowSize - row.length() - 36);
+		rowSuffix = row.replace(NAME, NAME + " ".repeat(padding));
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofMinutes(1))
+				.build();
+	}
+
+	public static void main(final String[] args)
+	{
+		final var options = Stream.of(args)
+				.filter(arg -> arg.startsWith("--") && arg.contains("="))
+				.map(arg -> arg.substring(2).split("=", 2))
+				.collect(Collectors.toMap(option -> option[0], option -> option[1]));
+		new SlowUploadLoadTest(options).run();
+	}
+
+	private void run()
+	{
+		System.out.printf("%d concurrent uploads of %d %d byte rows, one row every %s, to %s%n", concurrency, rows, rowSuffix.length() + 36, rowDelay, uri);
+		final var latencies = new AtomicLongArray(concurrency);
+		final var start = System.nanoTime();
+		final var uploads = new CompletableFuture<?>[concurrency];
+		for (int i = 0; i < concurrency; i++)
+		{
+			final var index = i;
+			final var requestStart = System.nanoTime();
+			final var body = new SlowBody();
+			final var request = HttpRequest.newBuilder(uri)
+					.timeout(Duration.ofMinutes(10))
+					.header("Content-Type", "text/plain")
+					.POST(HttpRequest.BodyPublishers.fromPublisher(body))
+					.build();
+			uploads[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, error) ->
+					{
+						latencies.set(index, System.nanoTime() - requestStart);
+						if (error != null || response.statusCode() != 200)
+						{
+							failed.incrementAndGet();
+						}
+						if (body.sent)
+						{
+							awaiting.decrementAndGet();
+						}
+					});
+		}
+		CompletableFuture.allOf(uploads).exceptionally(error -> null).join();
+		final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+		scheduler.shutdownNow();
+
+		final var sorted = new long[concurrency];
+		for (int i = 0; i < concurrency; i++)
+		{
+			sorted[i] = latencies.get(i);
+		}
+		Arrays.sort(sorted);
+		final var minimum = rowDelay.multipliedBy(rows);
+		System.out.printf("completed in %s; %d failed%n", elapsed, failed.get());
+		System.out.printf("uploading at once: max %d; awaiting a response at once: max %d%n", maxUploading.get(), maxAwaiting.get());
+		System.out.printf("latency (minimum possible %d ms): p50 %d ms, p90 %d ms, p99 %d ms, max %d ms%n",
+				minimum.toMillis(),
+				millis(sorted, 0.50),
+				millis(sorted, 0.90),
+				millis(sorted, 0.99),
+				millis(sorted, 1.00));
+	}
+
+	private static long millis(final long[] sorted, final double percentile)
+	{
+		final var index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+	}
+
+	private static void max(final AtomicInteger max, final int value)
+	{
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * A request body which sends one row at a time, with a delay before each; the server cannot finish reading the
+	 * body, so cannot respond, until the last row has been sent.
+	 */
+	private final class SlowBody implements Flow.Publisher<ByteBuffer>
+	{
+		private volatile boolean sent;
+
+		@Override
+		public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber)
+		{
+			subscriber.onSubscribe(new Flow.Subscription()
+			{
+				private final AtomicLong demand = new AtomicLong();
+				private int rowsSent;
+				private volatile boolean cancelled;
+
+				@Override
+				public void request(final long n)
+				{
+					if (demand.getAndAdd(n) == 0)
+					{
+						if (rowsSent == 0)
+						{
+							max(maxUploading, uploading.incrementAndGet());
+						}
+						schedule();
+					}
+				}
+
+				@Override
+				public void cancel()
+				{
+					cancelled = true;
+				}
+
+				private void schedule()
+				{
+					scheduler.schedule(this::send, rowDelay.toNanos(), TimeUnit.NANOSECONDS);
+				}
+
+				private void send()
+				{
+					if (cancelled)
+					{
+						uploading.decrementAndGet();
+						return;
+					}
+					final var row = UUID.randomUUID() + rowSuffix;
+					subscriber.onNext(ByteBuffer.wrap(row.getBytes(StandardCharsets.UTF_8)));
+					if (++rowsSent == rows)
+					{
+						uploading.decrementAndGet();
+						max(maxAwaiting, awaiting.incrementAndGet());
+						sent = true;
+						subscriber.onComplete();
+					}
+					else if (demand.decrementAndGet() > 0)
+					{
+						schedule();
+					}
+				}
+			});
+		}
+	}
+}
@@ -3,14 +3,18 @@
  */
 package io.anderson.ashley.gg;
 
+import io.anderson.ashley.gg.job.JobConfig;
+import io.anderson.ashley.gg.log.LogConfig;
 import io.anderson.ashley.gg.validation.ValidationConfig;
 import io.anderson.ashley.gg.web.WebConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({ ValidationConfig.class, WebConfig.class })
+@EnableScheduling
+@EnableConfigurationProperties({ JobConfig.class, LogConfig.class, ValidationConfig.class, WebConfig.class })
 public class Main
 {
 	public static void main(final String[] args)
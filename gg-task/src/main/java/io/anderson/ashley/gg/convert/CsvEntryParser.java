@@ -0,0 +1,89 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.web.WebConfig;
+import lombok.AllArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(prefix = "web", name = "entry-parser", havingValue = "csv", matchIfMissing = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class CsvEntryParser implements IEntryParser
+{
+	private static final String DEFAULT_DELIMITER = "|";
+
+	private final WebConfig config;
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	public Stream<Entry> parse(final Reader reader) throws IOException
+	{
+		final var csvFormat = CSVFormat.Builder
+				.create(CSVFormat.DEFAULT)
+				.setDelimiter(StringUtils.defaultIfEmpty(config.getEntryRecordDelimiter(), DEFAULT_DELIMITER))
+				.build();
+		final var parser = csvFormat.parse(reader);
+		return parser.stream()
+				.map(this::parseEntry)
+				.filter(Objects::nonNull)
+				.onClose(() -> IOUtils.closeQuietly(parser));
+	}
+
+	/**
+	 * Parse a single record in to an Entry.
+	 *
+	 * @param record The CSV record.
+	 * @return The Entry, or null if the record is malformed and data validation is disabled.
+	 */
+	private Entry parseEntry(final CSVRecord record)
+	{
+		try
+		{
+			if (config.isFixedPointSpeeds())
+			{
+				final var averageSpeedTenths = FixedPoint.parse(record.get(5));
+				final var topSpeedTenths = FixedPoint.parse(record.get(6));
+				return new Entry(UUID.fromString(record.get(0)),
+						record.get(1),
+						record.get(2),
+						record.get(3),
+						record.get(4),
+						averageSpeedTenths == FixedPoint.NONE ? new BigDecimal(record.get(5)) : null,
+						topSpeedTenths == FixedPoint.NONE ? new BigDecimal(record.get(6)) : null,
+						averageSpeedTenths,
+						topSpeedTenths);
+			}
+			return new Entry(UUID.fromString(record.get(0)),
+					record.get(1),
+					record.get(2),
+					record.get(3),
+					record.get(4),
+					new BigDecimal(record.get(5)),
+					new BigDecimal(record.get(6)));
+		}
+		catch (final Exception e)
+		{
+			/*
+			 * This does require restarting the application is the flag is changed. Using a service similar to
+			 * Unleash would allow this to be toggled externally to the application and with (alsmot) immediate
+			 * availability.
+			 */
+			return MalformedRecords.malformed(config);
+		}
+	}
+}
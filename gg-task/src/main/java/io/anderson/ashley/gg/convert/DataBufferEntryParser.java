@@ -0,0 +1,172 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.web.WebConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses an EntryFile body as it arrives, as a Flux of DataBuffers, for the reactive endpoint. Lines are found and
+ * parsed in place in the buffers; only a line split across buffers is copied, to join its parts. Each buffer is
+ * released as soon as its lines are parsed, and the next buffer is only requested when the Entries are wanted, so
+ * backpressure reaches the client.
+ */
+@Component
+public class DataBufferEntryParser
+{
+	private static final int LINE_SIZE = 1024;
+
+	private final WebConfig config;
+
+	@Autowired
+	public DataBufferEntryParser(final WebConfig config)
+	{
+		EntryLineParser.delimiter(config);
+		this.config = config;
+	}
+
+	/**
+	 * Parse an EntryFile body for Entries, materialising the fields an Outcome needs.
+	 *
+	 * @param body The EntryFile, as UTF-8 encoded DataBuffers.
+	 * @return A Flux of Entry objects; with data validation enabled, a malformed record ends it with a BAD_REQUEST.
+	 */
+	public Flux<Entry> parse(final Flux<DataBuffer> body)
+	{
+		return parse(body, EntryField.OUTCOME);
+	}
+
+	/**
+	 * Parse an EntryFile body for Entries, materialising only the given fields; the others are null.
+	 *
+	 * @param body   The EntryFile, as UTF-8 encoded DataBuffers.
+	 * @param fields The fields to materialise.
+	 * @return A Flux of Entry objects; with data validation enabled, a malformed record ends it with a BAD_REQUEST.
+	 */
+	public Flux<Entry> parse(final Flux<DataBuffer> body, final Set<EntryField> fields)
+	{
+		return Flux.defer(() ->
+		{
+			final var lines = new Lines(fields);
+			return body.concatMapIterable(lines::parse)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(lines.finish())));
+		});
+	}
+
+	/**
+	 * The state of one body: the start of a line split across buffers, and somewhere to decode lines to.
+	 */
+	private class Lines
+	{
+		private final EntryLineParser lineParser;
+		private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private ByteBuffer partial = ByteBuffer.allocate(LINE_SIZE);
+		private CharBuffer chars = CharBuffer.allocate(LINE_SIZE);
+
+		Lines(final Set<EntryField> fields)
+		{
+			lineParser = new EntryLineParser(config, fields);
+		}
+
+		List<Entry> parse(final DataBuffer buffer)
+		{
+			final List<Entry> entries = new ArrayList<>();
+			try (final var iterator = buffer.readableByteBuffers())
+			{
+				while (iterator.hasNext())
+				{
+					parse(iterator.next(), entries);
+				}
+			}
+			finally
+			{
+				DataBufferUtils.release(buffer);
+			}
+			return entries;
+		}
+
+		List<Entry> finish()
+		{
+			final List<Entry> entries = new ArrayList<>(1);
+			if (partial.position() > 0)
+			{
+				add(partial.flip(), entries);
+				partial.clear();
+			}
+			return entries;
+		}
+
+		private void parse(final ByteBuffer bytes, final List<Entry> entries)
+		{
+			var start = bytes.position();
+			final var limit = bytes.limit();
+			for (int i = start; i < limit; i++)
+			{
+				final var b = bytes.get(i);
+				if (b == '\n' || b == '\r')
+				{
+					if (partial.position() > 0)
+					{
+						append(bytes.slice(start, i - start));
+						add(partial.flip(), entries);
+						partial.clear();
+					}
+					else if (i > start)
+					{
+						add(bytes.slice(start, i - start), entries);
+					}
+					start = i + 1;
+				}
+			}
+			if (start < limit)
+			{
+				append(bytes.slice(start, limit - start));
+			}
+		}
+
+		private void append(final ByteBuffer bytes)
+		{
+			if (partial.remaining() < bytes.remaining())
+			{
+				final var grown = ByteBuffer.allocate(Math.max(partial.capacity() * 2, partial.position() + bytes.remaining()));
+				partial = grown.put(partial.flip());
+			}
+			partial.put(bytes);
+		}
+
+		/**
+		 * Decode and parse a line; UTF-8 never decodes to more chars than it has bytes, so the chars always fit.
+		 */
+		private void add(final ByteBuffer line, final List<Entry> entries)
+		{
+			if (chars.capacity() < line.remaining())
+			{
+				chars = CharBuffer.allocate(line.remaining());
+			}
+			chars.clear();
+			decoder.reset();
+			decoder.decode(line, chars, true);
+			decoder.flush(chars);
+			final var entry = lineParser.parse(chars.array(), 0, chars.position());
+			if (entry != null)
+			{
+				entries.add(entry);
+			}
+		}
+	}
+}
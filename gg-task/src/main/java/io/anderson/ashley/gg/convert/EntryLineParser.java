@@ -0,0 +1,224 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.web.WebConfig;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Parses single EntryFile lines held in a char array. Every field is validated as strictly as {@link CsvEntryParser}
+ * validates it, but only the fields asked for are materialised; the other fields of the returned Entries are null. With
+ * fixed point speeds enabled speeds are held as a long of tenths where they can be. Instances keep scratch state, so
+ * each stream of lines needs its own.
+ */
+final class EntryLineParser
+{
+	private static final String DEFAULT_DELIMITER = "|";
+	private static final int FIELDS = 7;
+	private static final int UUID_LENGTH = 36;
+	private static final int MAX_EXPONENT_DIGITS = 9;
+
+	private final WebConfig config;
+	private final char delimiter;
+	private final boolean[] materialise = new boolean[FIELDS];
+	private final int[] ends = new int[FIELDS];
+
+	EntryLineParser(final WebConfig config, final Set<EntryField> fields)
+	{
+		this.config = config;
+		this.delimiter = delimiter(config);
+		fields.forEach(field -> materialise[field.ordinal()] = true);
+	}
+
+	/**
+	 * The configured record delimiter, which must be a single character.
+	 *
+	 * @param config The web configuration.
+	 * @return The delimiter.
+	 */
+	static char delimiter(final WebConfig config)
+	{
+		final var delimiter = StringUtils.defaultIfEmpty(config.getEntryRecordDelimiter(), DEFAULT_DELIMITER);
+		if (delimiter.length() != 1)
+		{
+			throw new IllegalArgumentException("The pipe entry parser only supports single character delimiters: " + delimiter);
+		}
+		return delimiter.charAt(0);
+	}
+
+	/**
+	 * Parse a single line in to an Entry.
+	 *
+	 * @param buffer The characters.
+	 * @param start  The start of the line.
+	 * @param end    The end of the line, excluding the line break.
+	 * @return The Entry, or null if the line is malformed and data validation is disabled.
+	 */
+	Entry parse(final char[] buffer, final int start, final int end)
+	{
+		var fields = 0;
+		for (int i = start; i < end && fields < FIELDS; i++)
+		{
+			if (buffer[i] == delimiter)
+			{
+				ends[fields++] = i;
+			}
+		}
+		if (fields < FIELDS - 1)
+		{
+			return malformed();
+		}
+		if (fields < FIELDS)
+		{
+			ends[FIELDS - 1] = end;
+		}
+		if (!isUuid(buffer, start, ends[0]) || !isDecimal(buffer, ends[4] + 1, ends[5]))
+		{
+			return malformed();
+		}
+		if (!materialise[EntryField.TOP_SPEED.ordinal()] && !isDecimal(buffer, ends[5] + 1, ends[6]))
+		{
+			return malformed();
+		}
+
+		final var averageSpeedTenths = tenths(EntryField.AVERAGE_SPEED, buffer, ends[4] + 1, ends[5]);
+		final var topSpeedTenths = tenths(EntryField.TOP_SPEED, buffer, ends[5] + 1, ends[6]);
+		final BigDecimal averageSpeed;
+		final BigDecimal topSpeed;
+		try
+		{
+			averageSpeed = decimal(EntryField.AVERAGE_SPEED, averageSpeedTenths, buffer, ends[4] + 1, ends[5]);
+			topSpeed = decimal(EntryField.TOP_SPEED, topSpeedTenths, buffer, ends[5] + 1, ends[6]);
+		}
+		catch (final NumberFormatException e)
+		{
+			return malformed();
+		}
+		return new Entry(materialise[EntryField.UUID.ordinal()] ? UUID.fromString(new String(buffer, start, ends[0] - start)) : null,
+				string(EntryField.ID, buffer, ends[0] + 1, ends[1]),
+				string(EntryField.NAME, buffer, ends[1] + 1, ends[2]),
+				string(EntryField.LIKES, buffer, ends[2] + 1, ends[3]),
+				string(EntryField.TRANSPORT, buffer, ends[3] + 1, ends[4]),
+				averageSpeed,
+				topSpeed,
+				averageSpeedTenths,
+				topSpeedTenths);
+	}
+
+	private String string(final EntryField field, final char[] buffer, final int start, final int end)
+	{
+		return materialise[field.ordinal()] ? new String(buffer, start, end - start) : null;
+	}
+
+	private long tenths(final EntryField field, final char[] buffer, final int start, final int end)
+	{
+		return materialise[field.ordinal()] && config.isFixedPointSpeeds() ? FixedPoint.parse(buffer, start, end) : FixedPoint.NONE;
+	}
+
+	private BigDecimal decimal(final EntryField field, final long tenths, final char[] buffer, final int start, final int end)
+	{
+		return materialise[field.ordinal()] && tenths == FixedPoint.NONE ? new BigDecimal(buffer, start, end - start) : null;
+	}
+
+	private Entry malformed()
+	{
+		return MalformedRecords.malformed(config);
+	}
+
+	/**
+	 * Check whether the characters are a UUID; the canonical form is checked in place, anything else is left to
+	 * {@link UUID#fromString(String)}, which is more lenient.
+	 */
+	static boolean isUuid(final char[] buffer, final int start, final int end)
+	{
+		if (end - start == UUID_LENGTH)
+		{
+			var canonical = true;
+			for (int i = 0; i < UUID_LENGTH && canonical; i++)
+			{
+				final var c = buffer[start + i];
+				canonical = i == 8 || i == 13 || i == 18 || i == 23 ? c == '-' : isAsciiHexDigit(c);
+			}
+			if (canonical)
+			{
+				return true;
+			}
+		}
+		try
+		{
+			UUID.fromString(new String(buffer, start, end - start));
+			return true;
+		}
+		catch (final IllegalArgumentException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Check whether the characters are a decimal number; plain ASCII decimals are checked in place, anything else is
+	 * left to {@link BigDecimal}, which also accepts non-ASCII digits.
+	 */
+	static boolean isDecimal(final char[] buffer, final int start, final int end)
+	{
+		var i = start;
+		if (i < end && (buffer[i] == '+' || buffer[i] == '-'))
+		{
+			i++;
+		}
+		var digits = 0;
+		for (; i < end && isAsciiDigit(buffer[i]); i++)
+		{
+			digits++;
+		}
+		if (i < end && buffer[i] == '.')
+		{
+			for (i++; i < end && isAsciiDigit(buffer[i]); i++)
+			{
+				digits++;
+			}
+		}
+		var valid = digits > 0;
+		if (valid && i < end && (buffer[i] == 'e' || buffer[i] == 'E'))
+		{
+			if (++i < end && (buffer[i] == '+' || buffer[i] == '-'))
+			{
+				i++;
+			}
+			var exponent = 0;
+			for (; i < end && isAsciiDigit(buffer[i]); i++)
+			{
+				exponent++;
+			}
+			valid = exponent > 0 && exponent <= MAX_EXPONENT_DIGITS;
+		}
+		if (valid && i == end)
+		{
+			return true;
+		}
+		try
+		{
+			new BigDecimal(buffer, start, end - start);
+			return true;
+		}
+		catch (final NumberFormatException e)
+		{
+			return false;
+		}
+	}
+
+	private static boolean isAsciiDigit(final char c)
+	{
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isAsciiHexDigit(final char c)
+	{
+		return isAsciiDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+}
@@ -0,0 +1,37 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface IEntryParser
+{
+	String MALFORMED_DATA = "Malformed request data - disable data validation flag and try again!";
+
+	/**
+	 * Parse an EntryFile for Entries. Records are parsed lazily, as the stream is consumed.
+	 *
+	 * @param reader The EntryFile Reader instance.
+	 * @return A stream of Entry objects; closing the stream closes the Reader.
+	 * @throws IOException Thrown if there is an issue parsing the Reader.
+	 */
+	Stream<Entry> parse(Reader reader) throws IOException;
+
+	/**
+	 * Parse an EntryFile for Entries, materialising only the given fields; parsers may leave any other field null.
+	 * Every field is still validated. By default every field is materialised.
+	 *
+	 * @param reader The EntryFile Reader instance.
+	 * @param fields The fields to materialise.
+	 * @return A stream of Entry objects; closing the stream closes the Reader.
+	 * @throws IOException Thrown if there is an issue parsing the Reader.
+	 */
+	default Stream<Entry> parse(final Reader reader, final Set<EntryField> fields) throws IOException
+	{
+		return parse(reader);
+	}
+}
@@ -0,0 +1,44 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.web.WebConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * What the parsers do with a malformed record: with data validation enabled it fails the request, otherwise it is
+ * dropped. Both are counted, as gg.convert.malformed tagged with the outcome. Parsers are also created outside of
+ * Spring, so the counters are registered with the global registry, which Spring Boot adds its own registries to.
+ */
+final class MalformedRecords
+{
+	static final String METRIC = "gg.convert.malformed";
+	static final String OUTCOME_TAG = "outcome";
+
+	private static final Counter REJECTED = Metrics.counter(METRIC, OUTCOME_TAG, "rejected");
+	private static final Counter DROPPED = Metrics.counter(METRIC, OUTCOME_TAG, "dropped");
+
+	private MalformedRecords()
+	{
+	}
+
+	/**
+	 * Handle a malformed record.
+	 *
+	 * @param config The web configuration.
+	 * @param <T>    The type of the record.
+	 * @return Null, to drop the record.
+	 * @throws ResponseStatusException BAD_REQUEST if data validation is enabled.
+	 */
+	static <T> T malformed(final WebConfig config)
+	{
+		if (config.isDataValidationEnabled())
+		{
+			REJECTED.increment();
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, IEntryParser.MALFORMED_DATA);
+		}
+		DROPPED.increment();
+		return null;
+	}
+}
@@ -0,0 +1,250 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.WebConfig;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Convert large EntryFiles using every core: the file is cut in to line aligned chunks, each chunk is parsed and
+ * converted on a ForkJoinPool, and the Outcomes are put back together in their original order. Only a few chunks per
+ * thread are in flight at once, so memory use does not depend on the size of the file.
+ */
+@Component
+public class ParallelEntryConverter
+{
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	private final WebConfig.Parallel config;
+	private final IEntryParser parser;
+	private final ForkJoinPool pool;
+
+	@Autowired
+	public ParallelEntryConverter(final WebConfig config, final IEntryParser parser)
+	{
+		this.config = config.getParallel();
+		this.parser = parser;
+		this.pool = new ForkJoinPool(this.config.getParallelism() > 0
+				? this.config.getParallelism()
+				: Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Check whether an EntryFile is large enough to be worth converting in parallel.
+	 *
+	 * @param contentLength The length of the EntryFile in bytes, or -1 if not known.
+	 * @return Whether parallel conversion is enabled and the EntryFile is at least the threshold size.
+	 */
+	public boolean isParallel(final long contentLength)
+	{
+		return config.isEnabled() && contentLength >= 0 && contentLength >= config.getThreshold().toBytes();
+	}
+
+	/**
+	 * Convert an EntryFile in to Outcomes, in the same order as the Entries. Malformed records are treated exactly as
+	 * the parser treats them; with data validation enabled the first failed chunk fails the stream.
+	 *
+	 * @param reader The EntryFile Reader instance.
+	 * @return A stream of Outcome objects; closing the stream closes the Reader and abandons any outstanding chunks.
+	 */
+	public Stream<Outcome> convert(final Reader reader)
+	{
+		return convert(reader, EntryField.OUTCOME, entries -> entries.map(Outcome::fromEntry));
+	}
+
+	/**
+	 * Convert an EntryFile with any conversion of a stream of Entries, such as filtering or projecting them, which is
+	 * applied to each chunk in parallel. Results are in the same order as the Entries.
+	 *
+	 * @param reader     The EntryFile Reader instance.
+	 * @param fields     The fields the conversion needs the parser to materialise.
+	 * @param conversion The conversion of each chunk's Entries.
+	 * @param <T>        The type of the results.
+	 * @return A stream of results; closing the stream closes the Reader and abandons any outstanding chunks.
+	 */
+	public <T> Stream<T> convert(final Reader reader, final Set<EntryField> fields, final Function<Stream<Entry>, Stream<T>> conversion)
+	{
+		final var chunks = new Chunks<T>(reader, (chunk, length) -> convert(chunk, length, fields, conversion));
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.flatMap(List::stream)
+				.onClose(chunks::close);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		pool.shutdownNow();
+	}
+
+	private <T> List<T> convert(final char[] chunk,
+	                            final int length,
+	                            final Set<EntryField> fields,
+	                            final Function<Stream<Entry>, Stream<T>> conversion)
+	{
+		try (final var entries = parser.parse(new CharArrayReader(chunk, 0, length), fields))
+		{
+			return conversion.apply(entries).toList();
+		}
+		catch (final IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the EntryFile a chunk at a time, keeping enough chunks in flight to occupy the pool. A chunk ends after its
+	 * last line break; the partial line after it starts the next chunk. A chunk only grows beyond the chunk size if a
+	 * single line does not fit in it.
+	 */
+	private class Chunks<T> implements Iterator<List<T>>
+	{
+		private final Reader reader;
+		private final BiFunction<char[], Integer, List<T>> conversion;
+		private final Deque<CompletableFuture<List<T>>> inFlight = new ArrayDeque<>();
+		private final int chunkSize = (int) config.getChunkSize().toBytes();
+		private final int window = pool.getParallelism() * CHUNKS_PER_THREAD;
+		private char[] next = new char[chunkSize];
+		private int nextLength;
+		private boolean eof;
+
+		Chunks(final Reader reader, final BiFunction<char[], Integer, List<T>> conversion)
+		{
+			this.reader = reader;
+			this.conversion = conversion;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			submit();
+			return !inFlight.isEmpty();
+		}
+
+		@Override
+		public List<T> next()
+		{
+			submit();
+			/*
+			 * Fail fast: with data validation enabled any malformed record fails the whole request, so there is no
+			 * need to wait for the chunks before a failed one.
+			 */
+			inFlight.stream().filter(CompletableFuture::isCompletedExceptionally).findFirst().ifPresent(ParallelEntryConverter::join);
+			final var head = inFlight.poll();
+			if (head == null)
+			{
+				throw new NoSuchElementException();
+			}
+			return join(head);
+		}
+
+		void close()
+		{
+			inFlight.forEach(future -> future.cancel(false));
+			inFlight.clear();
+			IOUtils.closeQuietly(reader);
+		}
+
+		private void submit()
+		{
+			try
+			{
+				while (!eof && inFlight.size() < window)
+				{
+					final var chunk = read();
+					if (chunk.length() > 0)
+					{
+						inFlight.add(CompletableFuture.supplyAsync(() -> conversion.apply(chunk.buffer(), chunk.length()), pool));
+					}
+				}
+			}
+			catch (final IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Fill the next chunk, and carry its trailing partial line over to a new one.
+		 *
+		 * @return The chunk, up to and including its last line break.
+		 */
+		private Chunk read() throws IOException
+		{
+			var buffer = next;
+			var length = nextLength;
+			while (true)
+			{
+				while (length < buffer.length)
+				{
+					final var read = reader.read(buffer, length, buffer.length - length);
+					if (read < 0)
+					{
+						eof = true;
+						return new Chunk(buffer, length);
+					}
+					length += read;
+				}
+				var boundary = length - 1;
+				while (boundary >= 0 && buffer[boundary] != '\n' && buffer[boundary] != '\r')
+				{
+					boundary--;
+				}
+				if (boundary < 0)
+				{
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					continue;
+				}
+				final var tail = length - boundary - 1;
+				next = new char[Math.max(chunkSize, tail * 2)];
+				nextLength = tail;
+				System.arraycopy(buffer, boundary + 1, next, 0, tail);
+				return new Chunk(buffer, boundary + 1);
+			}
+		}
+	}
+
+	private record Chunk(char[] buffer, int length)
+	{
+	}
+
+	private static <T> List<T> join(final CompletableFuture<List<T>> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (final CompletionException e)
+		{
+			if (e.getCause() instanceof RuntimeException cause)
+			{
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.web.WebConfig;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A purpose-built EntryFile parser which scans the Reader's characters in place, a line at a time, with an
+ * {@link EntryLineParser}. Unlike CSV, quotes have no special meaning. Only the fields asked for are materialised, which
+ * by default are those an Outcome needs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "web", name = "entry-parser", havingValue = "pipe")
+public class PipeEntryParser implements IEntryParser
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final WebConfig config;
+
+	@Autowired
+	public PipeEntryParser(final WebConfig config)
+	{
+		EntryLineParser.delimiter(config);
+		this.config = config;
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	public Stream<Entry> parse(final Reader reader)
+	{
+		return parse(reader, EntryField.OUTCOME);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public Stream<Entry> parse(final Reader reader, final Set<EntryField> fields)
+	{
+		return StreamSupport.stream(new EntrySpliterator(reader, fields), false)
+				.onClose(() -> IOUtils.closeQuietly(reader));
+	}
+
+	/**
+	 * Reads the EntryFile a buffer at a time, producing an Entry for each non-empty line; lines may end with LF, CR or
+	 * CRLF. The buffer only grows if a single line does not fit in it.
+	 */
+	private class EntrySpliterator extends Spliterators.AbstractSpliterator<Entry>
+	{
+		private final Reader reader;
+		private final EntryLineParser lineParser;
+		private char[] buffer = new char[BUFFER_SIZE];
+		private int position;
+		private int limit;
+		private int lineStart;
+		private int lineEnd;
+		private boolean skipLineFeed;
+		private boolean eof;
+
+		EntrySpliterator(final Reader reader, final Set<EntryField> fields)
+		{
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.reader = reader;
+			this.lineParser = new EntryLineParser(config, fields);
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super Entry> action)
+		{
+			try
+			{
+				while (nextLine())
+				{
+					if (lineStart == lineEnd)
+					{
+						continue;
+					}
+					final var entry = lineParser.parse(buffer, lineStart, lineEnd);
+					if (entry != null)
+					{
+						action.accept(entry);
+						return true;
+					}
+				}
+				return false;
+			}
+			catch (final IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private boolean nextLine() throws IOException
+		{
+			int scan = position;
+			while (true)
+			{
+				if (skipLineFeed && position < limit)
+				{
+					skipLineFeed = false;
+					if (buffer[position] == '\n')
+					{
+						scan = ++position;
+					}
+				}
+				for (; scan < limit; scan++)
+				{
+					final var c = buffer[scan];
+					if (c == '\n' || c == '\r')
+					{
+						lineStart = position;
+						lineEnd = scan;
+						position = scan + 1;
+						skipLineFeed = c == '\r';
+						return true;
+					}
+				}
+				if (eof)
+				{
+					if (position == limit)
+					{
+						return false;
+					}
+					lineStart = position;
+					lineEnd = limit;
+					position = limit;
+					return true;
+				}
+				scan -= position;
+				fill();
+			}
+		}
+
+		private void fill() throws IOException
+		{
+			final var remaining = limit - position;
+			if (remaining == buffer.length)
+			{
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+			position = 0;
+			limit = remaining;
+			final var read = reader.read(buffer, limit, buffer.length - limit);
+			if (read < 0)
+			{
+				eof = true;
+			}
+			else
+			{
+				limit += read;
+			}
+		}
+	}
+}
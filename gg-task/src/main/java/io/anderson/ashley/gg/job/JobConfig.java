@@ -0,0 +1,15 @@
+package io.anderson.ashley.gg.job;
+
+import io.anderson.ashley.gg.web.ContentEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "jobs")
+@Data
+public class JobConfig
+{
+	private String directory;
+	private int concurrency = 2;
+	private int queueCapacity = 100;
+	private ContentEncoding compression = ContentEncoding.GZIP;
+}
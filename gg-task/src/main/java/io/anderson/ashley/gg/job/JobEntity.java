@@ -0,0 +1,38 @@
+package io.anderson.ashley.gg.job;
+
+import io.anderson.ashley.gg.web.ContentEncoding;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@Entity
+@NoArgsConstructor
+@Data
+public class JobEntity
+{
+	@Id
+	private UUID jobId;
+	@NonNull
+	@Enumerated(EnumType.STRING)
+	private JobStatus.State state;
+	@NonNull
+	private String requestIpAddress;
+	@NonNull
+	private Timestamp submitted;
+	private Timestamp started;
+	private Timestamp finished;
+	private long inputBytes;
+	private long rows;
+	private long resultBytes;
+	@Enumerated(EnumType.STRING)
+	private ContentEncoding resultEncoding;
+	private int errorStatus;
+	private String message;
+}
@@ -0,0 +1,38 @@
+package io.anderson.ashley.gg.job;
+
+import io.anderson.ashley.gg.web.ContentEncoding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface JobRepository extends JpaRepository<JobEntity, UUID>
+{
+	List<JobEntity> findByStateIn(Collection<JobStatus.State> states);
+
+	/**
+	 * Mark a queued job as running, in one statement, so that it cannot be deleted as it starts.
+	 *
+	 * @return 1 if the job was started, or 0 if it is no longer queued, e.g. because it was deleted.
+	 */
+	@Transactional
+	@Modifying
+	@Query("update JobEntity j set j.state = RUNNING, j.started = :started, j.resultEncoding = :encoding"
+			+ " where j.jobId = :id and j.state = QUEUED")
+	int start(UUID id, Timestamp started, ContentEncoding encoding);
+
+	/**
+	 * Delete a job unless it is running, in one statement, so that it cannot start as it is deleted.
+	 *
+	 * @return 1 if the job was deleted, or 0 if it is running or does not exist.
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from JobEntity j where j.jobId = :id and j.state <> RUNNING")
+	int deleteUnlessRunning(UUID id);
+}
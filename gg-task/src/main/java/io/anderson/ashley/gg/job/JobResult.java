@@ -0,0 +1,15 @@
+package io.anderson.ashley.gg.job;
+
+import io.anderson.ashley.gg.web.ContentEncoding;
+
+import java.nio.file.Path;
+
+/**
+ * The stored result of a successful job: a JSON array of Outcomes.
+ *
+ * @param path     The result file.
+ * @param encoding How the file is compressed.
+ */
+public record JobResult(Path path, ContentEncoding encoding)
+{
+}
@@ -0,0 +1,327 @@
+package io.anderson.ashley.gg.job;
+
+import io.anderson.ashley.gg.convert.IEntryParser;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.OutcomeFormat;
+import io.anderson.ashley.gg.web.OutcomeWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Convert EntryFiles in the background, so that a long conversion does not hold a request thread and connection. The
+ * EntryFile is saved to disk and converted by a bounded pool of workers, with the same parsers as the convert endpoint,
+ * in to a compressed JSON array of Outcomes on disk.
+ * <p>
+ * Job metadata is kept in the JPA datasource. Jobs which were queued or running when the application stopped are
+ * queued again when it starts, as long as their EntryFile is still on disk; that needs a datasource that outlives the
+ * application, rather than the default in-memory database.
+ */
+@Slf4j
+@Service
+public class JobService
+{
+	private static final String INPUT_SUFFIX = ".input";
+	private static final String RESULT_SUFFIX = ".result";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MESSAGE_LENGTH = 255;
+
+	private final JobConfig config;
+	private final JobRepository repository;
+	private final IEntryParser parser;
+	private final ParallelEntryConverter parallelConverter;
+	private final OutcomeWriter outcomeWriter;
+	private final Path directory;
+	private final ExecutorService executor;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final Map<UUID, AtomicLong> progress = new ConcurrentHashMap<>();
+
+	@Autowired
+	public JobService(final JobConfig config,
+	                  final JobRepository repository,
+	                  final IEntryParser parser,
+	                  final ParallelEntryConverter parallelConverter,
+	                  final OutcomeWriter outcomeWriter) throws IOException
+	{
+		this.config = config;
+		this.repository = repository;
+		this.parser = parser;
+		this.parallelConverter = parallelConverter;
+		this.outcomeWriter = outcomeWriter;
+		this.directory = Files.createDirectories(StringUtils.isNotBlank(config.getDirectory())
+				? Path.of(config.getDirectory())
+				: Path.of(System.getProperty("java.io.tmpdir"), "gg-task-jobs"));
+		final var workers = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(), 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), runnable ->
+		{
+			final var thread = new Thread(runnable, "job-worker-" + workers.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Save an EntryFile and queue it for conversion. Once as many jobs as there are workers and queue places are
+	 * waiting, further jobs are refused before their EntryFile is read.
+	 *
+	 * @param body      The EntryFile.
+	 * @param ipAddress The IP address which submitted the job.
+	 * @return The status of the queued job.
+	 * @throws IOException             Thrown if the EntryFile cannot be saved.
+	 * @throws ResponseStatusException SERVICE_UNAVAILABLE if the queue is full, or the service is shutting down.
+	 */
+	public JobStatus submit(final InputStream body, final String ipAddress) throws IOException
+	{
+		if (pending.incrementAndGet() > config.getConcurrency() + config.getQueueCapacity())
+		{
+			pending.decrementAndGet();
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many jobs are queued; try again later.");
+		}
+		final var job = new JobEntity();
+		try
+		{
+			job.setJobId(UUID.randomUUID());
+			job.setInputBytes(Files.copy(body, input(job.getJobId())));
+			job.setState(JobStatus.State.QUEUED);
+			job.setRequestIpAddress(ipAddress);
+			job.setSubmitted(Timestamp.from(Instant.now()));
+			repository.save(job);
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			pending.decrementAndGet();
+			Files.deleteIfExists(input(job.getJobId()));
+			throw e;
+		}
+		try
+		{
+			executor.execute(() -> run(job.getJobId()));
+		}
+		catch (final RejectedExecutionException e)
+		{
+			// Shutting down; the saved job would never run, nor leave the pending count
+			pending.decrementAndGet();
+			repository.deleteById(job.getJobId());
+			Files.deleteIfExists(input(job.getJobId()));
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Jobs are not being accepted; try again later.", e);
+		}
+		return JobStatus.fromEntity(job, 0);
+	}
+
+	/**
+	 * @param id The job's ID.
+	 * @return The job's status.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown job.
+	 */
+	public JobStatus status(final UUID id)
+	{
+		final var job = job(id);
+		final var rows = progress.get(id);
+		return JobStatus.fromEntity(job, rows != null ? rows.get() : job.getRows());
+	}
+
+	/**
+	 * @param id The job's ID.
+	 * @return The job's stored result.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown job; CONFLICT if the job has not succeeded.
+	 */
+	public JobResult result(final UUID id)
+	{
+		final var job = job(id);
+		if (job.getState() != JobStatus.State.SUCCEEDED)
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Job is " + job.getState() + ".");
+		}
+		return new JobResult(result(id, job), job.getResultEncoding());
+	}
+
+	/**
+	 * Remove a job which is not running, and its files; a queued job is not run. Whether it is running is checked as it
+	 * is deleted, as a queued job may start at any time.
+	 *
+	 * @param id The job's ID.
+	 * @throws IOException             Thrown if the job's files cannot be deleted.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown job; CONFLICT if the job is running.
+	 */
+	public void delete(final UUID id) throws IOException
+	{
+		final var job = job(id);
+		if (repository.deleteUnlessRunning(id) == 0)
+		{
+			if (repository.existsById(id))
+			{
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "Job is running.");
+			}
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found.");
+		}
+		Files.deleteIfExists(input(id));
+		Files.deleteIfExists(result(id, job));
+	}
+
+	/**
+	 * Queue any jobs left unfinished when the application last stopped.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resume()
+	{
+		for (final var job : repository.findByStateIn(List.of(JobStatus.State.QUEUED, JobStatus.State.RUNNING)))
+		{
+			if (progress.containsKey(job.getJobId()))
+			{
+				continue;
+			}
+			if (Files.exists(input(job.getJobId())))
+			{
+				log.info("Resuming job {}", job.getJobId());
+				job.setState(JobStatus.State.QUEUED);
+				job.setStarted(null);
+				job.setRows(0);
+				repository.save(job);
+				pending.incrementAndGet();
+				executor.execute(() -> run(job.getJobId()));
+			}
+			else
+			{
+				fail(job, HttpStatus.INTERNAL_SERVER_ERROR, "EntryFile was lost when the application stopped.");
+				repository.save(job);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+
+	private void run(final UUID id)
+	{
+		try
+		{
+			final var job = repository.findById(id).orElse(null);
+			final var started = Timestamp.from(Instant.now());
+			// Deleted while it was queued, either before or as it was read
+			if (job == null || repository.start(id, started, config.getCompression()) == 0)
+			{
+				return;
+			}
+			final var rows = new AtomicLong();
+			progress.put(id, rows);
+			job.setState(JobStatus.State.RUNNING);
+			job.setStarted(started);
+			job.setResultEncoding(config.getCompression());
+
+			final var result = result(id, job);
+			try
+			{
+				convert(job, rows::incrementAndGet, result);
+				job.setState(JobStatus.State.SUCCEEDED);
+				job.setResultBytes(Files.size(result));
+			}
+			catch (final ResponseStatusException e)
+			{
+				fail(job, HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+				Files.deleteIfExists(result);
+			}
+			catch (final IOException | RuntimeException e)
+			{
+				log.warn("Job {} failed", id, e);
+				fail(job, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+				Files.deleteIfExists(result);
+			}
+			if (Thread.currentThread().isInterrupted())
+			{
+				// Shutting down: leave the job to be resumed
+				return;
+			}
+			job.setFinished(Timestamp.from(Instant.now()));
+			job.setRows(rows.get());
+			repository.save(job);
+			Files.deleteIfExists(input(id));
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			log.warn("Could not record the outcome of job {}", id, e);
+		}
+		finally
+		{
+			progress.remove(id);
+			pending.decrementAndGet();
+		}
+	}
+
+	private void convert(final JobEntity job, final Runnable row, final Path result) throws IOException
+	{
+		try (final var reader = new InputStreamReader(Files.newInputStream(input(job.getJobId())), StandardCharsets.UTF_8);
+		     final var outcomes = convert(reader, job.getInputBytes()).peek(outcome -> row.run());
+		     final var outputStream = new BufferedOutputStream(Files.newOutputStream(result), BUFFER_SIZE);
+		     final var encoded = job.getResultEncoding().wrap(outputStream))
+		{
+			outcomeWriter.write(OutcomeFormat.JSON, outcomes, encoded);
+		}
+	}
+
+	private Stream<Outcome> convert(final Reader reader, final long length) throws IOException
+	{
+		if (parallelConverter.isParallel(length))
+		{
+			return parallelConverter.convert(reader);
+		}
+		return parser.parse(reader).map(Outcome::fromEntry);
+	}
+
+	private JobEntity job(final UUID id)
+	{
+		return repository.findById(id)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found."));
+	}
+
+	private Path input(final UUID id)
+	{
+		return directory.resolve(id + INPUT_SUFFIX);
+	}
+
+	private Path result(final UUID id, final JobEntity job)
+	{
+		final var encoding = job.getResultEncoding() != null ? "." + job.getResultEncoding().name().toLowerCase() : "";
+		return directory.resolve(id + RESULT_SUFFIX + encoding);
+	}
+
+	private static void fail(final JobEntity job, final HttpStatus status, final String message)
+	{
+		job.setState(JobStatus.State.FAILED);
+		job.setErrorStatus(status.value());
+		job.setMessage(StringUtils.abbreviate(message, MESSAGE_LENGTH));
+	}
+}
@@ -0,0 +1,71 @@
+package io.anderson.ashley.gg.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The progress of a conversion job.
+ *
+ * @param id            The job's ID.
+ * @param state         Where the job is up to.
+ * @param submitted     When the EntryFile was received.
+ * @param started       When conversion started, if it has.
+ * @param finished      When conversion finished, if it has.
+ * @param inputBytes    The size of the EntryFile.
+ * @param rows          The Outcomes converted so far.
+ * @param resultBytes   The size of the stored, compressed, result once the job has succeeded.
+ * @param rowsPerSecond The conversion rate, once started.
+ * @param errorStatus   The HTTP status a convert request would have failed with, if the job failed.
+ * @param message       Why the job failed, if it did.
+ */
+public record JobStatus(UUID id,
+                        State state,
+                        Instant submitted,
+                        Instant started,
+                        Instant finished,
+                        long inputBytes,
+                        long rows,
+                        long resultBytes,
+                        Double rowsPerSecond,
+                        Integer errorStatus,
+                        String message)
+{
+	public enum State
+	{
+		QUEUED,
+		RUNNING,
+		SUCCEEDED,
+		FAILED
+	}
+
+	/**
+	 * Create a JobStatus from a job's stored metadata.
+	 *
+	 * @param job  The job.
+	 * @param rows The Outcomes converted so far, which for a running job is more up to date than the stored count.
+	 * @return The new JobStatus object.
+	 */
+	public static JobStatus fromEntity(final JobEntity job, final long rows)
+	{
+		final var started = job.getStarted() != null ? job.getStarted().toInstant() : null;
+		final var finished = job.getFinished() != null ? job.getFinished().toInstant() : null;
+		Double rowsPerSecond = null;
+		if (started != null)
+		{
+			final var elapsed = Duration.between(started, finished != null ? finished : Instant.now()).toNanos();
+			rowsPerSecond = elapsed > 0 ? rows * 1e9 / elapsed : null;
+		}
+		return new JobStatus(job.getJobId(),
+				job.getState(),
+				job.getSubmitted().toInstant(),
+				started,
+				finished,
+				job.getInputBytes(),
+				rows,
+				job.getResultBytes(),
+				rowsPerSecond,
+				job.getState() == State.FAILED ? job.getErrorStatus() : null,
+				job.getMessage());
+	}
+}
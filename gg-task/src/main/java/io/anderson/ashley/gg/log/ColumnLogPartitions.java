@@ -0,0 +1,47 @@
+package io.anderson.ashley.gg.log;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partitions as a column of a single table, which works on any database, including H2. Dropping a partition is one
+ * delete statement over the partition day index, rather than a delete per record.
+ */
+@Component
+@ConditionalOnProperty(prefix = "log.retention", name = "partitioning", havingValue = "column", matchIfMissing = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ColumnLogPartitions implements ILogPartitions
+{
+	private final LogRepository repository;
+
+	/**
+	 * {@inheritDoc}; a column partition needs no creating.
+	 */
+	public void create(final LocalDate day)
+	{
+	}
+
+	/**
+	 * {@inheritDoc}; every day from the oldest record's, as finding the oldest is an index lookup where listing the
+	 * distinct days would be an index scan.
+	 */
+	public List<LocalDate> findBefore(final LocalDate day)
+	{
+		return repository.findOldestPartitionDay()
+				.map(oldest -> oldest.datesUntil(day).toList())
+				.orElse(List.of());
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	public void drop(final LocalDate day)
+	{
+		repository.deleteByPartitionDay(day);
+	}
+}
@@ -0,0 +1,30 @@
+package io.anderson.ashley.gg.log;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The day partitions of the request log table.
+ */
+public interface ILogPartitions
+{
+	/**
+	 * Make sure a partition exists before any records are written to it.
+	 *
+	 * @param day The partition's day.
+	 */
+	void create(LocalDate day);
+
+	/**
+	 * @param day The earliest day to keep.
+	 * @return The partitions before the given day, oldest first.
+	 */
+	List<LocalDate> findBefore(LocalDate day);
+
+	/**
+	 * Drop a partition and every record in it.
+	 *
+	 * @param day The partition's day.
+	 */
+	void drop(LocalDate day);
+}
@@ -10,4 +10,12 @@ public interface ILogService
 	 * @param request The LogRequest object, with details of what to store.
 	 */
 	void logRequest(LogRequest request);
+
+	/**
+	 * Find request logs, a page at a time.
+	 *
+	 * @param query The criteria, page size and cursor.
+	 * @return A page of request logs, newest first.
+	 */
+	LogPage findLogs(LogQuery query);
 }
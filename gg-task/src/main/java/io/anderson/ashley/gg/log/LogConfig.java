@@ -0,0 +1,73 @@
+package io.anderson.ashley.gg.log;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "log")
+@Data
+public class LogConfig
+{
+	private WriteBehind writeBehind = new WriteBehind();
+	private Query query = new Query();
+	private Retention retention = new Retention();
+	private Stats stats = new Stats();
+
+	@Data
+	public static class WriteBehind
+	{
+		private boolean enabled;
+		private int queueCapacity;
+		private int batchSize;
+		private Duration flushInterval;
+		private Backpressure backpressure;
+		private int sampleRate;
+	}
+
+	@Data
+	public static class Query
+	{
+		private boolean enabled;
+		private int defaultLimit = 100;
+		private int maxLimit = 1000;
+	}
+
+	@Data
+	public static class Retention
+	{
+		private boolean enabled;
+		private String partitioning = "column";
+		private Duration period = Duration.ofDays(30);
+		private Duration interval = Duration.ofHours(1);
+		private int partitionsAhead = 2;
+	}
+
+	@Data
+	public static class Stats
+	{
+		private Duration window = Duration.ofHours(1);
+		private Duration flushInterval = Duration.ofMinutes(1);
+		private Duration retention = Duration.ofDays(365);
+		private int top = 20;
+	}
+
+	/**
+	 * What to do with a log record when the write-behind queue is full.
+	 */
+	public enum Backpressure
+	{
+		/**
+		 * Wait for space in the queue.
+		 */
+		BLOCK,
+		/**
+		 * Drop the oldest queued record to make space.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Keep one in every sample-rate records, dropping the oldest queued record to make space; drop the rest.
+		 */
+		SAMPLE
+	}
+}
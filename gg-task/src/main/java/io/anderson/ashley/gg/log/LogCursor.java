@@ -0,0 +1,59 @@
+package io.anderson.ashley.gg.log;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Where a page of request logs ended: the request timestamp and ID of its last record. The next page starts strictly
+ * after it, so pages stay consistent while new records are written.
+ *
+ * @param requestTimestamp The last record's request timestamp.
+ * @param requestId        The last record's ID.
+ */
+public record LogCursor(Timestamp requestTimestamp, UUID requestId)
+{
+	private static final String SEPARATOR = "/";
+
+	public static LogCursor fromEntity(final LogEntity entity)
+	{
+		return new LogCursor(entity.getRequestTimestamp(), entity.getRequestId());
+	}
+
+	/**
+	 * Parse a cursor returned with an earlier page.
+	 *
+	 * @param cursor The encoded cursor.
+	 * @return The cursor.
+	 * @throws ResponseStatusException BAD_REQUEST if the cursor is malformed.
+	 */
+	public static LogCursor parse(final String cursor)
+	{
+		try
+		{
+			final var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			final var separator = decoded.indexOf(SEPARATOR);
+			return new LogCursor(Timestamp.from(Instant.parse(decoded.substring(0, separator))),
+					UUID.fromString(decoded.substring(separator + 1)));
+		}
+		catch (final IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e)
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor.");
+		}
+	}
+
+	/**
+	 * @return The cursor as an opaque, URL safe, string.
+	 */
+	public String encode()
+	{
+		final var cursor = requestTimestamp.toInstant() + SEPARATOR + requestId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+}
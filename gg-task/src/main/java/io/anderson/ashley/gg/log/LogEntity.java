@@ -2,15 +2,31 @@ package io.anderson.ashley.gg.log;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 
 import java.net.URI;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
+/**
+ * A request log record. Records are partitioned by the UTC day of their request timestamp, so that expired days can be
+ * dropped as a whole; see {@link ILogPartitions}. Every filter of the query API is indexed together with the timestamp
+ * and ID, which is the order records are returned in.
+ */
 @Entity
+@Table(indexes = {
+		@Index(name = "log_entity_timestamp", columnList = "request_timestamp, request_id"),
+		@Index(name = "log_entity_ip_address", columnList = "request_ip_address, request_timestamp, request_id"),
+		@Index(name = "log_entity_status", columnList = "response_status, request_timestamp, request_id"),
+		@Index(name = "log_entity_country_code", columnList = "request_country_code, request_timestamp, request_id"),
+		@Index(name = "log_entity_partition_day", columnList = "partition_day")
+})
 @NoArgsConstructor
 @Data
 public class LogEntity
@@ -18,6 +34,8 @@ public class LogEntity
 	@Id
 	private UUID requestId;
 	@NonNull
+	private LocalDate partitionDay;
+	@NonNull
 	private URI requestUri;
 	private URI validationUri;
 	@NonNull
@@ -28,4 +46,15 @@ public class LogEntity
 	private String requestCountryCode;
 	private String requestIpProvider;
 	private long timeLapsed;
+
+	/**
+	 * The partition a request timestamp falls in.
+	 *
+	 * @param timestamp The request timestamp.
+	 * @return The UTC day of the timestamp.
+	 */
+	public static LocalDate partitionDay(final Timestamp timestamp)
+	{
+		return LocalDate.ofInstant(timestamp.toInstant(), ZoneOffset.UTC);
+	}
 }
@@ -0,0 +1,13 @@
+package io.anderson.ashley.gg.log;
+
+import java.util.List;
+
+/**
+ * A page of request logs.
+ *
+ * @param logs The records, newest first.
+ * @param next The cursor to fetch the next page with, or null if this is the last page.
+ */
+public record LogPage(List<LogEntity> logs, String next)
+{
+}
@@ -0,0 +1,24 @@
+package io.anderson.ashley.gg.log;
+
+import java.time.Instant;
+
+/**
+ * A query of the request logs; every criterion is optional. Records are returned newest first.
+ *
+ * @param from        Only records at or after this time.
+ * @param to          Only records before this time.
+ * @param ipAddress   Only records from this IP address.
+ * @param status      Only records with this HTTP status.
+ * @param countryCode Only records from this country.
+ * @param limit       The most records to return.
+ * @param after       The cursor of the previous page, or null for the first page.
+ */
+public record LogQuery(Instant from,
+                       Instant to,
+                       String ipAddress,
+                       Integer status,
+                       String countryCode,
+                       int limit,
+                       LogCursor after)
+{
+}
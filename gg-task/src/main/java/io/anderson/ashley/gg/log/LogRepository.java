@@ -1,9 +1,28 @@
 package io.anderson.ashley.gg.log;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface LogRepository extends JpaRepository<LogEntity, UUID>
+public interface LogRepository extends JpaRepository<LogEntity, UUID>, JpaSpecificationExecutor<LogEntity>
 {
+	@Query("select min(l.partitionDay) from LogEntity l")
+	Optional<LocalDate> findOldestPartitionDay();
+
+	/**
+	 * Delete a whole partition in a single statement, rather than loading and deleting each record.
+	 *
+	 * @param partitionDay The partition.
+	 * @return The number of records deleted.
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from LogEntity l where l.partitionDay = :partitionDay")
+	int deleteByPartitionDay(LocalDate partitionDay);
 }
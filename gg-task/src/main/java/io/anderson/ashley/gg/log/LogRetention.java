@@ -0,0 +1,61 @@
+package io.anderson.ashley.gg.log;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Keeps the request log's day partitions: the next few days' are created ahead of time, and those wholly older than the
+ * retention period are dropped. Request statistics are summarised per minute, so are kept for longer; those older than
+ * log.stats.retention are deleted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "log.retention", name = "enabled", havingValue = "true")
+public class LogRetention
+{
+	private final LogConfig.Retention config;
+	private final Duration statsRetention;
+	private final ILogPartitions partitions;
+	private final LogSummaryRepository summaries;
+	private final Clock clock;
+
+	@Autowired
+	public LogRetention(final LogConfig config, final ILogPartitions partitions, final LogSummaryRepository summaries)
+	{
+		this(config, partitions, summaries, Clock.systemUTC());
+	}
+
+	LogRetention(final LogConfig config, final ILogPartitions partitions, final LogSummaryRepository summaries, final Clock clock)
+	{
+		this.config = config.getRetention();
+		this.statsRetention = config.getStats().getRetention();
+		this.partitions = partitions;
+		this.summaries = summaries;
+		this.clock = clock;
+	}
+
+	@Scheduled(fixedDelayString = "${log.retention.interval}")
+	public void maintain()
+	{
+		final var today = LocalDate.now(clock);
+		for (int i = 0; i <= config.getPartitionsAhead(); i++)
+		{
+			partitions.create(today.plusDays(i));
+		}
+		final var oldest = today.minusDays(config.getPeriod().toDays());
+		for (final var day : partitions.findBefore(oldest))
+		{
+			log.info("Dropping request log partition {}", day);
+			partitions.drop(day);
+		}
+		summaries.deleteByMinuteBefore(Timestamp.from(clock.instant().minus(statsRetention)));
+	}
+}
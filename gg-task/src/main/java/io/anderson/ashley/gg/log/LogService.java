@@ -1,19 +1,46 @@
 package io.anderson.ashley.gg.log;
 
 import io.anderson.ashley.gg.model.LogRequest;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.criteria.Predicate;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class LogService implements ILogService
 {
+	private static final String REQUEST_ID = "requestId";
+	private static final String REQUEST_TIMESTAMP = "requestTimestamp";
+	private static final String PARTITION_DAY = "partitionDay";
+
+	private final LogConfig config;
 	private final LogRepository repository;
+	private final LogWriter writer;
+	private final RequestStats stats;
+	private final Timer persist;
+
+	@Autowired
+	public LogService(final LogConfig config,
+	                  final LogRepository repository,
+	                  final LogWriter writer,
+	                  final RequestStats stats,
+	                  final MeterRegistry registry)
+	{
+		this.config = config;
+		this.repository = repository;
+		this.writer = writer;
+		this.stats = stats;
+		this.persist = LogWriter.persistTimer(registry, "direct");
+	}
 
 	/*
 	 * On a bigger project, with more verbose logging, this service could be moved to its own microservice, and
@@ -25,16 +52,85 @@ public class LogService implements ILogService
 	 */
 	public void logRequest(@NonNull final LogRequest request)
 	{
+		stats.record(request);
 		final var entry = new LogEntity();
 		entry.setRequestId(UUID.randomUUID());
 		entry.setRequestUri(request.userRequest());
 		entry.setValidationUri(request.validationRequest());
 		entry.setRequestTimestamp(Timestamp.from(request.start()));
+		entry.setPartitionDay(LogEntity.partitionDay(entry.getRequestTimestamp()));
 		entry.setResponseStatus(request.httpStatus());
 		entry.setRequestIpAddress(request.ipAddress());
 		entry.setRequestCountryCode(request.country());
 		entry.setRequestIpProvider(request.isp());
 		entry.setTimeLapsed(request.end().toEpochMilli() - request.start().toEpochMilli());
-		repository.save(entry);
+		if (config.getWriteBehind().isEnabled())
+		{
+			writer.write(entry);
+		}
+		else
+		{
+			persist.record(() -> repository.save(entry));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 * <p>
+	 * Pages are found by keyset: each starts strictly after the last record of the previous page in (request
+	 * timestamp, ID) order, so every page is an index range scan however deep it is. Time bounds are also applied to
+	 * the partition day, so that databases with native partitioning only scan the partitions in range.
+	 */
+	public LogPage findLogs(@NonNull final LogQuery query)
+	{
+		final var limit = Math.min(Math.max(1, query.limit()), config.getQuery().getMaxLimit());
+		final var logs = repository.findBy(specification(query), fluent -> fluent
+				.sortBy(Sort.by(Sort.Direction.DESC, REQUEST_TIMESTAMP, REQUEST_ID))
+				.limit(limit + 1)
+				.all());
+		if (logs.size() > limit)
+		{
+			return new LogPage(logs.subList(0, limit), LogCursor.fromEntity(logs.get(limit - 1)).encode());
+		}
+		return new LogPage(logs, null);
+	}
+
+	private static Specification<LogEntity> specification(final LogQuery query)
+	{
+		return (root, criteriaQuery, builder) ->
+		{
+			final List<Predicate> predicates = new ArrayList<>();
+			if (query.from() != null)
+			{
+				predicates.add(builder.greaterThanOrEqualTo(root.get(REQUEST_TIMESTAMP), Timestamp.from(query.from())));
+				predicates.add(builder.greaterThanOrEqualTo(root.get(PARTITION_DAY), LogEntity.partitionDay(Timestamp.from(query.from()))));
+			}
+			if (query.to() != null)
+			{
+				predicates.add(builder.lessThan(root.get(REQUEST_TIMESTAMP), Timestamp.from(query.to())));
+				predicates.add(builder.lessThanOrEqualTo(root.get(PARTITION_DAY), LogEntity.partitionDay(Timestamp.from(query.to()))));
+			}
+			if (query.ipAddress() != null)
+			{
+				predicates.add(builder.equal(root.get("requestIpAddress"), query.ipAddress()));
+			}
+			if (query.status() != null)
+			{
+				predicates.add(builder.equal(root.get("responseStatus"), query.status()));
+			}
+			if (query.countryCode() != null)
+			{
+				predicates.add(builder.equal(root.get("requestCountryCode"), query.countryCode()));
+			}
+			final var after = query.after();
+			if (after != null)
+			{
+				predicates.add(builder.lessThanOrEqualTo(root.get(PARTITION_DAY), LogEntity.partitionDay(after.requestTimestamp())));
+				predicates.add(builder.or(builder.lessThan(root.get(REQUEST_TIMESTAMP), after.requestTimestamp()),
+						builder.and(builder.equal(root.get(REQUEST_TIMESTAMP), after.requestTimestamp()),
+								builder.lessThan(root.get(REQUEST_ID), after.requestId()))));
+			}
+			return builder.and(predicates.toArray(Predicate[]::new));
+		};
 	}
 }
@@ -0,0 +1,47 @@
+package io.anderson.ashley.gg.log;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Request statistics over a period. Blocked requests are those refused with FORBIDDEN, by country or by ISP.
+ *
+ * @param from              The start of the period.
+ * @param to                The end of the period.
+ * @param requests          The number of requests.
+ * @param requestsPerSecond The average request rate.
+ * @param statuses          Requests by HTTP status.
+ * @param countries         Requests by country code, the busiest first.
+ * @param providers         Requests by ISP, the busiest first.
+ * @param latency           Request latency, in milliseconds.
+ */
+public record LogStats(Instant from,
+                       Instant to,
+                       long requests,
+                       double requestsPerSecond,
+                       Map<Integer, Long> statuses,
+                       Map<String, Counts> countries,
+                       Map<String, Counts> providers,
+                       Latency latency)
+{
+	/**
+	 * @param requests  The number of requests.
+	 * @param blocked   How many of them were blocked.
+	 * @param blockRate The proportion of them which were blocked.
+	 */
+	public record Counts(long requests, long blocked, double blockRate)
+	{
+	}
+
+	/**
+	 * @param mean The mean latency.
+	 * @param p50  The median latency.
+	 * @param p90  The 90th percentile latency.
+	 * @param p95  The 95th percentile latency.
+	 * @param p99  The 99th percentile latency.
+	 * @param max  The highest latency.
+	 */
+	public record Latency(double mean, long p50, long p90, long p95, long p99, long max)
+	{
+	}
+}
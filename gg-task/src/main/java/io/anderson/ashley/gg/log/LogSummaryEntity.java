@@ -0,0 +1,39 @@
+package io.anderson.ashley.gg.log;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import java.sql.Timestamp;
+
+/**
+ * The request statistics for one minute, as flushed by {@link RequestStats}: the latency histogram is HdrHistogram's
+ * compressed encoding, and the counts by status, country and ISP are JSON objects.
+ */
+@Entity
+@NoArgsConstructor
+@Data
+public class LogSummaryEntity
+{
+	private static final int MAX_LENGTH = 65535;
+
+	@Id
+	@Column(name = "start_minute") // MINUTE is reserved in some databases
+	private Timestamp minute;
+	private long requests;
+	@NonNull
+	@Column(length = MAX_LENGTH)
+	private byte[] latency;
+	@NonNull
+	@Column(length = MAX_LENGTH)
+	private String statuses;
+	@NonNull
+	@Column(length = MAX_LENGTH)
+	private String countries;
+	@NonNull
+	@Column(length = MAX_LENGTH)
+	private String providers;
+}
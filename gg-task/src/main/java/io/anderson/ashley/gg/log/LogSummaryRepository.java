@@ -0,0 +1,19 @@
+package io.anderson.ashley.gg.log;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface LogSummaryRepository extends JpaRepository<LogSummaryEntity, Timestamp>
+{
+	List<LogSummaryEntity> findByMinuteGreaterThanEqualAndMinuteLessThan(Timestamp from, Timestamp to);
+
+	@Transactional
+	@Modifying
+	@Query("delete from LogSummaryEntity s where s.minute < :minute")
+	int deleteByMinuteBefore(Timestamp minute);
+}
@@ -0,0 +1,283 @@
+package io.anderson.ashley.gg.log;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind for request logs: records are queued and persisted in batches by a background thread, so the caller
+ * never waits on the database (unless the queue is full and the backpressure policy is to block).
+ */
+@Slf4j
+@Component
+public class LogWriter implements SmartLifecycle
+{
+	/*
+	 * Stop after the web server, so that requests still in flight during a graceful shutdown are logged and flushed.
+	 */
+	private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+	private static final String THREAD_NAME = "log-writer";
+
+	private final LogConfig.WriteBehind config;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final BlockingQueue<LogEntity> queue;
+	private final ThreadFactory threadFactory;
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final Timer persist;
+	private final DistributionSummary batches;
+
+	private volatile boolean running;
+	private Thread thread;
+
+	@Autowired
+	public LogWriter(final LogConfig config,
+	                 final EntityManager entityManager,
+	                 final TransactionTemplate transactionTemplate,
+	                 final Environment environment,
+	                 final MeterRegistry registry)
+	{
+		this.config = config.getWriteBehind();
+		this.entityManager = entityManager;
+		this.transactionTemplate = transactionTemplate;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, this.config.getQueueCapacity()));
+		this.threadFactory = Threading.VIRTUAL.isActive(environment)
+				? new VirtualThreadTaskExecutor(THREAD_NAME).getVirtualThreadFactory()
+				: runnable -> new Thread(runnable, THREAD_NAME);
+		this.persist = persistTimer(registry, "write-behind");
+		this.batches = DistributionSummary.builder("gg.log.batch")
+				.description("Request log records written in each write-behind batch")
+				.register(registry);
+		Gauge.builder("gg.log.queue", queue, BlockingQueue::size)
+				.description("Request log records waiting to be written")
+				.register(registry);
+		FunctionCounter.builder("gg.log.dropped", dropped, AtomicLong::get)
+				.description("Request log records dropped by the backpressure policy or because they failed to write")
+				.register(registry);
+	}
+
+	/**
+	 * The timer for persisting request logs, whether directly or in write-behind batches.
+	 *
+	 * @param registry The meter registry.
+	 * @param mode     How the records are persisted.
+	 * @return The timer.
+	 */
+	static Timer persistTimer(final MeterRegistry registry, final String mode)
+	{
+		return Timer.builder("gg.log.persist")
+				.description("Time taken to persist request log records, per transaction")
+				.tag("mode", mode)
+				.publishPercentileHistogram()
+				.register(registry);
+	}
+
+	/**
+	 * Queue a log record to be written. If the writer is not running the record is written immediately.
+	 *
+	 * @param entry The log record.
+	 */
+	public void write(@NonNull final LogEntity entry)
+	{
+		if (!running)
+		{
+			persist(List.of(entry));
+			return;
+		}
+		try
+		{
+			switch (config.getBackpressure())
+			{
+				case BLOCK:
+					queue.put(entry);
+					break;
+
+				case DROP_OLDEST:
+					offerDroppingOldest(entry);
+					break;
+
+				case SAMPLE:
+					if (!queue.offer(entry))
+					{
+						if (received.get() % Math.max(1, config.getSampleRate()) == 0)
+						{
+							// Never waits, so that sampling bounds the caller's latency as dropping does
+							offerDroppingOldest(entry);
+						}
+						else
+						{
+							dropped.incrementAndGet();
+						}
+					}
+					break;
+			}
+			received.incrementAndGet();
+		}
+		catch (final InterruptedException e)
+		{
+			dropped.incrementAndGet();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void offerDroppingOldest(final LogEntity entry)
+	{
+		while (!queue.offer(entry))
+		{
+			if (queue.poll() != null)
+			{
+				dropped.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * The number of log records that were dropped, either by the backpressure policy or because they failed to write.
+	 *
+	 * @return The number of dropped records.
+	 */
+	public long getDropped()
+	{
+		return dropped.get();
+	}
+
+	@Override
+	public synchronized void start()
+	{
+		if (!config.isEnabled() || running)
+		{
+			return;
+		}
+		running = true;
+		thread = threadFactory.newThread(this::drain);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (!running)
+		{
+			return;
+		}
+		running = false;
+		try
+		{
+			// The writer exits once the queue is empty, so this is the flush on shutdown
+			thread.join();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning()
+	{
+		return running;
+	}
+
+	@Override
+	public int getPhase()
+	{
+		return PHASE;
+	}
+
+	/**
+	 * Drain the queue in batches; a batch is written once it is full, or once the flush interval has passed since its
+	 * first record was taken from the queue. If the writer is interrupted, whatever is left in the queue is written as
+	 * one last batch, and later records are written directly.
+	 */
+	private void drain()
+	{
+		final var batchSize = Math.max(1, config.getBatchSize());
+		final var flushInterval = config.getFlushInterval().toNanos();
+		final List<LogEntity> batch = new ArrayList<>(batchSize);
+		var interrupted = false;
+		while (!interrupted && (running || !queue.isEmpty()))
+		{
+			try
+			{
+				final var first = queue.poll(flushInterval, TimeUnit.NANOSECONDS);
+				if (first == null)
+				{
+					continue;
+				}
+				batch.add(first);
+				final var deadline = System.nanoTime() + flushInterval;
+				while (batch.size() < batchSize)
+				{
+					queue.drainTo(batch, batchSize - batch.size());
+					final var remaining = deadline - System.nanoTime();
+					if (batch.size() >= batchSize || remaining <= 0 || !running)
+					{
+						break;
+					}
+					final var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next != null)
+					{
+						batch.add(next);
+					}
+				}
+			}
+			catch (final InterruptedException e)
+			{
+				// Stop polling, which would fail at once from now on; the interrupt is restored once the rest is written
+				interrupted = true;
+				running = false;
+				queue.drainTo(batch);
+			}
+			try
+			{
+				persist(batch);
+			}
+			catch (final RuntimeException e)
+			{
+				log.error("Failed to write {} request log records", batch.size(), e);
+				dropped.addAndGet(batch.size());
+			}
+			finally
+			{
+				batch.clear();
+			}
+		}
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Persist a batch of log records in a single transaction; with hibernate.jdbc.batch_size set, the inserts are sent
+	 * as JDBC batches. Records always have a new ID so persist (rather than merge) avoids a select per record.
+	 *
+	 * @param batch The log records.
+	 */
+	private void persist(final List<LogEntity> batch)
+	{
+		batches.record(batch.size());
+		persist.record(() -> transactionTemplate.executeWithoutResult(status -> batch.forEach(entityManager::persist)));
+	}
+}
@@ -0,0 +1,427 @@
+package io.anderson.ashley.gg.log;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.model.LogRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+
+/**
+ * Rolling request statistics, kept up to date as requests are logged rather than aggregated from the request log.
+ * Requests are counted in to per-minute buckets, by the minute they ended: a latency histogram, and counts by status,
+ * country and ISP. The buckets for the last log.stats.window are held in a ring, so statistics over any part of the
+ * window cost a merge of at most one bucket per minute however many requests there were. Buckets are also flushed to
+ * the summary table every log.stats.flush-interval, one row per minute, for statistics over longer periods.
+ */
+@Slf4j
+@Component
+public class RequestStats
+{
+	private static final long HIGHEST_LATENCY = TimeUnit.HOURS.toMillis(1);
+	private static final int SIGNIFICANT_DIGITS = 2;
+	private static final int BLOCKED = 403;
+	private static final String UNKNOWN = "unknown";
+	private static final TypeReference<Map<Integer, Long>> STATUSES = new TypeReference<>()
+	{
+	};
+	private static final TypeReference<Map<String, long[]>> COUNTS = new TypeReference<>()
+	{
+	};
+
+	private final LogConfig.Stats config;
+	private final LogSummaryRepository repository;
+	private final ObjectMapper objectMapper;
+	private final Clock clock;
+	private final AtomicReferenceArray<Bucket> buckets;
+
+	@Autowired
+	public RequestStats(final LogConfig config, final LogSummaryRepository repository, final ObjectMapper objectMapper)
+	{
+		this(config, repository, objectMapper, Clock.systemUTC());
+	}
+
+	RequestStats(final LogConfig config, final LogSummaryRepository repository, final ObjectMapper objectMapper, final Clock clock)
+	{
+		this.config = config.getStats();
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.clock = clock;
+		this.buckets = new AtomicReferenceArray<>((int) Math.max(1, this.config.getWindow().toMinutes()));
+	}
+
+	/**
+	 * Count a request.
+	 *
+	 * @param request The request.
+	 */
+	public void record(@NonNull final LogRequest request)
+	{
+		final var bucket = bucket(request.end().getEpochSecond() / 60);
+		if (bucket != null)
+		{
+			bucket.record(request);
+		}
+	}
+
+	/**
+	 * Statistics over the last few minutes, from the buckets in memory.
+	 *
+	 * @param minutes How many minutes, including the current one; at most the window.
+	 * @return The statistics.
+	 */
+	public LogStats stats(final int minutes)
+	{
+		final var now = clock.instant();
+		final var current = now.getEpochSecond() / 60;
+		final var first = current - Math.min(Math.max(1, minutes), buckets.length()) + 1;
+		final var aggregate = new Aggregate();
+		for (var minute = first; minute <= current; minute++)
+		{
+			final var bucket = buckets.get(index(minute));
+			if (bucket != null && bucket.minute == minute)
+			{
+				aggregate.add(bucket);
+			}
+		}
+		return aggregate.stats(Instant.ofEpochSecond(first * 60), now);
+	}
+
+	/**
+	 * Statistics over any period, from the summary table. Only whole minutes are counted, so the period is widened to
+	 * the minutes it starts and ends in.
+	 *
+	 * @param from The start of the period.
+	 * @param to   The end of the period.
+	 * @return The statistics.
+	 */
+	public LogStats history(@NonNull final Instant from, @NonNull final Instant to)
+	{
+		final var start = Instant.ofEpochSecond(from.getEpochSecond() / 60 * 60);
+		final var end = Instant.ofEpochSecond((to.getEpochSecond() + 59) / 60 * 60);
+		final var aggregate = new Aggregate();
+		for (final var summary : repository.findByMinuteGreaterThanEqualAndMinuteLessThan(Timestamp.from(start), Timestamp.from(end)))
+		{
+			aggregate.add(summary);
+		}
+		return aggregate.stats(start, end);
+	}
+
+	/**
+	 * Reload the buckets within the window from the summary table, so that a restart neither loses nor overwrites what
+	 * was flushed before it.
+	 */
+	@PostConstruct
+	public void load()
+	{
+		final var current = clock.instant().getEpochSecond() / 60;
+		final var first = Instant.ofEpochSecond((current - buckets.length() + 1) * 60);
+		for (final var summary : repository.findByMinuteGreaterThanEqualAndMinuteLessThan(Timestamp.from(first), Timestamp.from(Instant.ofEpochSecond((current + 1) * 60))))
+		{
+			final var bucket = bucket(summary.getMinute().toInstant().getEpochSecond() / 60);
+			if (bucket != null)
+			{
+				bucket.load(summary);
+			}
+		}
+	}
+
+	/**
+	 * Write every bucket which has changed since it was last flushed, the current one included, to the summary table.
+	 * Requests which end after their minute has been flushed are picked up by the next flush.
+	 */
+	@PreDestroy
+	@Scheduled(fixedDelayString = "${log.stats.flush-interval}", initialDelayString = "${log.stats.flush-interval}")
+	public void flush()
+	{
+		for (int i = 0; i < buckets.length(); i++)
+		{
+			final var bucket = buckets.get(i);
+			if (bucket == null)
+			{
+				continue;
+			}
+			final var requests = bucket.requests.sum();
+			if (requests == bucket.flushed)
+			{
+				continue;
+			}
+			try
+			{
+				repository.save(bucket.summary());
+				bucket.flushed = requests;
+			}
+			catch (final RuntimeException e)
+			{
+				log.error("Could not flush request statistics for minute {}", bucket.minute, e);
+			}
+		}
+	}
+
+	/**
+	 * The bucket for a minute, replacing the one in its place in the ring if that is for an earlier minute.
+	 *
+	 * @param minute The minute, since the epoch.
+	 * @return The bucket, or null if the minute has already left the window.
+	 */
+	private Bucket bucket(final long minute)
+	{
+		final var index = index(minute);
+		while (true)
+		{
+			final var bucket = buckets.get(index);
+			if (bucket != null && bucket.minute >= minute)
+			{
+				return bucket.minute == minute ? bucket : null;
+			}
+			final var replacement = new Bucket(minute);
+			if (buckets.compareAndSet(index, bucket, replacement))
+			{
+				return replacement;
+			}
+		}
+	}
+
+	private int index(final long minute)
+	{
+		return (int) (minute % buckets.length());
+	}
+
+	private static String key(final String key)
+	{
+		return key != null && !key.isBlank() ? key : UNKNOWN;
+	}
+
+	private String json(final Object value)
+	{
+		try
+		{
+			return objectMapper.writeValueAsString(value);
+		}
+		catch (final JsonProcessingException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private <T> T json(final String value, final TypeReference<T> type)
+	{
+		try
+		{
+			return objectMapper.readValue(value, type);
+		}
+		catch (final JsonProcessingException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Histogram histogram(final byte[] latency)
+	{
+		try
+		{
+			return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(latency), 0);
+		}
+		catch (final DataFormatException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Requests and blocked requests, for a country or ISP.
+	 */
+	private static class Counts
+	{
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder blocked = new LongAdder();
+
+		private long[] sum()
+		{
+			return new long[] { requests.sum(), blocked.sum() };
+		}
+	}
+
+	/**
+	 * One minute's requests. Counting is lock free; readers may see a request part way through being counted, which
+	 * is of no consequence to statistics.
+	 */
+	private class Bucket
+	{
+		private final long minute;
+		private final LongAdder requests = new LongAdder();
+		private final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+		private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+		private final Map<String, Counts> countries = new ConcurrentHashMap<>();
+		private final Map<String, Counts> providers = new ConcurrentHashMap<>();
+		private volatile long flushed;
+
+		Bucket(final long minute)
+		{
+			this.minute = minute;
+		}
+
+		private void record(final LogRequest request)
+		{
+			final var blocked = request.httpStatus() == BLOCKED;
+			latency.recordValue(Math.min(Math.max(0, Duration.between(request.start(), request.end()).toMillis()), HIGHEST_LATENCY));
+			statuses.computeIfAbsent(request.httpStatus(), status -> new LongAdder()).increment();
+			count(countries.computeIfAbsent(key(request.country()), key -> new Counts()), blocked);
+			count(providers.computeIfAbsent(key(request.isp()), key -> new Counts()), blocked);
+			requests.increment();
+		}
+
+		private static void count(final Counts counts, final boolean blocked)
+		{
+			counts.requests.increment();
+			if (blocked)
+			{
+				counts.blocked.increment();
+			}
+		}
+
+		private void load(final LogSummaryEntity summary)
+		{
+			latency.add(histogram(summary.getLatency()));
+			json(summary.getStatuses(), STATUSES).forEach((status, count) -> statuses.computeIfAbsent(status, key -> new LongAdder()).add(count));
+			load(countries, json(summary.getCountries(), COUNTS));
+			load(providers, json(summary.getProviders(), COUNTS));
+			requests.add(summary.getRequests());
+			flushed = requests.sum();
+		}
+
+		private static void load(final Map<String, Counts> counts, final Map<String, long[]> loaded)
+		{
+			loaded.forEach((key, count) ->
+			{
+				final var target = counts.computeIfAbsent(key, k -> new Counts());
+				target.requests.add(count[0]);
+				target.blocked.add(count[1]);
+			});
+		}
+
+		private LogSummaryEntity summary()
+		{
+			final var histogram = latency.copy();
+			final var buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+			final var length = histogram.encodeIntoCompressedByteBuffer(buffer);
+			final var summary = new LogSummaryEntity();
+			summary.setMinute(Timestamp.from(Instant.ofEpochSecond(minute * 60)));
+			summary.setRequests(requests.sum());
+			summary.setLatency(Arrays.copyOf(buffer.array(), length));
+			summary.setStatuses(json(sums(statuses, LongAdder::sum)));
+			summary.setCountries(json(sums(countries, Counts::sum)));
+			summary.setProviders(json(sums(providers, Counts::sum)));
+			return summary;
+		}
+
+		private static <K, V, S> Map<K, S> sums(final Map<K, V> counts, final Function<V, S> sum)
+		{
+			final Map<K, S> sums = new TreeMap<>();
+			counts.forEach((key, count) -> sums.put(key, sum.apply(count)));
+			return sums;
+		}
+	}
+
+	/**
+	 * The sum of several minutes' requests.
+	 */
+	private class Aggregate
+	{
+		private final Histogram latency = new Histogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+		private final Map<Integer, Long> statuses = new TreeMap<>();
+		private final Map<String, long[]> countries = new HashMap<>();
+		private final Map<String, long[]> providers = new HashMap<>();
+		private long requests;
+
+		private void add(final Bucket bucket)
+		{
+			requests += bucket.requests.sum();
+			latency.add(bucket.latency);
+			bucket.statuses.forEach((status, count) -> statuses.merge(status, count.sum(), Long::sum));
+			bucket.countries.forEach((key, count) -> add(countries, key, count.sum()));
+			bucket.providers.forEach((key, count) -> add(providers, key, count.sum()));
+		}
+
+		private void add(final LogSummaryEntity summary)
+		{
+			requests += summary.getRequests();
+			latency.add(histogram(summary.getLatency()));
+			json(summary.getStatuses(), STATUSES).forEach((status, count) -> statuses.merge(status, count, Long::sum));
+			json(summary.getCountries(), COUNTS).forEach((key, count) -> add(countries, key, count));
+			json(summary.getProviders(), COUNTS).forEach((key, count) -> add(providers, key, count));
+		}
+
+		private static void add(final Map<String, long[]> counts, final String key, final long[] count)
+		{
+			final var target = counts.computeIfAbsent(key, k -> new long[2]);
+			target[0] += count[0];
+			target[1] += count[1];
+		}
+
+		private LogStats stats(final Instant from, final Instant to)
+		{
+			final var seconds = Math.max(1, Duration.between(from, to).toMillis()) / 1000.0;
+			return new LogStats(from,
+					to,
+					requests,
+					requests / seconds,
+					statuses,
+					top(countries),
+					top(providers),
+					latency());
+		}
+
+		private Map<String, LogStats.Counts> top(final Map<String, long[]> counts)
+		{
+			final Map<String, LogStats.Counts> top = new LinkedHashMap<>();
+			counts.entrySet().stream()
+					.sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed()
+							.thenComparing(Map.Entry::getKey))
+					.limit(config.getTop())
+					.forEach(entry -> top.put(entry.getKey(), new LogStats.Counts(entry.getValue()[0],
+							entry.getValue()[1],
+							entry.getValue()[0] > 0 ? (double) entry.getValue()[1] / entry.getValue()[0] : 0)));
+			return top;
+		}
+
+		private LogStats.Latency latency()
+		{
+			if (latency.getTotalCount() == 0)
+			{
+				return new LogStats.Latency(0, 0, 0, 0, 0, 0);
+			}
+			return new LogStats.Latency(latency.getMean(),
+					latency.getValueAtPercentile(50),
+					latency.getValueAtPercentile(90),
+					latency.getValueAtPercentile(95),
+					latency.getValueAtPercentile(99),
+					latency.getMaxValue());
+		}
+	}
+}
@@ -1,15 +1,82 @@
 package io.anderson.ashley.gg.model;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * A single EntryFile row. Speeds are held either as a BigDecimal value or, on the fixed point path, as a long of tenths
+ * (see {@link FixedPoint}); averageSpeed and topSpeed return a BigDecimal either way.
+ */
 public record Entry(UUID uuid,
                     String id,
                     String name,
                     String likes,
                     String transport,
-                    BigDecimal averageSpeed,
-                    BigDecimal topSpeed)
+                    BigDecimal averageSpeedValue,
+                    BigDecimal topSpeedValue,
+                    long averageSpeedTenths,
+                    long topSpeedTenths)
 {
-}
+	public Entry
+	{
+		averageSpeedTenths = averageSpeedValue != null ? FixedPoint.NONE : averageSpeedTenths;
+		topSpeedTenths = topSpeedValue != null ? FixedPoint.NONE : topSpeedTenths;
+	}
+
+	public Entry(final UUID uuid,
+	             final String id,
+	             final String name,
+	             final String likes,
+	             final String transport,
+	             final BigDecimal averageSpeed,
+	             final BigDecimal topSpeed)
+	{
+		this(uuid, id, name, likes, transport, averageSpeed, topSpeed, FixedPoint.NONE, FixedPoint.NONE);
+	}
+
+	/**
+	 * @return The average speed however it is held, materialising a BigDecimal from fixed point.
+	 */
+	public BigDecimal averageSpeed()
+	{
+		return averageSpeedValue != null ? averageSpeedValue : FixedPoint.toBigDecimal(averageSpeedTenths);
+	}
+
+	/**
+	 * @return The top speed however it is held, materialising a BigDecimal from fixed point.
+	 */
+	public BigDecimal topSpeed()
+	{
+		return topSpeedValue != null ? topSpeedValue : FixedPoint.toBigDecimal(topSpeedTenths);
+	}
 
+	/**
+	 * Entries are equal if their speeds are, however they are held.
+	 */
+	@Override
+	public boolean equals(final Object o)
+	{
+		return this == o || o instanceof Entry other
+				&& Objects.equals(uuid, other.uuid)
+				&& Objects.equals(id, other.id)
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(likes, other.likes)
+				&& Objects.equals(transport, other.transport)
+				&& Objects.equals(averageSpeed(), other.averageSpeed())
+				&& Objects.equals(topSpeed(), other.topSpeed());
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(uuid, id, name, likes, transport, averageSpeed(), topSpeed());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Entry[uuid=" + uuid + ", id=" + id + ", name=" + name + ", likes=" + likes + ", transport=" + transport
+				+ ", averageSpeed=" + averageSpeed() + ", topSpeed=" + topSpeed() + "]";
+	}
+}
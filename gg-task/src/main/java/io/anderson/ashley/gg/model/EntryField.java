@@ -0,0 +1,92 @@
+package io.anderson.ashley.gg.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * The fields of an Entry, in EntryFile column order, by the names they are given in JSON.
+ */
+public enum EntryField
+{
+	UUID("uuid", Entry::uuid, null),
+	ID("id", Entry::id, null),
+	NAME("name", Entry::name, null),
+	LIKES("likes", Entry::likes, null),
+	TRANSPORT("transport", Entry::transport, null),
+	AVERAGE_SPEED("averageSpeed", Entry::averageSpeed, Entry::averageSpeedTenths),
+	TOP_SPEED("topSpeed", Entry::topSpeed, Entry::topSpeedTenths);
+
+	/**
+	 * The fields an Outcome is made from.
+	 */
+	public static final Set<EntryField> OUTCOME = Collections.unmodifiableSet(EnumSet.of(NAME, TRANSPORT, TOP_SPEED));
+	/**
+	 * Every field.
+	 */
+	public static final Set<EntryField> ALL = Collections.unmodifiableSet(EnumSet.allOf(EntryField.class));
+
+	private final String property;
+	private final Function<Entry, Object> accessor;
+	private final ToLongFunction<Entry> tenths;
+
+	EntryField(final String property, final Function<Entry, Object> accessor, final ToLongFunction<Entry> tenths)
+	{
+		this.property = property;
+		this.accessor = accessor;
+		this.tenths = tenths;
+	}
+
+	/**
+	 * Find a field by its JSON name.
+	 *
+	 * @param property The JSON name, such as topSpeed.
+	 * @return The field.
+	 * @throws IllegalArgumentException Thrown if there is no such field.
+	 */
+	public static EntryField fromProperty(final String property)
+	{
+		return Arrays.stream(values())
+				.filter(field -> field.property.equals(property))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unknown field: " + property));
+	}
+
+	public String getProperty()
+	{
+		return property;
+	}
+
+	/**
+	 * Whether the field is a speed, held as a BigDecimal or fixed point.
+	 */
+	public boolean isNumeric()
+	{
+		return tenths != null;
+	}
+
+	/**
+	 * Get this field of an Entry; speeds are materialised as BigDecimals.
+	 *
+	 * @param entry The Entry.
+	 * @return The value, which is null if the field was not parsed.
+	 */
+	public Object value(final Entry entry)
+	{
+		return accessor.apply(entry);
+	}
+
+	/**
+	 * Get this field of an Entry if it is a speed held as fixed point.
+	 *
+	 * @param entry The Entry.
+	 * @return The speed in tenths, or FixedPoint.NONE if the field is not a speed or is not held as fixed point.
+	 */
+	public long tenths(final Entry entry)
+	{
+		return tenths != null ? tenths.applyAsLong(entry) : FixedPoint.NONE;
+	}
+}
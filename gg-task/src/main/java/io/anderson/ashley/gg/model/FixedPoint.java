@@ -0,0 +1,95 @@
+package io.anderson.ashley.gg.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Speeds as a long of tenths, for the fixed point Entry and Outcome path. EntryFile speeds have one decimal place, so
+ * they are held exactly without allocating a BigDecimal each; any other value is left as a BigDecimal.
+ */
+public final class FixedPoint
+{
+	/**
+	 * Marks a speed that is not held as fixed point.
+	 */
+	public static final long NONE = Long.MIN_VALUE;
+	/**
+	 * The number of decimal places held.
+	 */
+	public static final int SCALE = 1;
+
+	private static final int MAX_DIGITS = 18;
+
+	private FixedPoint()
+	{
+	}
+
+	/**
+	 * Parse a decimal with exactly one decimal place, such as 95.5, in to tenths.
+	 *
+	 * @param buffer The characters.
+	 * @param start  The start of the decimal.
+	 * @param end    The end of the decimal.
+	 * @return The number of tenths, or NONE if the characters are not a plain ASCII decimal with one decimal place.
+	 */
+	public static long parse(final char[] buffer, final int start, final int end)
+	{
+		var i = start;
+		final var negative = i < end && buffer[i] == '-';
+		if (i < end && (buffer[i] == '+' || buffer[i] == '-'))
+		{
+			i++;
+		}
+		final var digitsStart = i;
+		var tenths = 0L;
+		for (; i < end && isAsciiDigit(buffer[i]); i++)
+		{
+			tenths = tenths * 10 + (buffer[i] - '0');
+		}
+		final var digits = i - digitsStart;
+		if (digits == 0 || digits >= MAX_DIGITS || end - i != 2 || buffer[i] != '.' || !isAsciiDigit(buffer[i + 1]))
+		{
+			return NONE;
+		}
+		tenths = tenths * 10 + (buffer[i + 1] - '0');
+		return negative ? -tenths : tenths;
+	}
+
+	/**
+	 * Parse a decimal with exactly one decimal place, such as 95.5, in to tenths.
+	 *
+	 * @param value The decimal.
+	 * @return The number of tenths, or NONE if the value is not a plain ASCII decimal with one decimal place.
+	 */
+	public static long parse(final String value)
+	{
+		return parse(value.toCharArray(), 0, value.length());
+	}
+
+	/**
+	 * Materialise a number of tenths as a BigDecimal.
+	 *
+	 * @param tenths The number of tenths.
+	 * @return The BigDecimal, with a scale of one, or null if tenths is NONE.
+	 */
+	public static BigDecimal toBigDecimal(final long tenths)
+	{
+		return tenths == NONE ? null : BigDecimal.valueOf(tenths, SCALE);
+	}
+
+	/**
+	 * Format a number of tenths as BigDecimal.toString would format the same value.
+	 *
+	 * @param tenths The number of tenths; not NONE.
+	 * @return The decimal, such as 95.5.
+	 */
+	public static String toString(final long tenths)
+	{
+		final var magnitude = Math.abs(tenths);
+		return (tenths < 0 ? "-" : "") + magnitude / 10 + "." + magnitude % 10;
+	}
+
+	private static boolean isAsciiDigit(final char c)
+	{
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,8 @@
+package io.anderson.ashley.gg.model;
+
+import lombok.NonNull;
+
+public record IpValidationResult(@NonNull String ipAddress,
+                                 @NonNull ValidationResult result)
+{
+}
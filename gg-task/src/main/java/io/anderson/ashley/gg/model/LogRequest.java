@@ -14,4 +14,35 @@ public record LogRequest(@NonNull URI userRequest,
                          String country,
                          String isp)
 {
+	/**
+	 * Create a LogRequest for a request which has been validated, if IP validation is enabled.
+	 *
+	 * @param start            When the request was received.
+	 * @param end              When the response was produced.
+	 * @param uri              The request URI.
+	 * @param ipAddress        The IP address that was validated.
+	 * @param validationResult The result of that validation, or null if IP validation is disabled.
+	 * @param httpStatus       The HTTP status returned to the user.
+	 * @return The new LogRequest object.
+	 */
+	public static LogRequest fromValidationResult(final Instant start,
+	                                              final Instant end,
+	                                              final URI uri,
+	                                              final String ipAddress,
+	                                              final ValidationResult validationResult,
+	                                              final int httpStatus)
+	{
+		final var request = validationResult != null ? validationResult.request() : null;
+		final var country = validationResult != null ? validationResult.country() : null;
+		final var isp = validationResult != null ? validationResult.isp() : null;
+
+		return new LogRequest(uri,
+				request,
+				ipAddress,
+				start,
+				end,
+				httpStatus,
+				country,
+				isp);
+	}
 }
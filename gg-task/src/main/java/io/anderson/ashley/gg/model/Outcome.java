@@ -1,18 +1,75 @@
 package io.anderson.ashley.gg.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.math.BigDecimal;
+import java.util.Objects;
 
-public record Outcome(String name, String transport, BigDecimal topSpeed)
+/**
+ * The converted form of an Entry. The top speed is held either as a BigDecimal value or, on the fixed point path, as a
+ * long of tenths (see {@link FixedPoint}); topSpeed returns a BigDecimal, and it is serialised as the same decimal,
+ * either way.
+ */
+@JsonSerialize(using = OutcomeSerializer.class)
+public record Outcome(String name, String transport, BigDecimal topSpeedValue, long topSpeedTenths)
 {
+	public Outcome
+	{
+		topSpeedTenths = topSpeedValue != null ? FixedPoint.NONE : topSpeedTenths;
+	}
+
+	@JsonCreator
+	public Outcome(@JsonProperty("name") final String name,
+	               @JsonProperty("transport") final String transport,
+	               @JsonProperty("topSpeed") final BigDecimal topSpeed)
+	{
+		this(name, transport, topSpeed, FixedPoint.NONE);
+	}
 
 	/**
-	 * Create an Outcome object from the given Entry object,
+	 * Create an Outcome object from the given Entry object, keeping a fixed point top speed as fixed point.
 	 *
 	 * @param entry An Entry
 	 * @return An Outcome
 	 */
 	public static Outcome fromEntry(final Entry entry)
 	{
-		return new Outcome(entry.name(), entry.transport(), entry.topSpeed());
+		return entry.topSpeedTenths() != FixedPoint.NONE
+				? new Outcome(entry.name(), entry.transport(), null, entry.topSpeedTenths())
+				: new Outcome(entry.name(), entry.transport(), entry.topSpeedValue());
+	}
+
+	/**
+	 * @return The top speed however it is held, materialising a BigDecimal from fixed point.
+	 */
+	public BigDecimal topSpeed()
+	{
+		return topSpeedValue != null ? topSpeedValue : FixedPoint.toBigDecimal(topSpeedTenths);
+	}
+
+	/**
+	 * Outcomes are equal if their top speeds are, however they are held.
+	 */
+	@Override
+	public boolean equals(final Object o)
+	{
+		return this == o || o instanceof Outcome other
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(transport, other.transport)
+				&& Objects.equals(topSpeed(), other.topSpeed());
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(name, transport, topSpeed());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Outcome[name=" + name + ", transport=" + transport + ", topSpeed=" + topSpeed() + "]";
 	}
 }
@@ -0,0 +1,70 @@
+package io.anderson.ashley.gg.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteCapability;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Serialise an Outcome as the name, transport and topSpeed fields. A fixed point top speed is written to JSON as its
+ * decimal text, without materialising a BigDecimal; binary formats have their own decimal encodings, so get one.
+ */
+public class OutcomeSerializer extends StdSerializer<Outcome>
+{
+	private static final long serialVersionUID = 1L;
+
+	public OutcomeSerializer()
+	{
+		super(Outcome.class);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void serialize(final Outcome outcome, final JsonGenerator generator, final SerializerProvider provider) throws IOException
+	{
+		generator.writeStartObject(outcome);
+		generator.writeStringField("name", outcome.name());
+		generator.writeStringField("transport", outcome.transport());
+		generator.writeFieldName("topSpeed");
+		final var tenths = outcome.topSpeedTenths();
+		writeSpeed(generator, tenths, outcome.topSpeedValue());
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Write a speed held either as fixed point or as a BigDecimal.
+	 *
+	 * @param generator The generator to write to.
+	 * @param tenths    The speed in tenths, or FixedPoint.NONE if it is not held as fixed point.
+	 * @param speed     The speed as a BigDecimal if it is not held as fixed point; may be null.
+	 * @throws IOException Thrown if the speed cannot be written.
+	 */
+	public static void writeSpeed(final JsonGenerator generator, final long tenths, final BigDecimal speed) throws IOException
+	{
+		if (tenths != FixedPoint.NONE)
+		{
+			// Only textual formats can take a number as its text; binary ones need the value
+			if (generator.getWriteCapabilities().isEnabled(StreamWriteCapability.CAN_WRITE_FORMATTED_NUMBERS))
+			{
+				generator.writeNumber(FixedPoint.toString(tenths));
+			}
+			else
+			{
+				generator.writeNumber(FixedPoint.toBigDecimal(tenths));
+			}
+		}
+		else if (speed != null)
+		{
+			generator.writeNumber(speed);
+		}
+		else
+		{
+			generator.writeNull();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package io.anderson.ashley.gg.query;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.FixedPoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The count, minimum, maximum and average of a speed, optionally grouped by another field, accumulated in one pass over
+ * the Entries. Groups are kept in the order they are first seen. Not thread safe.
+ */
+public class Aggregation implements Consumer<Entry>
+{
+	private static final int AVERAGE_EXTRA_SCALE = 2;
+
+	private final EntryField field;
+	private final EntryField groupBy;
+	private final Map<Object, Group> groups = new LinkedHashMap<>();
+
+	/**
+	 * Create an aggregation.
+	 *
+	 * @param field   The speed to aggregate.
+	 * @param groupBy The field to group by, or null for a single group.
+	 */
+	public Aggregation(final EntryField field, final EntryField groupBy)
+	{
+		this.field = field;
+		this.groupBy = groupBy;
+		if (groupBy == null)
+		{
+			groups.put(null, new Group());
+		}
+	}
+
+	/**
+	 * Add an Entry to its group.
+	 *
+	 * @param entry The Entry.
+	 */
+	@Override
+	public void accept(final Entry entry)
+	{
+		final var key = groupBy != null ? groupBy.value(entry) : null;
+		final var tenths = field.tenths(entry);
+		groups.computeIfAbsent(key, k -> new Group()).add(tenths, tenths == FixedPoint.NONE ? (BigDecimal) field.value(entry) : null);
+	}
+
+	/**
+	 * The aggregates so far, one per group: the group's value (if grouped), count, min, max and avg.
+	 *
+	 * @return The aggregates.
+	 */
+	public List<Map<String, Object>> results()
+	{
+		return groups.entrySet().stream()
+				.map(group ->
+				{
+					final Map<String, Object> result = new LinkedHashMap<>();
+					if (groupBy != null)
+					{
+						result.put(groupBy.getProperty(), group.getKey());
+					}
+					group.getValue().results(result);
+					return result;
+				})
+				.toList();
+	}
+
+	/**
+	 * The running totals of one group; fixed point speeds are totalled as longs, and only combined with any BigDecimal
+	 * speeds at the end.
+	 */
+	private static class Group
+	{
+		private long count;
+		private long fixedPointCount;
+		private long fixedPointSum;
+		private long fixedPointMin = Long.MAX_VALUE;
+		private long fixedPointMax = Long.MIN_VALUE;
+		private long decimalCount;
+		private BigDecimal decimalSum = BigDecimal.ZERO;
+		private BigDecimal decimalMin;
+		private BigDecimal decimalMax;
+
+		void add(final long tenths, final BigDecimal decimal)
+		{
+			count++;
+			if (tenths != FixedPoint.NONE)
+			{
+				fixedPointCount++;
+				fixedPointSum += tenths;
+				fixedPointMin = Math.min(fixedPointMin, tenths);
+				fixedPointMax = Math.max(fixedPointMax, tenths);
+			}
+			else if (decimal != null)
+			{
+				decimalCount++;
+				decimalSum = decimalSum.add(decimal);
+				decimalMin = decimalMin == null || decimal.compareTo(decimalMin) < 0 ? decimal : decimalMin;
+				decimalMax = decimalMax == null || decimal.compareTo(decimalMax) > 0 ? decimal : decimalMax;
+			}
+		}
+
+		void results(final Map<String, Object> result)
+		{
+			var min = decimalMin;
+			var max = decimalMax;
+			var sum = decimalSum;
+			if (fixedPointCount > 0)
+			{
+				min = min(min, FixedPoint.toBigDecimal(fixedPointMin));
+				max = max(max, FixedPoint.toBigDecimal(fixedPointMax));
+				sum = sum.add(FixedPoint.toBigDecimal(fixedPointSum));
+			}
+			final var values = fixedPointCount + decimalCount;
+			result.put("count", count);
+			result.put("min", min);
+			result.put("max", max);
+			result.put("avg", values > 0
+					? sum.divide(BigDecimal.valueOf(values), Math.max(sum.scale(), 0) + AVERAGE_EXTRA_SCALE, RoundingMode.HALF_EVEN)
+					: null);
+		}
+
+		private static BigDecimal min(final BigDecimal a, final BigDecimal b)
+		{
+			return a == null || b.compareTo(a) < 0 ? b : a;
+		}
+
+		private static BigDecimal max(final BigDecimal a, final BigDecimal b)
+		{
+			return a == null || b.compareTo(a) > 0 ? b : a;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package io.anderson.ashley.gg.query;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.FixedPoint;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * A predicate on one field of an Entry, such as topSpeed>50 or transport~Bike. Speeds may be compared with any of
+ * {@code > >= < <= = !=}; other fields may be compared with {@code = !=}, or {@code ~} for contains, ignoring case.
+ * An Entry without a value for the field never matches.
+ *
+ * @param field    The field to compare.
+ * @param operator The comparison.
+ * @param operand  The value to compare with.
+ * @param number   The value to compare speeds with.
+ * @param tenths   The value to compare fixed point speeds with, or FixedPoint.NONE if it has more than one decimal place.
+ */
+public record Filter(EntryField field, Operator operator, String operand, BigDecimal number, long tenths)
+{
+	private static final Pattern SYNTAX = Pattern.compile("(\\w+)(>=|<=|!=|>|<|=|~)(.*)");
+
+	public enum Operator
+	{
+		GREATER_OR_EQUAL(">="),
+		LESS_OR_EQUAL("<="),
+		NOT_EQUAL("!="),
+		GREATER(">"),
+		LESS("<"),
+		EQUAL("="),
+		CONTAINS("~");
+
+		private final String symbol;
+
+		Operator(final String symbol)
+		{
+			this.symbol = symbol;
+		}
+
+		private static Operator fromSymbol(final String symbol)
+		{
+			return Arrays.stream(values())
+					.filter(operator -> operator.symbol.equals(symbol))
+					.findFirst()
+					.orElseThrow();
+		}
+
+		private boolean test(final int comparison)
+		{
+			return switch (this)
+			{
+				case GREATER_OR_EQUAL -> comparison >= 0;
+				case LESS_OR_EQUAL -> comparison <= 0;
+				case NOT_EQUAL -> comparison != 0;
+				case GREATER -> comparison > 0;
+				case LESS -> comparison < 0;
+				case EQUAL -> comparison == 0;
+				case CONTAINS -> throw new IllegalStateException();
+			};
+		}
+	}
+
+	/**
+	 * Parse a filter expression.
+	 *
+	 * @param expression The expression, such as topSpeed>50.
+	 * @return The filter.
+	 * @throws IllegalArgumentException Thrown if the expression is not a valid filter.
+	 */
+	public static Filter parse(final String expression)
+	{
+		final var matcher = SYNTAX.matcher(expression);
+		if (!matcher.matches())
+		{
+			throw new IllegalArgumentException("Invalid filter: " + expression);
+		}
+		final var field = EntryField.fromProperty(matcher.group(1));
+		final var operator = Operator.fromSymbol(matcher.group(2));
+		final var operand = matcher.group(3);
+		if (!field.isNumeric())
+		{
+			if (operator != Operator.CONTAINS && operator != Operator.EQUAL && operator != Operator.NOT_EQUAL)
+			{
+				throw new IllegalArgumentException("Only speeds can be compared with " + operator.symbol + ": " + expression);
+			}
+			return new Filter(field, operator, operand, null, FixedPoint.NONE);
+		}
+		if (operator == Operator.CONTAINS)
+		{
+			throw new IllegalArgumentException("Speeds cannot be compared with " + operator.symbol + ": " + expression);
+		}
+		try
+		{
+			final var number = new BigDecimal(operand);
+			final var tenths = number.scale() <= FixedPoint.SCALE && number.precision() - number.scale() < 18
+					? number.setScale(FixedPoint.SCALE).unscaledValue().longValueExact()
+					: FixedPoint.NONE;
+			return new Filter(field, operator, operand, number, tenths);
+		}
+		catch (final NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Invalid speed: " + expression, e);
+		}
+	}
+
+	/**
+	 * Check whether an Entry matches; fixed point speeds are compared without materialising them.
+	 *
+	 * @param entry The Entry.
+	 * @return Whether the Entry matches.
+	 */
+	public boolean test(final Entry entry)
+	{
+		if (!field.isNumeric())
+		{
+			final var value = field.value(entry);
+			if (value == null)
+			{
+				return false;
+			}
+			final var string = value.toString();
+			return switch (operator)
+			{
+				case EQUAL -> string.equals(operand);
+				case NOT_EQUAL -> !string.equals(operand);
+				default -> StringUtils.containsIgnoreCase(string, operand);
+			};
+		}
+		final var entryTenths = field.tenths(entry);
+		if (entryTenths != FixedPoint.NONE && tenths != FixedPoint.NONE)
+		{
+			return operator.test(Long.compare(entryTenths, tenths));
+		}
+		final var value = (BigDecimal) field.value(entry);
+		return value != null && operator.test(value.compareTo(number));
+	}
+}
@@ -0,0 +1,18 @@
+package io.anderson.ashley.gg.query;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+
+import java.util.List;
+
+/**
+ * The chosen fields of an Entry, serialised as an object of just those fields, in the order they were chosen.
+ *
+ * @param entry  The Entry.
+ * @param fields The fields to serialise.
+ */
+@JsonSerialize(using = ProjectionSerializer.class)
+public record Projection(Entry entry, List<EntryField> fields)
+{
+}
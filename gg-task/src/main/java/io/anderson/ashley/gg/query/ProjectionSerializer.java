@@ -0,0 +1,48 @@
+package io.anderson.ashley.gg.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.model.OutcomeSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Serialise a Projection as an object of its fields; speeds are written as OutcomeSerializer writes them.
+ */
+public class ProjectionSerializer extends StdSerializer<Projection>
+{
+	private static final long serialVersionUID = 1L;
+
+	public ProjectionSerializer()
+	{
+		super(Projection.class);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void serialize(final Projection projection, final JsonGenerator generator, final SerializerProvider provider) throws IOException
+	{
+		final var entry = projection.entry();
+		generator.writeStartObject(projection);
+		for (final var field : projection.fields())
+		{
+			generator.writeFieldName(field.getProperty());
+			if (field.isNumeric())
+			{
+				final var tenths = field.tenths(entry);
+				OutcomeSerializer.writeSpeed(generator, tenths, tenths == FixedPoint.NONE ? (BigDecimal) field.value(entry) : null);
+			}
+			else
+			{
+				final var value = field.value(entry);
+				generator.writeString(value != null ? value.toString() : null);
+			}
+		}
+		generator.writeEndObject();
+	}
+}
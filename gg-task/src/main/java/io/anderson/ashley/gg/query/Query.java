@@ -0,0 +1,181 @@
+package io.anderson.ashley.gg.query;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * What the convert endpoint returns for an EntryFile: which fields of each Entry, which Entries, or aggregates of them
+ * instead. Only the fields a query uses are materialised by the parser.
+ *
+ * @param fields    The fields to return, in order.
+ * @param filters   The filters every returned Entry must match.
+ * @param aggregate The speed to aggregate, or null to return Entries.
+ * @param groupBy   The field to group aggregates by, or null for a single aggregate.
+ */
+public record Query(List<EntryField> fields, List<Filter> filters, EntryField aggregate, EntryField groupBy)
+{
+	/**
+	 * The fields of an Outcome, in order.
+	 */
+	public static final List<EntryField> OUTCOME_FIELDS = List.of(EntryField.NAME, EntryField.TRANSPORT, EntryField.TOP_SPEED);
+	/**
+	 * Every Entry as an Outcome.
+	 */
+	public static final Query OUTCOMES = new Query(OUTCOME_FIELDS, List.of(), null, null);
+
+	/**
+	 * Parse the query parameters of a convert request. Absent parameters are null.
+	 *
+	 * @param fields    Comma separated fields to return, such as name,topSpeed; by default an Outcome's.
+	 * @param filters   Filters, such as topSpeed>50; see {@link Filter}.
+	 * @param aggregate The speed to aggregate; topSpeed if only groupBy is given.
+	 * @param groupBy   The field to group aggregates by.
+	 * @return The query.
+	 * @throws ResponseStatusException Thrown as a BAD_REQUEST if any parameter is invalid.
+	 */
+	public static Query parse(final String[] fields, final String[] filters, final String aggregate, final String groupBy)
+	{
+		try
+		{
+			final var fieldList = fields == null
+					? OUTCOME_FIELDS
+					: Arrays.stream(fields)
+					.flatMap(field -> Arrays.stream(field.split(",")))
+					.map(String::trim)
+					.filter(field -> !field.isEmpty())
+					.map(EntryField::fromProperty)
+					.distinct()
+					.toList();
+			final var filterList = filters == null
+					? List.<Filter>of()
+					: Arrays.stream(filters).map(Filter::parse).toList();
+			final var aggregateField = aggregate != null
+					? EntryField.fromProperty(aggregate)
+					: groupBy != null ? EntryField.TOP_SPEED : null;
+			if (aggregateField != null && !aggregateField.isNumeric())
+			{
+				throw new IllegalArgumentException("Only speeds can be aggregated: " + aggregate);
+			}
+			return new Query(fieldList.isEmpty() ? OUTCOME_FIELDS : fieldList,
+					filterList,
+					aggregateField,
+					groupBy != null ? EntryField.fromProperty(groupBy) : null);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Whether the query returns Outcomes, possibly filtered, rather than other fields or aggregates.
+	 */
+	public boolean isOutcome()
+	{
+		return !isAggregate() && fields.equals(OUTCOME_FIELDS);
+	}
+
+	/**
+	 * Whether the query returns aggregates rather than Entries.
+	 */
+	public boolean isAggregate()
+	{
+		return aggregate != null;
+	}
+
+	/**
+	 * The fields the parser has to materialise for this query.
+	 *
+	 * @return The fields returned, filtered on, aggregated or grouped by.
+	 */
+	public Set<EntryField> materialise()
+	{
+		final var materialise = EnumSet.noneOf(EntryField.class);
+		if (isAggregate())
+		{
+			materialise.add(aggregate);
+		}
+		else
+		{
+			materialise.addAll(fields);
+		}
+		filters.forEach(filter -> materialise.add(filter.field()));
+		if (groupBy != null)
+		{
+			materialise.add(groupBy);
+		}
+		return Collections.unmodifiableSet(materialise);
+	}
+
+	/**
+	 * Filter Entries.
+	 *
+	 * @param entries The Entries.
+	 * @return The Entries matching every filter.
+	 */
+	public Stream<Entry> filter(final Stream<Entry> entries)
+	{
+		return filters.isEmpty() ? entries : entries.filter(this::test);
+	}
+
+	/**
+	 * Filter Entries and return the chosen fields of each: Outcomes if those are the fields, otherwise Projections.
+	 *
+	 * @param entries The Entries.
+	 * @return The Outcomes or Projections.
+	 */
+	public Stream<Object> rows(final Stream<Entry> entries)
+	{
+		return filter(entries).map(this::row);
+	}
+
+	/**
+	 * Return the chosen fields of an Entry.
+	 *
+	 * @param entry The Entry.
+	 * @return An Outcome if those are the fields, otherwise a Projection.
+	 */
+	public Object row(final Entry entry)
+	{
+		return isOutcome() ? Outcome.fromEntry(entry) : new Projection(entry, fields);
+	}
+
+	/**
+	 * Create an Aggregation for this query; Entries should be filtered before they are added to it.
+	 *
+	 * @return The Aggregation.
+	 */
+	public Aggregation aggregation()
+	{
+		return new Aggregation(Objects.requireNonNull(aggregate), groupBy);
+	}
+
+	/**
+	 * Check whether an Entry matches every filter.
+	 *
+	 * @param entry The Entry.
+	 * @return Whether it matches.
+	 */
+	public boolean test(final Entry entry)
+	{
+		for (final var filter : filters)
+		{
+			if (!filter.test(entry))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,144 @@
+package io.anderson.ashley.gg.upload;
+
+import io.anderson.ashley.gg.web.OutcomeFormat;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The result of a committed upload, assembled from the Outcomes spooled as each chunk arrived: nothing is parsed
+ * again, the spool files are copied to the response in order with the lines that crossed chunks between them. Closing
+ * it discards the upload.
+ */
+public class CommittedUpload implements Closeable
+{
+	private final List<Part> parts;
+	private final Runnable discard;
+
+	CommittedUpload(final List<Part> parts, final Runnable discard)
+	{
+		this.parts = parts;
+		this.discard = discard;
+	}
+
+	/**
+	 * Write the Outcomes, as NDJSON just as they were spooled, or as a JSON array.
+	 *
+	 * @param outputStream The response body; left open.
+	 * @param format       Either JSON or NDJSON.
+	 * @throws IOException Thrown if a spool file cannot be read, or the response cannot be written.
+	 */
+	public void write(final OutputStream outputStream, final OutcomeFormat format) throws IOException
+	{
+		final var array = format == OutcomeFormat.JSON ? new JsonArrayOutputStream(outputStream) : null;
+		final var target = array != null ? array : outputStream;
+		final var channel = Channels.newChannel(target);
+		if (array != null)
+		{
+			array.start();
+		}
+		for (final var part : parts)
+		{
+			target.write(part.line());
+			if (part.spool() != null)
+			{
+				try (final var spool = FileChannel.open(part.spool(), StandardOpenOption.READ))
+				{
+					for (long position = 0, size = spool.size(); position < size; )
+					{
+						position += spool.transferTo(position, size - position, channel);
+					}
+				}
+			}
+		}
+		if (array != null)
+		{
+			array.end();
+		}
+		target.flush();
+	}
+
+	@Override
+	public void close()
+	{
+		discard.run();
+	}
+
+	/**
+	 * @param line  The NDJSON Outcome of the line which ends at the start of the spooled lines; may be empty.
+	 * @param spool The spooled NDJSON Outcomes, or null.
+	 */
+	record Part(byte[] line, Path spool)
+	{
+	}
+
+	/**
+	 * Turns NDJSON in to a JSON array as it is written: a JSON value never contains a raw line feed, so each one is
+	 * replaced with a comma if another value follows it.
+	 */
+	private static class JsonArrayOutputStream extends FilterOutputStream
+	{
+		private boolean lineStart = true;
+		private boolean empty = true;
+
+		JsonArrayOutputStream(final OutputStream outputStream)
+		{
+			super(outputStream);
+		}
+
+		void start() throws IOException
+		{
+			out.write('[');
+		}
+
+		void end() throws IOException
+		{
+			out.write(']');
+		}
+
+		@Override
+		public void write(final int b) throws IOException
+		{
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException
+		{
+			final var end = off + len;
+			var i = off;
+			while (i < end)
+			{
+				if (b[i] == '\n')
+				{
+					lineStart = true;
+					i++;
+					continue;
+				}
+				if (lineStart)
+				{
+					if (!empty)
+					{
+						out.write(',');
+					}
+					empty = false;
+					lineStart = false;
+				}
+				var j = i;
+				while (j < end && b[j] != '\n')
+				{
+					j++;
+				}
+				out.write(b, i, j - i);
+				i = j;
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package io.anderson.ashley.gg.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.regex.Pattern;
+
+/**
+ * The bytes of an EntryFile a chunk holds, from its Content-Range header: {@code bytes start-end/length}, where end is
+ * inclusive and the length of the whole EntryFile must be given.
+ *
+ * @param start  The offset of the first byte.
+ * @param end    The offset of the last byte.
+ * @param length The length of the whole EntryFile.
+ */
+public record ContentRange(long start, long end, long length)
+{
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d{1,18})-(\\d{1,18})/(\\d{1,18})");
+
+	/**
+	 * Parse a Content-Range header.
+	 *
+	 * @param contentRange The header value.
+	 * @return The range.
+	 * @throws ResponseStatusException BAD_REQUEST if the header is malformed, or the range is empty or outside the
+	 *                                 EntryFile.
+	 */
+	public static ContentRange parse(final String contentRange)
+	{
+		final var matcher = CONTENT_RANGE.matcher(contentRange.trim());
+		if (!matcher.matches())
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content-Range must be bytes start-end/length.");
+		}
+		final var start = Long.parseLong(matcher.group(1));
+		final var end = Long.parseLong(matcher.group(2));
+		final var length = Long.parseLong(matcher.group(3));
+		if (start > end || end >= length)
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content-Range " + contentRange + " is not within the upload.");
+		}
+		return new ContentRange(start, end, length);
+	}
+
+	public long size()
+	{
+		return end - start + 1;
+	}
+}
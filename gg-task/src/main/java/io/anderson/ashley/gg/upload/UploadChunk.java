@@ -0,0 +1,22 @@
+package io.anderson.ashley.gg.upload;
+
+import java.nio.file.Path;
+
+/**
+ * A received chunk. The complete lines within it have already been converted and spooled; only the partial lines at
+ * either end, which continue in the neighbouring chunks, are kept until the upload is committed.
+ *
+ * @param start The offset of the first byte.
+ * @param end   The offset of the last byte.
+ * @param head  The bytes before the first line break; the whole chunk if it has no line break.
+ * @param tail  The bytes after the last line break, or null if the chunk has no line break.
+ * @param spool The NDJSON Outcomes of the lines between the first and last line breaks, or null if the chunk has no
+ *              line break.
+ */
+record UploadChunk(long start, long end, byte[] head, byte[] tail, Path spool)
+{
+	boolean hasLineBreak()
+	{
+		return tail != null;
+	}
+}
@@ -0,0 +1,389 @@
+package io.anderson.ashley.gg.upload;
+
+import io.anderson.ashley.gg.convert.IEntryParser;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.OutcomeFormat;
+import io.anderson.ashley.gg.web.OutcomeWriter;
+import io.anderson.ashley.gg.web.WebConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads of EntryFiles too large to send in one request. The client creates an upload, sends its bytes as
+ * ranged chunks, in any order and in parallel, and then commits it. Each chunk is converted as soon as it arrives, and
+ * its Outcomes spooled to disk, so a failed chunk only costs itself and committing only has to convert the lines that
+ * cross chunk boundaries before copying the spooled Outcomes to the response.
+ * <p>
+ * Chunks are split on line breaks, which are never part of a UTF-8 multibyte character, so a chunk may end anywhere.
+ */
+@Slf4j
+@Component
+public class UploadService
+{
+	private static final String SPOOL_SUFFIX = ".ndjson";
+	private static final String CHUNK_SUFFIX = ".chunk";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final WebConfig.Upload config;
+	private final IEntryParser parser;
+	private final ParallelEntryConverter parallelConverter;
+	private final OutcomeWriter outcomeWriter;
+	private final Path spoolDirectory;
+	private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+	@Autowired
+	public UploadService(final WebConfig config,
+	                     final IEntryParser parser,
+	                     final ParallelEntryConverter parallelConverter,
+	                     final OutcomeWriter outcomeWriter)
+	{
+		this.config = config.getUpload();
+		this.parser = parser;
+		this.parallelConverter = parallelConverter;
+		this.outcomeWriter = outcomeWriter;
+		this.spoolDirectory = this.config.getSpoolDirectory() != null && !this.config.getSpoolDirectory().isBlank()
+				? Path.of(this.config.getSpoolDirectory())
+				: Path.of(System.getProperty("java.io.tmpdir"), "gg-task-uploads");
+	}
+
+	/**
+	 * Start a new upload.
+	 *
+	 * @return The status of the new, empty, upload.
+	 * @throws IOException Thrown if the upload's spool directory cannot be created.
+	 */
+	public UploadStatus create() throws IOException
+	{
+		final var id = UUID.randomUUID();
+		final var session = new UploadSession(id, Files.createDirectories(spoolDirectory.resolve(id.toString())));
+		sessions.put(id, session);
+		return session.status();
+	}
+
+	/**
+	 * Receive a chunk: it is streamed to disk, then its complete lines are converted and spooled straight away, and the
+	 * partial lines at either end kept until the upload is committed.
+	 *
+	 * @param id    The upload's ID.
+	 * @param range The bytes the chunk holds.
+	 * @param body  The chunk.
+	 * @return The status of the upload.
+	 * @throws IOException             Thrown if the chunk cannot be read or spooled.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown upload; PAYLOAD_TOO_LARGE if the chunk is larger than
+	 *                                 allowed; BAD_REQUEST if the body does not match the range, or has a malformed
+	 *                                 record; CONFLICT if the chunk overlaps another.
+	 */
+	public UploadStatus put(final UUID id, final ContentRange range, final InputStream body) throws IOException
+	{
+		final var session = session(id);
+		if (range.size() > config.getMaxChunkSize().toBytes())
+		{
+			throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Chunks may be at most " + config.getMaxChunkSize() + ".");
+		}
+		final var received = session.getDirectory().resolve(UUID.randomUUID() + CHUNK_SUFFIX);
+		final UploadChunk chunk;
+		try
+		{
+			receive(body, range.size(), received);
+			chunk = convert(session, range, received);
+		}
+		finally
+		{
+			Files.deleteIfExists(received);
+		}
+		final UploadChunk replaced;
+		try
+		{
+			replaced = session.add(range, chunk);
+		}
+		catch (final ResponseStatusException e)
+		{
+			delete(chunk);
+			throw e;
+		}
+		delete(replaced);
+		return session.status();
+	}
+
+	/**
+	 * @param id The upload's ID.
+	 * @return The status of the upload, to find which ranges still need sending.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown upload.
+	 */
+	public UploadStatus status(final UUID id)
+	{
+		return session(id).status();
+	}
+
+	/**
+	 * Complete an upload once every byte has been received. Any malformed record which crossed chunk boundaries is found
+	 * here, before anything is returned.
+	 *
+	 * @param id The upload's ID.
+	 * @return The result, to write to the response; closing it discards the upload.
+	 * @throws IOException             Thrown if a line cannot be converted.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown upload; CONFLICT if the upload is incomplete or already
+	 *                                 committed; BAD_REQUEST for a malformed record.
+	 */
+	public CommittedUpload commit(final UUID id) throws IOException
+	{
+		final var session = session(id);
+		return new CommittedUpload(session.commit(this::convert), () -> discard(id));
+	}
+
+	/**
+	 * Abandon an upload, and remove everything spooled for it.
+	 *
+	 * @param id The upload's ID.
+	 * @throws ResponseStatusException NOT_FOUND for an unknown upload.
+	 */
+	public void delete(final UUID id)
+	{
+		final var session = sessions.remove(id);
+		if (session == null)
+		{
+			throw notFound();
+		}
+		delete(session);
+	}
+
+	private void discard(final UUID id)
+	{
+		final var session = sessions.remove(id);
+		if (session != null)
+		{
+			delete(session);
+		}
+	}
+
+	/**
+	 * Discard uploads which have been idle for longer than the expiry.
+	 */
+	@Scheduled(fixedDelayString = "${web.upload.expiry}", initialDelayString = "${web.upload.expiry}")
+	public void expire()
+	{
+		final var expired = Instant.now().minus(config.getExpiry());
+		sessions.values().removeIf(session ->
+		{
+			if (session.getLastAccessed().isAfter(expired))
+			{
+				return false;
+			}
+			delete(session);
+			return true;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		sessions.values().forEach(this::delete);
+		sessions.clear();
+	}
+
+	private UploadSession session(final UUID id)
+	{
+		final var session = sessions.get(id);
+		if (session == null)
+		{
+			throw notFound();
+		}
+		session.touch();
+		return session;
+	}
+
+	/**
+	 * Stream a chunk to disk as it arrives, so that only a buffer of it is ever held on the heap, however large it is.
+	 */
+	private static void receive(final InputStream body, final long size, final Path file) throws IOException
+	{
+		try (final var outputStream = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+		{
+			final var buffer = new byte[BUFFER_SIZE];
+			var received = 0L;
+			int read;
+			// Reads one byte past the size, to find a body longer than its range
+			while ((read = body.read(buffer, 0, (int) Math.min(buffer.length, size + 1 - received))) > 0)
+			{
+				received += read;
+				if (received > size)
+				{
+					break;
+				}
+				outputStream.write(buffer, 0, read);
+			}
+			if (received != size)
+			{
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk is not the length given by its Content-Range.");
+			}
+		}
+	}
+
+	/**
+	 * Convert the complete lines in a received chunk, which are those after its first line break and up to its last.
+	 */
+	private UploadChunk convert(final UploadSession session, final ContentRange range, final Path received) throws IOException
+	{
+		try (final var channel = FileChannel.open(received, StandardOpenOption.READ))
+		{
+			final var size = channel.size();
+			final var first = firstLineBreak(channel, size);
+			if (first < 0)
+			{
+				return new UploadChunk(range.start(), range.end(), read(channel, 0, size), null, null);
+			}
+			final var last = lastLineBreak(channel, size);
+
+			final var spool = session.getDirectory().resolve(UUID.randomUUID() + SPOOL_SUFFIX);
+			final var length = last - first;
+			final var lines = new BoundedInputStream(Channels.newInputStream(channel.position(first + 1)), length);
+			// The partial lines at either end are read from the channel once the rest is converted
+			lines.setPropagateClose(false);
+			try (final var outcomes = convert(new InputStreamReader(lines, StandardCharsets.UTF_8), length);
+			     final var spoolChannel = FileChannel.open(spool, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			     final var outputStream = new BufferedOutputStream(Channels.newOutputStream(spoolChannel), BUFFER_SIZE))
+			{
+				outcomeWriter.write(OutcomeFormat.NDJSON, outcomes, outputStream);
+			}
+			catch (final IOException | RuntimeException e)
+			{
+				Files.deleteIfExists(spool);
+				throw e;
+			}
+			return new UploadChunk(range.start(), range.end(), read(channel, 0, first), read(channel, last + 1, size - last - 1), spool);
+		}
+	}
+
+	private static long firstLineBreak(final FileChannel channel, final long size) throws IOException
+	{
+		for (var position = 0L; position < size; position += BUFFER_SIZE)
+		{
+			final var block = read(channel, position, Math.min(BUFFER_SIZE, size - position));
+			for (var i = 0; i < block.length; i++)
+			{
+				if (isLineBreak(block[i]))
+				{
+					return position + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static long lastLineBreak(final FileChannel channel, final long size) throws IOException
+	{
+		for (var end = size; end > 0; )
+		{
+			final var position = Math.max(0, end - BUFFER_SIZE);
+			final var block = read(channel, position, end - position);
+			for (var i = block.length - 1; i >= 0; i--)
+			{
+				if (isLineBreak(block[i]))
+				{
+					return position + i;
+				}
+			}
+			end = position;
+		}
+		return -1;
+	}
+
+	private static byte[] read(final FileChannel channel, final long position, final long length) throws IOException
+	{
+		final var buffer = ByteBuffer.allocate(Math.toIntExact(length));
+		while (buffer.hasRemaining())
+		{
+			if (channel.read(buffer, position + buffer.position()) < 0)
+			{
+				throw new EOFException("Chunk ended early");
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Convert a line joined from the ends of neighbouring chunks.
+	 */
+	private byte[] convert(final byte[] line) throws IOException
+	{
+		if (line.length == 0)
+		{
+			return EMPTY;
+		}
+		final var outputStream = new ByteArrayOutputStream();
+		try (final var outcomes = convert(new InputStreamReader(new ByteArrayInputStream(line), StandardCharsets.UTF_8), line.length))
+		{
+			outcomeWriter.write(OutcomeFormat.NDJSON, outcomes, outputStream);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private Stream<Outcome> convert(final Reader reader, final long length) throws IOException
+	{
+		if (parallelConverter.isParallel(length))
+		{
+			return parallelConverter.convert(reader);
+		}
+		return parser.parse(reader).map(Outcome::fromEntry);
+	}
+
+	private void delete(final UploadSession session)
+	{
+		try
+		{
+			FileSystemUtils.deleteRecursively(session.getDirectory());
+		}
+		catch (final IOException e)
+		{
+			log.warn("Could not delete upload spool directory {}", session.getDirectory(), e);
+		}
+	}
+
+	private void delete(final UploadChunk chunk) throws IOException
+	{
+		if (chunk != null && chunk.spool() != null)
+		{
+			Files.deleteIfExists(chunk.spool());
+		}
+	}
+
+	private static boolean isLineBreak(final byte b)
+	{
+		return b == '\n' || b == '\r';
+	}
+
+	private static ResponseStatusException notFound()
+	{
+		return new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found.");
+	}
+}
@@ -0,0 +1,142 @@
+package io.anderson.ashley.gg.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * An upload in progress: the chunks received so far, in order of their offset, each spooled to its own file in the
+ * session's directory. Chunks may arrive in any order, and concurrently; they are only checked against each other once
+ * they have been converted.
+ */
+class UploadSession
+{
+	private final UUID id;
+	private final Path directory;
+	private final NavigableMap<Long, UploadChunk> chunks = new TreeMap<>();
+	private Long length;
+	private boolean committed;
+	private volatile Instant lastAccessed = Instant.now();
+
+	UploadSession(final UUID id, final Path directory)
+	{
+		this.id = id;
+		this.directory = directory;
+	}
+
+	Path getDirectory()
+	{
+		return directory;
+	}
+
+	Instant getLastAccessed()
+	{
+		return lastAccessed;
+	}
+
+	void touch()
+	{
+		lastAccessed = Instant.now();
+	}
+
+	/**
+	 * Add a converted chunk. Sending the same range again replaces it, so a failed chunk can simply be retried.
+	 *
+	 * @param range The range of the chunk, with the length of the whole EntryFile.
+	 * @param chunk The converted chunk.
+	 * @return The chunk it replaces, if any, whose spool file is no longer needed.
+	 * @throws ResponseStatusException CONFLICT if the upload has been committed, or the chunk overlaps a different
+	 *                                 chunk or disagrees about the length of the EntryFile.
+	 */
+	synchronized UploadChunk add(final ContentRange range, final UploadChunk chunk)
+	{
+		if (committed)
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload has already been committed.");
+		}
+		if (length != null && length != range.length())
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload length is " + length + " bytes, not " + range.length() + ".");
+		}
+		final var existing = chunks.floorEntry(chunk.end());
+		if (existing != null && existing.getValue().end() >= chunk.start()
+				&& (existing.getValue().start() != chunk.start() || existing.getValue().end() != chunk.end()))
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Bytes " + chunk.start() + "-" + chunk.end()
+					+ " overlap the chunk already received at " + existing.getValue().start() + "-" + existing.getValue().end() + ".");
+		}
+		length = range.length();
+		return chunks.put(chunk.start(), chunk);
+	}
+
+	synchronized UploadStatus status()
+	{
+		final var received = new ArrayList<UploadStatus.Range>();
+		for (final var chunk : chunks.values())
+		{
+			final var last = received.isEmpty() ? null : received.get(received.size() - 1);
+			if (last != null && last.end() + 1 == chunk.start())
+			{
+				received.set(received.size() - 1, new UploadStatus.Range(last.start(), chunk.end()));
+			}
+			else
+			{
+				received.add(new UploadStatus.Range(chunk.start(), chunk.end()));
+			}
+		}
+		final var complete = length != null && received.size() == 1 && received.get(0).start() == 0 && received.get(0).end() == length - 1;
+		return new UploadStatus(id, length, received, complete);
+	}
+
+	/**
+	 * Join the partial lines at the ends of each chunk to those of its neighbours, and convert them; everything else has
+	 * already been converted. Nothing can be added once committed.
+	 *
+	 * @param converter Converts a line in to its NDJSON Outcome.
+	 * @return The parts of the result, in order.
+	 * @throws IOException             Thrown if a line cannot be converted.
+	 * @throws ResponseStatusException CONFLICT if the upload is incomplete or already committed; BAD_REQUEST if a line
+	 *                                 joined across chunks is malformed.
+	 */
+	synchronized List<CommittedUpload.Part> commit(final LineConverter converter) throws IOException
+	{
+		if (committed)
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload has already been committed.");
+		}
+		if (!status().complete())
+		{
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is incomplete.");
+		}
+		final var parts = new ArrayList<CommittedUpload.Part>(chunks.size() + 1);
+		final var line = new ByteArrayOutputStream();
+		for (final var chunk : chunks.values())
+		{
+			line.writeBytes(chunk.head());
+			if (chunk.hasLineBreak())
+			{
+				parts.add(new CommittedUpload.Part(converter.convert(line.toByteArray()), chunk.spool()));
+				line.reset();
+				line.writeBytes(chunk.tail());
+			}
+		}
+		parts.add(new CommittedUpload.Part(converter.convert(line.toByteArray()), null));
+		committed = true;
+		return parts;
+	}
+
+	@FunctionalInterface
+	interface LineConverter
+	{
+		byte[] convert(byte[] line) throws IOException;
+	}
+}
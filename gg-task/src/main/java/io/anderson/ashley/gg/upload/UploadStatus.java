@@ -0,0 +1,23 @@
+package io.anderson.ashley.gg.upload;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The progress of an upload, so that a client can resume it by sending only the ranges that have not been received.
+ *
+ * @param id       The upload's ID.
+ * @param length   The length of the whole EntryFile, once any chunk has been received.
+ * @param received The ranges received so far, with adjacent chunks merged.
+ * @param complete Whether every byte has been received, so the upload can be committed.
+ */
+public record UploadStatus(UUID id, Long length, List<Range> received, boolean complete)
+{
+	/**
+	 * @param start The offset of the first byte.
+	 * @param end   The offset of the last byte.
+	 */
+	public record Range(long start, long end)
+	{
+	}
+}
@@ -0,0 +1,187 @@
+package io.anderson.ashley.gg.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * An Aho–Corasick automaton for finding whether any of a set of substrings occur in a string, in a single pass over
+ * the string regardless of how many substrings there are. Once compiled the automaton is immutable and thread safe.
+ */
+public final class AhoCorasick
+{
+	private static final int ROOT = 0;
+	private static final int ASCII = 128;
+
+	/*
+	 * The transitions of state s are keys/targets[offsets[s] .. offsets[s + 1]), with keys sorted for binary search.
+	 */
+	private final int[] offsets;
+	private final char[] keys;
+	private final int[] targets;
+	/*
+	 * Most of the time is spent at the root, so its ASCII transitions are also held in a direct lookup table.
+	 */
+	private final int[] rootTargets = new int[ASCII];
+	private final int[] fail;
+	private final boolean[] terminal;
+	private final boolean matchesAll;
+
+	private AhoCorasick(final List<TreeMap<Character, Integer>> trie, final int[] fail, final boolean[] terminal, final boolean matchesAll)
+	{
+		final var states = trie.size();
+		this.offsets = new int[states + 1];
+		final var transitions = trie.stream().mapToInt(TreeMap::size).sum();
+		this.keys = new char[transitions];
+		this.targets = new int[transitions];
+		var offset = 0;
+		for (int state = 0; state < states; state++)
+		{
+			offsets[state] = offset;
+			for (final var transition : trie.get(state).entrySet())
+			{
+				keys[offset] = transition.getKey();
+				targets[offset] = transition.getValue();
+				offset++;
+			}
+		}
+		offsets[states] = offset;
+		for (char c = 0; c < ASCII; c++)
+		{
+			rootTargets[c] = search(ROOT, c);
+		}
+		this.fail = fail;
+		this.terminal = terminal;
+		this.matchesAll = matchesAll;
+	}
+
+	/**
+	 * Compile the given substrings in to an automaton.
+	 *
+	 * @param patterns The substrings to search for.
+	 * @return A new automaton.
+	 */
+	public static AhoCorasick compile(final Collection<String> patterns)
+	{
+		final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+		final List<Boolean> terminals = new ArrayList<>();
+		trie.add(new TreeMap<>());
+		terminals.add(false);
+		var matchesAll = false;
+		for (final var pattern : patterns)
+		{
+			// As with String.contains, an empty pattern is in every string
+			matchesAll |= pattern.isEmpty();
+			var state = ROOT;
+			for (int i = 0; i < pattern.length(); i++)
+			{
+				final var next = trie.get(state).get(pattern.charAt(i));
+				if (next != null)
+				{
+					state = next;
+					continue;
+				}
+				trie.add(new TreeMap<>());
+				terminals.add(false);
+				trie.get(state).put(pattern.charAt(i), trie.size() - 1);
+				state = trie.size() - 1;
+			}
+			terminals.set(state, true);
+		}
+
+		// Breadth first, so the failure link of each state is known before those of its children
+		final var fail = new int[trie.size()];
+		final var terminal = new boolean[trie.size()];
+		final var queue = new ArrayDeque<Integer>();
+		terminal[ROOT] = terminals.get(ROOT);
+		for (final int child : trie.get(ROOT).values())
+		{
+			fail[child] = ROOT;
+			terminal[child] = terminals.get(child);
+			queue.add(child);
+		}
+		while (!queue.isEmpty())
+		{
+			final int state = queue.poll();
+			for (final var transition : trie.get(state).entrySet())
+			{
+				final int child = transition.getValue();
+				var link = fail[state];
+				Integer target;
+				while ((target = trie.get(link).get(transition.getKey())) == null && link != ROOT)
+				{
+					link = fail[link];
+				}
+				fail[child] = target != null ? target : ROOT;
+				terminal[child] = terminals.get(child) || terminal[fail[child]];
+				queue.add(child);
+			}
+		}
+		return new AhoCorasick(trie, fail, terminal, matchesAll);
+	}
+
+	/**
+	 * Check whether any of the compiled substrings occur in the given string.
+	 *
+	 * @param text The string to search.
+	 * @return True if at least one substring occurs in the string.
+	 */
+	public boolean containsAny(final CharSequence text)
+	{
+		if (matchesAll)
+		{
+			return true;
+		}
+		var state = ROOT;
+		for (int i = 0; i < text.length(); i++)
+		{
+			final var c = text.charAt(i);
+			int next;
+			while ((next = transition(state, c)) < 0 && state != ROOT)
+			{
+				state = fail[state];
+			}
+			state = next < 0 ? ROOT : next;
+			if (terminal[state])
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int transition(final int state, final char c)
+	{
+		if (state == ROOT && c < ASCII)
+		{
+			return rootTargets[c];
+		}
+		return search(state, c);
+	}
+
+	private int search(final int state, final char c)
+	{
+		var low = offsets[state];
+		var high = offsets[state + 1] - 1;
+		while (low <= high)
+		{
+			final var mid = (low + high) >>> 1;
+			final var key = keys[mid];
+			if (key < c)
+			{
+				low = mid + 1;
+			}
+			else if (key > c)
+			{
+				high = mid - 1;
+			}
+			else
+			{
+				return targets[mid];
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,107 @@
+package io.anderson.ashley.gg.validation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * The blocked countries and ISPs, compiled at startup: countries in to a bit set, and ISP substrings in to an
+ * Aho–Corasick automaton, so each check is a single pass no matter how long the lists are.
+ * <p>
+ * If a blocklist file is configured, with its own blocked-countries and/or blocked-providers, those lists replace the
+ * application's whenever the file changes, without a restart.
+ */
+@Component
+public class Blocklist
+{
+	private static final String BLOCKED_COUNTRIES = "blocked-countries";
+	private static final String BLOCKED_PROVIDERS = "blocked-providers";
+
+	private final ValidationConfig config;
+
+	private volatile Matcher matcher;
+	private volatile FileTime lastModified;
+
+	private record Matcher(CountryCodeSet countries, AhoCorasick providers)
+	{
+		private static Matcher compile(final List<String> countries, final List<String> providers)
+		{
+			return new Matcher(new CountryCodeSet(countries), AhoCorasick.compile(providers));
+		}
+	}
+
+	@Autowired
+	public Blocklist(final ValidationConfig config)
+	{
+		this.config = config;
+		this.matcher = Matcher.compile(config.getBlockedCountries(), config.getBlockedProviders());
+	}
+
+	/**
+	 * Check whether requests from the given country should be blocked.
+	 *
+	 * @param countryCode The ISO country code.
+	 * @return True if the country is blocked.
+	 */
+	public boolean isCountryBlocked(final String countryCode)
+	{
+		if (countryCode == null)
+		{
+			return false;
+		}
+		return matcher.countries().contains(countryCode);
+	}
+
+	/**
+	 * Check whether requests from the given ISP should be blocked.
+	 *
+	 * @param isp The ISP name.
+	 * @return True if the ISP is blocked.
+	 */
+	public boolean isIspBlocked(final String isp)
+	{
+		if (isp == null)
+		{
+			return false;
+		}
+		return matcher.providers().containsAny(isp);
+	}
+
+	/**
+	 * Reload the blocklist file, if there is one and it has changed. The new lists are compiled in full before they
+	 * replace the old ones; if the file cannot be read the current lists stay in use.
+	 *
+	 * @throws IOException Thrown if the blocklist file cannot be read.
+	 */
+	@Scheduled(fixedDelayString = "${validation.blocklist-reload-interval}")
+	public void reload() throws IOException
+	{
+		final var file = config.getBlocklistFile();
+		if (file == null)
+		{
+			return;
+		}
+		final var modified = Files.getLastModifiedTime(file);
+		if (modified.equals(lastModified))
+		{
+			return;
+		}
+		final var yaml = new YamlPropertiesFactoryBean();
+		yaml.setResources(new FileSystemResource(file));
+		final var binder = new Binder(new MapConfigurationPropertySource(yaml.getObject()));
+		final var countries = binder.bind(BLOCKED_COUNTRIES, Bindable.listOf(String.class)).orElse(config.getBlockedCountries());
+		final var providers = binder.bind(BLOCKED_PROVIDERS, Bindable.listOf(String.class)).orElse(config.getBlockedProviders());
+		matcher = Matcher.compile(countries, providers);
+		lastModified = modified;
+	}
+}
@@ -0,0 +1,61 @@
+package io.anderson.ashley.gg.validation;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A set of ISO 3166 alpha-2 country codes, held as one bit per possible code. Anything that isn't a two letter upper
+ * case code is kept in an ordinary set, so lookups match List.contains exactly.
+ */
+public final class CountryCodeSet
+{
+	private static final int LETTERS = 26;
+
+	private final BitSet codes = new BitSet(LETTERS * LETTERS);
+	private final Set<String> others = new HashSet<>();
+
+	public CountryCodeSet(final Collection<String> countryCodes)
+	{
+		for (final var countryCode : countryCodes)
+		{
+			final var index = index(countryCode);
+			if (index < 0)
+			{
+				others.add(countryCode);
+			}
+			else
+			{
+				codes.set(index);
+			}
+		}
+	}
+
+	/**
+	 * Check whether the given country code is in the set.
+	 *
+	 * @param countryCode The country code.
+	 * @return True if the country code is in the set.
+	 */
+	public boolean contains(final String countryCode)
+	{
+		final var index = index(countryCode);
+		return index < 0 ? others.contains(countryCode) : codes.get(index);
+	}
+
+	private static int index(final String countryCode)
+	{
+		if (countryCode.length() != 2)
+		{
+			return -1;
+		}
+		final var first = countryCode.charAt(0) - 'A';
+		final var second = countryCode.charAt(1) - 'A';
+		if (first < 0 || first >= LETTERS || second < 0 || second >= LETTERS)
+		{
+			return -1;
+		}
+		return first * LETTERS + second;
+	}
+}
@@ -1,7 +1,10 @@
 package io.anderson.ashley.gg.validation;
 
+import io.anderson.ashley.gg.model.IpValidationResult;
 import io.anderson.ashley.gg.model.ValidationResult;
+import reactor.core.publisher.Flux;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 public interface IValidationService
@@ -13,4 +16,13 @@ public interface IValidationService
 	 * @return Details of whether the validation was successful or not.
 	 */
 	CompletableFuture<ValidationResult> validateIpAddress(String ipAddress);
+
+	/**
+	 * Validate many IP addresses at once. Duplicates are validated once; results are emitted as they become available,
+	 * so not necessarily in the order given.
+	 *
+	 * @param ipAddresses The IP addresses.
+	 * @return Details of whether the validation of each IP address was successful or not.
+	 */
+	Flux<IpValidationResult> validateIpAddresses(Collection<String> ipAddresses);
 }
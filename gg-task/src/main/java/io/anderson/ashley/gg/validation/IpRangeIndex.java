@@ -0,0 +1,197 @@
+package io.anderson.ashley.gg.validation;
+
+import com.google.common.net.InetAddresses;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, in-memory index of IP address ranges to their country and ISP. Ranges are held in sorted primitive
+ * arrays and found with a binary search, so a lookup does no I/O and allocates nothing beyond parsing the address.
+ * <p>
+ * The database is a CSV file of: range start, range end, country code, ISP; with IPv4 and IPv6 ranges in any order.
+ * Lines starting with # are ignored.
+ */
+public final class IpRangeIndex
+{
+	private final long[] v4Starts;
+	private final long[] v4Ends;
+	private final int[] v4Locations;
+	private final long[] v6StartsHigh;
+	private final long[] v6StartsLow;
+	private final long[] v6EndsHigh;
+	private final long[] v6EndsLow;
+	private final int[] v6Locations;
+	private final Location[] locations;
+
+	public record Location(String countryCode, String isp)
+	{
+	}
+
+	private record Range(long startHigh, long startLow, long endHigh, long endLow, int location)
+	{
+	}
+
+	private IpRangeIndex(final List<Range> v4, final List<Range> v6, final List<Location> locations)
+	{
+		v4Starts = v4.stream().mapToLong(Range::startLow).toArray();
+		v4Ends = v4.stream().mapToLong(Range::endLow).toArray();
+		v4Locations = v4.stream().mapToInt(Range::location).toArray();
+		v6StartsHigh = v6.stream().mapToLong(Range::startHigh).toArray();
+		v6StartsLow = v6.stream().mapToLong(Range::startLow).toArray();
+		v6EndsHigh = v6.stream().mapToLong(Range::endHigh).toArray();
+		v6EndsLow = v6.stream().mapToLong(Range::endLow).toArray();
+		v6Locations = v6.stream().mapToInt(Range::location).toArray();
+		this.locations = locations.toArray(Location[]::new);
+	}
+
+	/**
+	 * Load the range database from the given file.
+	 *
+	 * @param database The CSV database file.
+	 * @return A new index.
+	 * @throws IOException Thrown if the file cannot be read or is malformed.
+	 */
+	public static IpRangeIndex load(final Path database) throws IOException
+	{
+		final var csvFormat = CSVFormat.Builder
+				.create(CSVFormat.DEFAULT)
+				.setCommentMarker('#')
+				.setIgnoreSurroundingSpaces(true)
+				.build();
+		final List<Range> v4 = new ArrayList<>();
+		final List<Range> v6 = new ArrayList<>();
+		final List<Location> locations = new ArrayList<>();
+		final Map<Location, Integer> locationIds = new HashMap<>();
+		try (final var reader = Files.newBufferedReader(database, StandardCharsets.UTF_8);
+		     final var parser = csvFormat.parse(reader))
+		{
+			for (final CSVRecord record : parser)
+			{
+				try
+				{
+					final var start = InetAddresses.forString(record.get(0));
+					final var end = InetAddresses.forString(record.get(1));
+					final var location = new Location(record.get(2), record.get(3));
+					final int id = locationIds.computeIfAbsent(location, l ->
+					{
+						locations.add(l);
+						return locations.size() - 1;
+					});
+					if (start instanceof Inet4Address && end instanceof Inet4Address)
+					{
+						v4.add(new Range(0, toLong(start), 0, toLong(end), id));
+					}
+					else if (start instanceof Inet6Address && end instanceof Inet6Address)
+					{
+						final var startBytes = ByteBuffer.wrap(start.getAddress());
+						final var endBytes = ByteBuffer.wrap(end.getAddress());
+						v6.add(new Range(startBytes.getLong(), startBytes.getLong(), endBytes.getLong(), endBytes.getLong(), id));
+					}
+					else
+					{
+						throw new IllegalArgumentException("Range mixes IPv4 and IPv6 addresses");
+					}
+				}
+				catch (final IllegalArgumentException e)
+				{
+					throw new IOException("Malformed IP range database " + database + " at line " + record.getRecordNumber(), e);
+				}
+			}
+		}
+		final Comparator<Range> byStart = (a, b) ->
+		{
+			final var high = Long.compareUnsigned(a.startHigh(), b.startHigh());
+			return high != 0 ? high : Long.compareUnsigned(a.startLow(), b.startLow());
+		};
+		v4.sort(byStart);
+		v6.sort(byStart);
+		return new IpRangeIndex(v4, v6, locations);
+	}
+
+	/**
+	 * Find the location of the given IP address.
+	 *
+	 * @param address The IP address.
+	 * @return The location, or null if the address is not in any range.
+	 */
+	public Location find(final InetAddress address)
+	{
+		if (address instanceof Inet4Address)
+		{
+			final var ip = toLong(address);
+			// Addresses are unsigned 32-bit values, so always positive as a long
+			final var index = floor(Arrays.binarySearch(v4Starts, ip));
+			return index >= 0 && ip <= v4Ends[index] ? locations[v4Locations[index]] : null;
+		}
+		final var bytes = ByteBuffer.wrap(address.getAddress());
+		final var high = bytes.getLong();
+		final var low = bytes.getLong();
+		final var index = floorV6(high, low);
+		return index >= 0 && compare(high, low, v6EndsHigh[index], v6EndsLow[index]) <= 0 ? locations[v6Locations[index]] : null;
+	}
+
+	/**
+	 * The number of ranges in the index.
+	 *
+	 * @return The number of IPv4 and IPv6 ranges.
+	 */
+	public int size()
+	{
+		return v4Starts.length + v6StartsHigh.length;
+	}
+
+	private static int floor(final int binarySearchResult)
+	{
+		return binarySearchResult >= 0 ? binarySearchResult : -binarySearchResult - 2;
+	}
+
+	private int floorV6(final long high, final long low)
+	{
+		int lo = 0;
+		int hi = v6StartsHigh.length - 1;
+		while (lo <= hi)
+		{
+			final var mid = (lo + hi) >>> 1;
+			final var cmp = compare(v6StartsHigh[mid], v6StartsLow[mid], high, low);
+			if (cmp < 0)
+			{
+				lo = mid + 1;
+			}
+			else if (cmp > 0)
+			{
+				hi = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return hi;
+	}
+
+	private static int compare(final long aHigh, final long aLow, final long bHigh, final long bLow)
+	{
+		final var high = Long.compareUnsigned(aHigh, bHigh);
+		return high != 0 ? high : Long.compareUnsigned(aLow, bLow);
+	}
+
+	private static long toLong(final InetAddress address)
+	{
+		return Integer.toUnsignedLong(InetAddresses.coerceToInteger(address));
+	}
+}
@@ -0,0 +1,131 @@
+package io.anderson.ashley.gg.validation;
+
+import io.anderson.ashley.gg.model.ValidationResult;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collect concurrent single IP address lookups, so that they can be looked up together. A batch is looked up once it
+ * has as many IP addresses as allowed, or once its first IP address has waited as long as allowed, whichever is first;
+ * each caller's result is completed on its own as soon as its batch completes.
+ */
+class LookupCollector implements AutoCloseable
+{
+	private final int maxSize;
+	private final Duration maxWait;
+	private final Function<List<String>, Map<String, CompletableFuture<ValidationResult>>> lookup;
+	private final ScheduledExecutorService scheduler;
+
+	// Guarded by this
+	private Map<String, CompletableFuture<ValidationResult>> pending = new LinkedHashMap<>();
+	private ScheduledFuture<?> timeout;
+	private boolean closed;
+
+	/**
+	 * @param maxSize The most IP addresses to collect into a batch.
+	 * @param maxWait The longest an IP address may wait for its batch to fill.
+	 * @param lookup  The function to validate a batch of IP addresses, with a result for each.
+	 */
+	LookupCollector(final int maxSize,
+	                final Duration maxWait,
+	                final Function<List<String>, Map<String, CompletableFuture<ValidationResult>>> lookup)
+	{
+		this.maxSize = maxSize;
+		this.maxWait = maxWait;
+		this.lookup = lookup;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+		{
+			final var thread = new Thread(runnable, "ip-api-collector");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Queue the given IP address for the next batch; an IP address already queued shares its result. Once the collector
+	 * is closed, the IP address is looked up on its own straight away.
+	 *
+	 * @param ipAddress The IP address.
+	 * @return Details of whether the validation was successful or not, once its batch completes.
+	 */
+	CompletableFuture<ValidationResult> submit(final String ipAddress)
+	{
+		final CompletableFuture<ValidationResult> result;
+		Map<String, CompletableFuture<ValidationResult>> batch = null;
+		synchronized (this)
+		{
+			result = pending.computeIfAbsent(ipAddress, key -> new CompletableFuture<>());
+			if (closed || pending.size() >= maxSize)
+			{
+				batch = take();
+			}
+			else if (timeout == null)
+			{
+				timeout = scheduler.schedule(this::flush, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+			}
+		}
+		// Looked up outside the lock, so that the next batch can be collected in the meantime
+		if (batch != null)
+		{
+			ValidationCache.lookup(batch, lookup);
+		}
+		return result;
+	}
+
+	/**
+	 * Look up whatever has been collected so far, without waiting for the batch to fill.
+	 */
+	void flush()
+	{
+		final Map<String, CompletableFuture<ValidationResult>> batch;
+		synchronized (this)
+		{
+			batch = take();
+		}
+		if (!batch.isEmpty())
+		{
+			ValidationCache.lookup(batch, lookup);
+		}
+	}
+
+	/**
+	 * Look up anything still waiting, so that no caller is left without a result, and stop the timer thread. IP addresses
+	 * submitted afterwards are looked up without waiting for a batch.
+	 */
+	@Override
+	public void close()
+	{
+		final Map<String, CompletableFuture<ValidationResult>> batch;
+		synchronized (this)
+		{
+			closed = true;
+			batch = take();
+		}
+		scheduler.shutdownNow();
+		if (!batch.isEmpty())
+		{
+			ValidationCache.lookup(batch, lookup);
+		}
+	}
+
+	private Map<String, CompletableFuture<ValidationResult>> take()
+	{
+		final var batch = pending;
+		pending = new LinkedHashMap<>();
+		if (timeout != null)
+		{
+			timeout.cancel(false);
+			timeout = null;
+		}
+		return batch;
+	}
+}
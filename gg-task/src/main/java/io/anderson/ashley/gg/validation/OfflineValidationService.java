@@ -0,0 +1,119 @@
+package io.anderson.ashley.gg.validation;
+
+import com.google.common.net.InetAddresses;
+import io.anderson.ashley.gg.model.IpValidationResult;
+import io.anderson.ashley.gg.model.ValidationResult;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_ISP;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.UNKNOWN_ERROR;
+
+/**
+ * Validate IP addresses against a local range database, rather than IP-API; no network I/O is involved, so results are
+ * always immediately available.
+ */
+@Service
+@ConditionalOnProperty(prefix = "validation", name = "provider", havingValue = "offline")
+public class OfflineValidationService implements IValidationService
+{
+	private final ValidationConfig.Offline config;
+	private final Blocklist blocklist;
+	private final URI request;
+
+	private volatile IpRangeIndex index;
+	private volatile FileTime lastModified;
+
+	@Autowired
+	public OfflineValidationService(final ValidationConfig config, final Blocklist blocklist) throws IOException
+	{
+		this.config = config.getOffline();
+		this.blocklist = blocklist;
+		this.request = this.config.getDatabase().toUri();
+		reload();
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	public CompletableFuture<ValidationResult> validateIpAddress(@NonNull final String ipAddress)
+	{
+		return CompletableFuture.completedFuture(validate(ipAddress));
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	public Flux<IpValidationResult> validateIpAddresses(@NonNull final Collection<String> ipAddresses)
+	{
+		return Flux.fromIterable(new LinkedHashSet<>(ipAddresses))
+				.map(ipAddress -> new IpValidationResult(ipAddress, validate(ipAddress)));
+	}
+
+	/**
+	 * Reload the range database if it has changed on disk. The new index is built in full before it replaces the old
+	 * one, so lookups always see a complete database; if it cannot be loaded, the previous database stays in use.
+	 *
+	 * @throws IOException Thrown if the database cannot be read.
+	 */
+	@Scheduled(fixedDelayString = "${validation.offline.reload-interval}", initialDelayString = "${validation.offline.reload-interval}")
+	public void reload() throws IOException
+	{
+		final var database = config.getDatabase();
+		final var modified = Files.getLastModifiedTime(database);
+		if (!modified.equals(lastModified))
+		{
+			index = IpRangeIndex.load(database);
+			lastModified = modified;
+		}
+	}
+
+	private ValidationResult validate(final String ipAddress)
+	{
+		if (!InetAddresses.isInetAddress(ipAddress))
+		{
+			return new ValidationResult(request, UNKNOWN_ERROR, null, null);
+		}
+		final var address = InetAddresses.forString(ipAddress);
+		// As with IP-API, a local network IP is assumed to be okay
+		if (isPrivateIp(address))
+		{
+			return new ValidationResult(request, SUCCESS, null, null);
+		}
+		final var location = index.find(address);
+		if (location == null)
+		{
+			return new ValidationResult(request, UNKNOWN_ERROR, null, null);
+		}
+		final var status = blocklist.isCountryBlocked(location.countryCode())
+				? BLOCKED_IP
+				: blocklist.isIspBlocked(location.isp()) ? BLOCKED_ISP : SUCCESS;
+		return new ValidationResult(request, status, location.countryCode(), location.isp());
+	}
+
+	private boolean isPrivateIp(final InetAddress address)
+	{
+		if (address.isSiteLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress())
+		{
+			return true;
+		}
+		// IPv6 unique local addresses (fc00::/7)
+		return address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+	}
+}
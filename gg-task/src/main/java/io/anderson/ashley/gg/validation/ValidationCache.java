@@ -0,0 +1,174 @@
+package io.anderson.ashley.gg.validation;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.anderson.ashley.gg.model.ValidationResult;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class ValidationCache
+{
+	private final ValidationConfig.Cache config;
+	private final AsyncCache<String, ValidationResult> cache;
+
+	@Autowired
+	public ValidationCache(final ValidationConfig config)
+	{
+		this.config = config.getCache();
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(this.config.getMaximumSize())
+				.expireAfter(new StatusExpiry(this.config))
+				.recordStats()
+				.buildAsync();
+	}
+
+	/**
+	 * Get the validation result for the given IP address, performing the lookup if it is not already cached. Concurrent
+	 * misses for the same IP address share a single in-flight lookup.
+	 *
+	 * @param ipAddress The IP address.
+	 * @param lookup    The function to validate the IP address on a cache miss.
+	 * @return Details of whether the validation was successful or not.
+	 */
+	public CompletableFuture<ValidationResult> get(@NonNull final String ipAddress,
+	                                               @NonNull final Function<String, CompletableFuture<ValidationResult>> lookup)
+	{
+		if (!config.isEnabled())
+		{
+			return lookup.apply(ipAddress);
+		}
+		return cache.get(ipAddress, (key, executor) -> lookup.apply(key));
+	}
+
+	/**
+	 * Get the validation results for many IP addresses, performing a single lookup for all those not already cached. As
+	 * with get, an IP address already being looked up, by this or any other caller, shares that lookup.
+	 *
+	 * @param ipAddresses The IP addresses.
+	 * @param lookup      The function to validate the IP addresses missing from the cache, with a result for each.
+	 * @return Details of whether the validation of each (distinct) IP address was successful or not.
+	 */
+	public Map<String, CompletableFuture<ValidationResult>> getAll(@NonNull final Collection<String> ipAddresses,
+	                                                               @NonNull final Function<List<String>, Map<String, CompletableFuture<ValidationResult>>> lookup)
+	{
+		final var results = new LinkedHashMap<String, CompletableFuture<ValidationResult>>();
+		final var misses = new LinkedHashMap<String, CompletableFuture<ValidationResult>>();
+		for (final var ipAddress : ipAddresses)
+		{
+			if (results.containsKey(ipAddress))
+			{
+				continue;
+			}
+			var result = config.isEnabled() ? cache.getIfPresent(ipAddress) : null;
+			if (result == null)
+			{
+				final var pending = new CompletableFuture<ValidationResult>();
+				// Lost the race with another caller, so share their lookup instead
+				result = config.isEnabled() ? cache.asMap().putIfAbsent(ipAddress, pending) : null;
+				if (result == null)
+				{
+					misses.put(ipAddress, pending);
+					result = pending;
+				}
+			}
+			results.put(ipAddress, result);
+		}
+		if (!misses.isEmpty())
+		{
+			lookup(misses, lookup);
+		}
+		return results;
+	}
+
+	/**
+	 * Cache statistics: hit, miss and eviction counts.
+	 *
+	 * @return A snapshot of the cache statistics.
+	 */
+	public CacheStats stats()
+	{
+		return cache.synchronous().stats();
+	}
+
+	/**
+	 * Look up the given cache misses, completing each pending result with its own; a pending result must always be
+	 * completed, one way or another, as otherwise it would be in the cache (and never complete) for good.
+	 *
+	 * @param misses The pending result for each IP address missing from the cache.
+	 * @param lookup The function to validate the IP addresses.
+	 */
+	static void lookup(final Map<String, CompletableFuture<ValidationResult>> misses,
+	                           final Function<List<String>, Map<String, CompletableFuture<ValidationResult>>> lookup)
+	{
+		try
+		{
+			final var results = lookup.apply(List.copyOf(misses.keySet()));
+			misses.forEach((ipAddress, pending) ->
+			{
+				final var result = results.get(ipAddress);
+				if (result == null)
+				{
+					pending.completeExceptionally(new IllegalStateException("No validation result for " + ipAddress));
+					return;
+				}
+				result.whenComplete((value, error) ->
+				{
+					if (error != null)
+					{
+						pending.completeExceptionally(error);
+					}
+					else
+					{
+						pending.complete(value);
+					}
+				});
+			});
+		}
+		catch (final RuntimeException e)
+		{
+			misses.values().forEach(pending -> pending.completeExceptionally(e));
+			throw e;
+		}
+	}
+
+	/**
+	 * Expire entries based on their validation status; successful and blocked results are kept for their own TTL,
+	 * anything else (i.e. errors) is not cached at all.
+	 */
+	private record StatusExpiry(ValidationConfig.Cache config) implements Expiry<String, ValidationResult>
+	{
+		@Override
+		public long expireAfterCreate(final String ipAddress, final ValidationResult result, final long currentTime)
+		{
+			return switch (result.status())
+			{
+				case SUCCESS -> config.getSuccessTtl().toNanos();
+				case BLOCKED_IP, BLOCKED_ISP -> config.getBlockedTtl().toNanos();
+				default -> 0L;
+			};
+		}
+
+		@Override
+		public long expireAfterUpdate(final String ipAddress, final ValidationResult result, final long currentTime, final long currentDuration)
+		{
+			return expireAfterCreate(ipAddress, result, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(final String ipAddress, final ValidationResult result, final long currentTime, final long currentDuration)
+		{
+			return currentDuration;
+		}
+	}
+}
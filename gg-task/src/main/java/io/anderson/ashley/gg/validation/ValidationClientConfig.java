@@ -0,0 +1,94 @@
+package io.anderson.ashley.gg.validation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+public class ValidationClientConfig
+{
+	/**
+	 * The client used for all IP-API requests, so that connections are pooled and kept alive between requests.
+	 *
+	 * @param config The validation configuration.
+	 * @return A shared WebClient.
+	 */
+	@Bean
+	public WebClient ipApiWebClient(final ValidationConfig config)
+	{
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(ipApiHttpClient(config)))
+				.build();
+	}
+
+	/**
+	 * Circuit breaker for IP-API requests; opens when too many requests fail or are slow, so that further requests fail
+	 * fast rather than waiting on IP-API.
+	 *
+	 * @param config The validation configuration.
+	 * @return A circuit breaker.
+	 */
+	@Bean
+	public CircuitBreaker ipApiCircuitBreaker(final ValidationConfig config)
+	{
+		final var circuitBreaker = config.getCircuitBreaker();
+		return CircuitBreaker.of("ip-api", CircuitBreakerConfig.custom()
+				.slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+				.minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+				.failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+				.slowCallDurationThreshold(circuitBreaker.getSlowCallDuration())
+				.slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+				.waitDurationInOpenState(circuitBreaker.getWaitInOpenState())
+				.build());
+	}
+
+	/**
+	 * Rate limiter for IP-API batch requests, which IP-API limits separately to (and more tightly than) single lookups;
+	 * batches over the limit wait their turn, up to the configured maximum, rather than being rejected by IP-API.
+	 *
+	 * @param config The validation configuration.
+	 * @return A rate limiter.
+	 */
+	@Bean
+	public RateLimiter ipApiBatchRateLimiter(final ValidationConfig config)
+	{
+		final var batch = config.getBatch();
+		return RateLimiter.of("ip-api-batch", RateLimiterConfig.custom()
+				.limitForPeriod(batch.getRequestsPerMinute())
+				.limitRefreshPeriod(Duration.ofMinutes(1))
+				.timeoutDuration(batch.getMaxWait())
+				.build());
+	}
+
+	/**
+	 * Create the underlying HTTP client, with its own connection pool and timeouts.
+	 *
+	 * @param config The validation configuration.
+	 * @return A Reactor Netty HTTP client.
+	 */
+	public HttpClient ipApiHttpClient(final ValidationConfig config)
+	{
+		final var client = config.getClient();
+		final var connectionProvider = ConnectionProvider.builder("ip-api")
+				.maxConnections(client.getMaxConnections())
+				.pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+				.pendingAcquireTimeout(client.getPendingAcquireTimeout())
+				.maxIdleTime(client.getMaxIdleTime())
+				.evictInBackground(client.getMaxIdleTime())
+				.build();
+		return HttpClient.create(connectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+				.responseTimeout(client.getResponseTimeout())
+				.keepAlive(true);
+	}
+}
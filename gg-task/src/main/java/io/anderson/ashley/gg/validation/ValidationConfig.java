@@ -3,14 +3,82 @@ package io.anderson.ashley.gg.validation;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "validation")
 @Data
 public class ValidationConfig
 {
+	private String provider;
 	private String requestUrl;
 	private List<String> requestFields;
 	private List<String> blockedCountries;
 	private List<String> blockedProviders;
+	private Path blocklistFile;
+	private Duration blocklistReloadInterval;
+	private Cache cache = new Cache();
+	private Client client = new Client();
+	private CircuitBreaker circuitBreaker = new CircuitBreaker();
+	private Batch batch = new Batch();
+	private Offline offline = new Offline();
+
+	@Data
+	public static class Cache
+	{
+		private boolean enabled;
+		private long maximumSize;
+		private Duration successTtl;
+		private Duration blockedTtl;
+	}
+
+	@Data
+	public static class Client
+	{
+		private int maxConnections;
+		private int pendingAcquireMaxCount;
+		private Duration pendingAcquireTimeout;
+		private Duration maxIdleTime;
+		private Duration connectTimeout;
+		private Duration responseTimeout;
+	}
+
+	@Data
+	public static class CircuitBreaker
+	{
+		private int slidingWindowSize;
+		private int minimumNumberOfCalls;
+		private float failureRateThreshold;
+		private Duration slowCallDuration;
+		private float slowCallRateThreshold;
+		private Duration waitInOpenState;
+	}
+
+	@Data
+	public static class Batch
+	{
+		private boolean enabled;
+		private String requestUrl;
+		private int size;
+		private int maxAddresses;
+		private int requestsPerMinute;
+		private Duration maxWait;
+		private Collector collector = new Collector();
+	}
+
+	@Data
+	public static class Collector
+	{
+		private boolean enabled;
+		private int maxSize;
+		private Duration maxWait;
+	}
+
+	@Data
+	public static class Offline
+	{
+		private Path database;
+		private Duration reloadInterval;
+	}
 }
@@ -1,15 +1,38 @@
 package io.anderson.ashley.gg.validation;
 
+import com.google.common.collect.Lists;
+import io.anderson.ashley.gg.model.IpValidationResult;
 import io.anderson.ashley.gg.model.ValidationResult;
-import lombok.AllArgsConstructor;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
 import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_ISP;
@@ -17,10 +40,51 @@ import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
 import static io.anderson.ashley.gg.model.ValidationResult.Status.UNKNOWN_ERROR;
 
 @Service
-@AllArgsConstructor(onConstructor = @__(@Autowired))
+@ConditionalOnProperty(prefix = "validation", name = "provider", havingValue = "ip-api", matchIfMissing = true)
 public class ValidationService implements IValidationService
 {
 	private final ValidationConfig config;
+	private final Blocklist blocklist;
+	private final ValidationCache cache;
+	private final WebClient ipApiWebClient;
+	private final CircuitBreaker ipApiCircuitBreaker;
+	private final RateLimiter ipApiBatchRateLimiter;
+	private final Map<ValidationResult.Status, Timer> latency = new EnumMap<>(ValidationResult.Status.class);
+	private final DistributionSummary batchSize;
+	private final LookupCollector collector;
+
+	@Autowired
+	public ValidationService(final ValidationConfig config,
+	                         final Blocklist blocklist,
+	                         final ValidationCache cache,
+	                         final WebClient ipApiWebClient,
+	                         final CircuitBreaker ipApiCircuitBreaker,
+	                         final RateLimiter ipApiBatchRateLimiter,
+	                         final MeterRegistry registry)
+	{
+		this.config = config;
+		this.blocklist = blocklist;
+		this.cache = cache;
+		this.ipApiWebClient = ipApiWebClient;
+		this.ipApiCircuitBreaker = ipApiCircuitBreaker;
+		this.ipApiBatchRateLimiter = ipApiBatchRateLimiter;
+		for (final var status : ValidationResult.Status.values())
+		{
+			latency.put(status, Timer.builder("gg.validation.ip-api")
+					.description("IP-API lookups, including those failed by the circuit breaker; cache hits are not included")
+					.tag("status", status.name())
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+		this.batchSize = DistributionSummary.builder("gg.validation.ip-api.batch")
+				.description("IP addresses per IP-API batch request")
+				.baseUnit("addresses")
+				.register(registry);
+		final var collector = config.getBatch().getCollector();
+		this.collector = collector.isEnabled()
+				? new LookupCollector(collector.getMaxSize(), collector.getMaxWait(), this::lookupCollected)
+				: null;
+	}
 
 	/*
 	 * On a bigger project, with more in-depth IP address validation, this validation service could be moved to its own
@@ -28,27 +92,173 @@ public class ValidationService implements IValidationService
 	 */
 
 	/**
-	 * {@inheritDoc}.
+	 * {@inheritDoc}. With the collector enabled, concurrent cache misses are looked up together in batches.
 	 */
 	public CompletableFuture<ValidationResult> validateIpAddress(@NonNull final String ipAddress)
 	{
-		final var request = buildRequestUrl(ipAddress);
+		return cache.get(ipAddress, collector != null ? collector::submit : this::lookupIpAddress)
+				.thenApply(this::applyBlocklist);
+	}
+
+	/**
+	 * {@inheritDoc}. Cached results are emitted straight away; the rest are looked up in batches, each of which is
+	 * emitted as soon as it completes.
+	 */
+	public Flux<IpValidationResult> validateIpAddresses(@NonNull final Collection<String> ipAddresses)
+	{
+		return Flux.defer(() ->
+		{
+			final var results = cache.getAll(ipAddresses, this::lookupIpAddresses);
+			/*
+			 * The lookups are shared through the cache, so they must not be cancelled if this subscriber goes away; they
+			 * are all under way already, so merge them all at once to emit each in the order it completes.
+			 */
+			return Flux.fromIterable(results.entrySet())
+					.flatMap(result -> Mono.fromFuture(result.getValue(), true)
+							.map(value -> new IpValidationResult(result.getKey(), applyBlocklist(value))), Math.max(1, results.size()));
+		});
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		if (collector != null)
+		{
+			collector.close();
+		}
+	}
+
+	/**
+	 * Look up the given IP address with IP-API.
+	 *
+	 * @param ipAddress The IP address
+	 * @return Details of whether the validation was successful or not.
+	 */
+	private CompletableFuture<ValidationResult> lookupIpAddress(final String ipAddress)
+	{
+		final var request = buildRequestUri(ipAddress);
+		final var start = System.nanoTime();
 
 		/*
 		 * If expanded, it might be worth using something like Swagger to auto-generate the client code.
 		 */
-		return WebClient.create(request)
+		return ipApiWebClient
 				.get()
+				.uri(request)
 				.retrieve()
 				.bodyToMono(IpApiResponse.class)
-				.toFuture()
-				.thenApply(response ->
+				.transformDeferred(CircuitBreakerOperator.of(ipApiCircuitBreaker))
+				.map(response -> buildResult(request, response))
+				// IP-API is unavailable, slow, or the circuit is open
+				.onErrorReturn(new ValidationResult(request, UNKNOWN_ERROR, null, null))
+				.doOnNext(result -> latency.get(result.status()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+				.toFuture();
+	}
+
+	/**
+	 * Look up the given IP addresses with IP-API, in as few requests as IP-API allows. Batch requests are rate limited
+	 * client-side, waiting for a permit rather than overrunning IP-API's own limit; they are subscribed to straight
+	 * away, so that all batches are queued for a permit.
+	 *
+	 * @param ipAddresses The IP addresses.
+	 * @return Details of whether the validation of each IP address was successful or not.
+	 */
+	private Map<String, CompletableFuture<ValidationResult>> lookupIpAddresses(final List<String> ipAddresses)
+	{
+		final var results = new HashMap<String, CompletableFuture<ValidationResult>>();
+		for (final var batch : Lists.partition(ipAddresses, config.getBatch().getSize()))
+		{
+			final var lookup = lookupBatch(batch);
+			for (int i = 0; i < batch.size(); i++)
+			{
+				final var index = i;
+				results.put(batch.get(i), lookup.thenApply(batchResults -> batchResults.get(index)));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Look up the IP addresses collected from concurrent single lookups. They are only looked up as a batch if there is
+	 * more than one, and a batch request may be made straight away: the batch rate limit is far tighter than that for
+	 * single lookups, so it is better to fall back to those than for every caller to wait for the next permit.
+	 *
+	 * @param ipAddresses The IP addresses.
+	 * @return Details of whether the validation of each IP address was successful or not.
+	 */
+	private Map<String, CompletableFuture<ValidationResult>> lookupCollected(final List<String> ipAddresses)
+	{
+		// Another batch may take the last permit in the meantime, in which case this one waits for the next
+		if (ipAddresses.size() > 1 && ipApiBatchRateLimiter.getMetrics().getAvailablePermissions() > 0)
+		{
+			return lookupIpAddresses(ipAddresses);
+		}
+		return ipAddresses.stream().collect(Collectors.toMap(Function.identity(), this::lookupIpAddress));
+	}
+
+	/**
+	 * Look up a single batch of IP addresses with IP-API; the results are in the same order as the IP addresses.
+	 *
+	 * @param ipAddresses The IP addresses; no more than IP-API allows in one request.
+	 * @return Details of whether the validation of each IP address was successful or not.
+	 */
+	private CompletableFuture<List<ValidationResult>> lookupBatch(final List<String> ipAddresses)
+	{
+		final var request = buildBatchRequestUri();
+		final var failed = Collections.nCopies(ipAddresses.size(), new ValidationResult(request, UNKNOWN_ERROR, null, null));
+
+		return ipApiWebClient
+				.post()
+				.uri(request)
+				.bodyValue(ipAddresses)
+				.retrieve()
+				.bodyToFlux(IpApiResponse.class)
+				.collectList()
+				// Only once the request is actually made, past the rate limiter and circuit breaker
+				.doOnSubscribe(subscription -> batchSize.record(ipAddresses.size()))
+				.transformDeferred(CircuitBreakerOperator.of(ipApiCircuitBreaker))
+				// Outside the circuit breaker, so that time spent waiting for a permit is not counted as a slow call
+				.transformDeferred(RateLimiterOperator.of(ipApiBatchRateLimiter))
+				.map(responses ->
 				{
-					final var status = calculateStatus(response);
-					final var countryCode = response.getCountryCode();
-					final var isp = response.getIsp();
-					return new ValidationResult(URI.create(request), status, countryCode, isp);
-				});
+					// A short response is unexpected, but leaves the IP addresses without a response unvalidated
+					final List<ValidationResult> results = new ArrayList<>(failed);
+					for (int i = 0; i < Math.min(responses.size(), results.size()); i++)
+					{
+						results.set(i, buildResult(request, responses.get(i)));
+					}
+					return results;
+				})
+				// IP-API is unavailable, slow, the circuit is open or no permit was available in time
+				.onErrorReturn(failed)
+				.toFuture();
+	}
+
+	private ValidationResult buildResult(final URI request, final IpApiResponse response)
+	{
+		final var status = calculateStatus(response);
+		final var countryCode = response.getCountryCode();
+		final var isp = response.getIsp();
+		return new ValidationResult(request, status, countryCode, isp);
+	}
+
+	/**
+	 * Apply the current blocklist to a result, which may have been cached before the blocklist was last reloaded. Only
+	 * SUCCESS and BLOCKED results are cached, and which of those a result is depends on the blocklist alone.
+	 *
+	 * @param result The (possibly cached) validation result.
+	 * @return The validation result, as of the current blocklist.
+	 */
+	private ValidationResult applyBlocklist(final ValidationResult result)
+	{
+		if (result.status() == UNKNOWN_ERROR)
+		{
+			return result;
+		}
+		final var status = blocklist.isCountryBlocked(result.country())
+				? BLOCKED_IP
+				: blocklist.isIspBlocked(result.isp()) ? BLOCKED_ISP : SUCCESS;
+		return status == result.status() ? result : new ValidationResult(result.request(), status, result.country(), result.isp());
 	}
 
 	/**
@@ -57,13 +267,13 @@ public class ValidationService implements IValidationService
 	 * @param response The IP-API response.
 	 * @return A validation status.
 	 */
-	private ValidationResult.Status calculateStatus(final IpApiResponse response)
+	ValidationResult.Status calculateStatus(final IpApiResponse response)
 	{
-		if (isCountryBlocked(response.getCountryCode()))
+		if (blocklist.isCountryBlocked(response.getCountryCode()))
 		{
 			return BLOCKED_IP;
 		}
-		if (isIspBlocked(response.getIsp()))
+		if (blocklist.isIspBlocked(response.getIsp()))
 		{
 			return BLOCKED_ISP;
 		}
@@ -75,24 +285,6 @@ public class ValidationService implements IValidationService
 		return SUCCESS;
 	}
 
-	private boolean isCountryBlocked(final String countryCode)
-	{
-		if (countryCode == null)
-		{
-			return false;
-		}
-		return config.getBlockedCountries().contains(countryCode);
-	}
-
-	private boolean isIspBlocked(final String isp)
-	{
-		if (isp == null)
-		{
-			return false;
-		}
-		return config.getBlockedProviders().stream().anyMatch(isp::contains);
-	}
-
 	private boolean isPrivateIp(final String message)
 	{
 		if (message == null)
@@ -102,8 +294,20 @@ public class ValidationService implements IValidationService
 		return message.contains("private");
 	}
 
-	private String buildRequestUrl(final String ipAddress)
+	private URI buildRequestUri(final String ipAddress)
+	{
+		return UriComponentsBuilder.fromHttpUrl(config.getRequestUrl())
+				.pathSegment(ipAddress)
+				.query(StringUtils.join(config.getRequestFields(), ","))
+				.build()
+				.toUri();
+	}
+
+	private URI buildBatchRequestUri()
 	{
-		return String.format("%s/%s?%s", config.getRequestUrl(), ipAddress, StringUtils.join(config.getRequestFields(), ","));
+		return UriComponentsBuilder.fromHttpUrl(config.getBatch().getRequestUrl())
+				.queryParam("fields", StringUtils.join(config.getRequestFields(), ","))
+				.build()
+				.toUri();
 	}
 }
@@ -0,0 +1,228 @@
+package io.anderson.ashley.gg.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the convert endpoint, applied before anything is spent on a request: the IP-API lookup, the
+ * parse, or the log record of a successful conversion.
+ * <ul>
+ *     <li>Each client IP address has a token bucket of requests and one of uploaded bytes; a client over either rate is
+ *     refused with TOO_MANY_REQUESTS and a Retry-After of when it would be admitted.</li>
+ *     <li>The bytes of all conversions in flight are held within web.admission.in-flight-budget; once over it, further
+ *     requests are shed with SERVICE_UNAVAILABLE. A request larger than the whole budget is only admitted alone.</li>
+ * </ul>
+ * Bodies without a Content-Length are charged web.admission.unknown-length. Buckets which have refilled are swept away
+ * every web.admission.sweep-interval, so an idle client costs nothing.
+ */
+@Component
+public class AdmissionControl
+{
+	private static final Permit NONE = new Permit(null, 0);
+
+	private final WebConfig.Admission config;
+	private final LongSupplier nanoTime;
+	private final Map<String, Client> clients = new ConcurrentHashMap<>();
+	private final AtomicLong inFlight = new AtomicLong();
+	private final Map<Limit, Counter> rejected = new EnumMap<>(Limit.class);
+
+	@Autowired
+	public AdmissionControl(final WebConfig config, final MeterRegistry registry)
+	{
+		this(config, registry, System::nanoTime);
+	}
+
+	AdmissionControl(final WebConfig config, final MeterRegistry registry, final LongSupplier nanoTime)
+	{
+		this.config = config.getAdmission();
+		this.nanoTime = nanoTime;
+		for (final var limit : Limit.values())
+		{
+			rejected.put(limit, Counter.builder("gg.admission.rejected")
+					.description("Requests refused by admission control, by the limit they reached")
+					.tag("limit", limit.name().toLowerCase())
+					.register(registry));
+		}
+		Gauge.builder("gg.admission.in-flight", inFlight, AtomicLong::get)
+				.description("Bytes of the conversions in flight")
+				.baseUnit("bytes")
+				.register(registry);
+		Gauge.builder("gg.admission.clients", clients, Map::size)
+				.description("Clients with a token bucket which has not yet refilled")
+				.register(registry);
+	}
+
+	/**
+	 * Admit a request, or refuse it. A refused request costs the client nothing: tokens already taken from its buckets
+	 * are put back if a later limit refuses it.
+	 *
+	 * @param ipAddress     The client IP address.
+	 * @param contentLength The length of the request body, or -1 if it is not known.
+	 * @return The permit, to release once the request is finished with.
+	 * @throws Rejected Thrown if the request is refused.
+	 */
+	public Permit admit(@NonNull final String ipAddress, final long contentLength)
+	{
+		if (!config.isEnabled())
+		{
+			return NONE;
+		}
+		final var bytes = contentLength >= 0 ? contentLength : config.getUnknownLength().toBytes();
+		final var now = nanoTime.getAsLong();
+		final var client = clients.computeIfAbsent(ipAddress, key -> new Client(now));
+		final var requestWait = client.requests.tryTake(1, config.getRequestsPerSecond(), config.getRequestBurst(), now);
+		if (requestWait > 0)
+		{
+			throw reject(Limit.REQUESTS, HttpStatus.TOO_MANY_REQUESTS, requestWait);
+		}
+		final var bytesWait = client.bytes.tryTake(bytes, config.getBytesPerSecond().toBytes(), config.getBytesBurst().toBytes(), now);
+		if (bytesWait > 0)
+		{
+			client.requests.refund(1, config.getRequestsPerSecond(), config.getRequestBurst());
+			throw reject(Limit.BYTES, HttpStatus.TOO_MANY_REQUESTS, bytesWait);
+		}
+		final var budget = config.getInFlightBudget().toBytes();
+		while (true)
+		{
+			final var current = inFlight.get();
+			if (current > 0 && current + bytes > budget)
+			{
+				client.requests.refund(1, config.getRequestsPerSecond(), config.getRequestBurst());
+				client.bytes.refund(bytes, config.getBytesPerSecond().toBytes(), config.getBytesBurst().toBytes());
+				throw reject(Limit.CAPACITY, HttpStatus.SERVICE_UNAVAILABLE, config.getRetryAfter().toNanos());
+			}
+			if (inFlight.compareAndSet(current, current + bytes))
+			{
+				return new Permit(inFlight, bytes);
+			}
+		}
+	}
+
+	/**
+	 * Forget the clients whose buckets have refilled. A client admitted while its buckets are being swept away may be
+	 * given a fresh pair on its next request, which can only ever let it through sooner by one burst.
+	 */
+	@Scheduled(fixedDelayString = "${web.admission.sweep-interval}", initialDelayString = "${web.admission.sweep-interval}")
+	public void sweep()
+	{
+		final var now = nanoTime.getAsLong();
+		clients.values().removeIf(client -> client.requests.isFull(now) && client.bytes.isFull(now));
+	}
+
+	long getInFlight()
+	{
+		return inFlight.get();
+	}
+
+	int getClients()
+	{
+		return clients.size();
+	}
+
+	private Rejected reject(final Limit limit, final HttpStatus status, final long waitNanos)
+	{
+		rejected.get(limit).increment();
+		return new Rejected(status, limit, Duration.ofSeconds(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+	}
+
+	/**
+	 * The limits a request may be refused by.
+	 */
+	public enum Limit
+	{
+		/**
+		 * The client made too many requests.
+		 */
+		REQUESTS,
+		/**
+		 * The client uploaded too many bytes.
+		 */
+		BYTES,
+		/**
+		 * Too many bytes were already being converted.
+		 */
+		CAPACITY
+	}
+
+	private static class Client
+	{
+		private final TokenBucket requests;
+		private final TokenBucket bytes;
+
+		private Client(final long now)
+		{
+			this.requests = new TokenBucket(now);
+			this.bytes = new TokenBucket(now);
+		}
+	}
+
+	/**
+	 * An admitted request's share of the in-flight budget. Releasing it more than once has no further effect, so it can
+	 * be released from every path a request may finish by.
+	 */
+	public static class Permit
+	{
+		private final AtomicLong inFlight;
+		private final long bytes;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(final AtomicLong inFlight, final long bytes)
+		{
+			this.inFlight = inFlight;
+			this.bytes = bytes;
+		}
+
+		public void release()
+		{
+			if (bytes > 0 && !released.getAndSet(true))
+			{
+				inFlight.addAndGet(-bytes);
+			}
+		}
+	}
+
+	/**
+	 * A refused request, with a Retry-After header of when it might be admitted.
+	 */
+	@Getter
+	public static class Rejected extends ResponseStatusException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Limit limit;
+		private final Duration retryAfter;
+
+		Rejected(final HttpStatus status, final Limit limit, final Duration retryAfter)
+		{
+			super(status, "Request refused: " + limit.name().toLowerCase() + " limit reached.");
+			this.limit = limit;
+			this.retryAfter = retryAfter;
+		}
+
+		@Override
+		public HttpHeaders getHeaders()
+		{
+			final var headers = new HttpHeaders();
+			headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter.toSeconds()));
+			return headers;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package io.anderson.ashley.gg.web;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response compression, applied on the fly as the response is written. Compressed streams are flushed with the
+ * response, so streamed responses stay streamed.
+ */
+public enum ContentEncoding
+{
+	ZSTD("zstd")
+			{
+				@Override
+				protected OutputStream compress(final OutputStream outputStream) throws IOException
+				{
+					return new ZstdOutputStream(outputStream);
+				}
+
+				@Override
+				public InputStream decompress(final InputStream inputStream) throws IOException
+				{
+					return new ZstdInputStream(inputStream);
+				}
+			},
+	GZIP("gzip")
+			{
+				@Override
+				protected OutputStream compress(final OutputStream outputStream) throws IOException
+				{
+					return new GZIPOutputStream(outputStream, BUFFER_SIZE, true);
+				}
+
+				@Override
+				public InputStream decompress(final InputStream inputStream) throws IOException
+				{
+					return new GZIPInputStream(inputStream, BUFFER_SIZE);
+				}
+			},
+	IDENTITY("identity")
+			{
+				@Override
+				protected OutputStream compress(final OutputStream outputStream)
+				{
+					return outputStream;
+				}
+
+				@Override
+				public InputStream decompress(final InputStream inputStream)
+				{
+					return inputStream;
+				}
+			};
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final String token;
+
+	ContentEncoding(final String token)
+	{
+		this.token = token;
+	}
+
+	/**
+	 * Choose the encoding for a response: the first of the enabled encodings that the client accepts.
+	 *
+	 * @param acceptEncoding The Accept-Encoding request header; may be null.
+	 * @param enabled        The enabled encodings, in order of preference.
+	 * @return The chosen encoding, or IDENTITY if the client accepts none of them.
+	 */
+	public static ContentEncoding negotiate(final String acceptEncoding, final Collection<ContentEncoding> enabled)
+	{
+		if (acceptEncoding == null || enabled == null)
+		{
+			return IDENTITY;
+		}
+		return enabled.stream()
+				.filter(encoding -> encoding.isAccepted(acceptEncoding))
+				.findFirst()
+				.orElse(IDENTITY);
+	}
+
+	/**
+	 * Set the response headers for this encoding.
+	 *
+	 * @param response The HTTP response.
+	 */
+	public void apply(final HttpServletResponse response)
+	{
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (this != IDENTITY)
+		{
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, token);
+		}
+	}
+
+	/**
+	 * Wrap the response body in this encoding. Closing the returned stream finishes the encoding, but leaves the
+	 * response body open.
+	 *
+	 * @param outputStream The response body.
+	 * @return The stream to write the response to.
+	 * @throws IOException Thrown if the encoder cannot be created.
+	 */
+	public OutputStream wrap(final OutputStream outputStream) throws IOException
+	{
+		return compress(CloseShieldOutputStream.wrap(outputStream));
+	}
+
+	/**
+	 * Decode a body written in this encoding, such as a stored result for a client which does not accept it.
+	 *
+	 * @param inputStream The encoded body.
+	 * @return The decoded body; closing it closes the encoded body.
+	 * @throws IOException Thrown if the decoder cannot be created.
+	 */
+	public abstract InputStream decompress(InputStream inputStream) throws IOException;
+
+	protected abstract OutputStream compress(OutputStream outputStream) throws IOException;
+
+	/**
+	 * Check an Accept-Encoding header for this encoding with a non-zero quality; a wildcard counts only if this encoding
+	 * is not listed itself. If either is listed more than once, its lowest quality counts, so a q=0 is always honoured.
+	 */
+	private boolean isAccepted(final String acceptEncoding)
+	{
+		var listed = -1.0;
+		var wildcard = -1.0;
+		for (final var value : acceptEncoding.split(","))
+		{
+			final var parameters = value.split(";");
+			final var coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+			if (coding.equals(token))
+			{
+				listed = lowest(listed, quality(parameters));
+			}
+			else if (coding.equals("*"))
+			{
+				wildcard = lowest(wildcard, quality(parameters));
+			}
+		}
+		return (listed >= 0 ? listed : wildcard) > 0;
+	}
+
+	private static double lowest(final double current, final double quality)
+	{
+		return current >= 0 ? Math.min(current, quality) : quality;
+	}
+
+	private static double quality(final String[] parameters)
+	{
+		var quality = 1.0;
+		for (int i = 1; i < parameters.length; i++)
+		{
+			final var parameter = parameters[i].trim();
+			if (parameter.startsWith("q="))
+			{
+				try
+				{
+					quality = Double.parseDouble(parameter.substring(2));
+				}
+				catch (final NumberFormatException e)
+				{
+					quality = 0;
+				}
+			}
+		}
+		return quality;
+	}
+}
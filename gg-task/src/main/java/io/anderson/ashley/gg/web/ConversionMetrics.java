@@ -0,0 +1,349 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Timers and histograms for the stages of the convert pipeline. Parsing, conversion and serialisation are interleaved
+ * row by row as the streams are consumed, so rather than time every row, which would cost more than some of the stages
+ * themselves, one in every web.metrics-sample-rate rows is timed through each stage:
+ * <ul>
+ *     <li>gg.convert.row, stage=parse: producing the Entries for the row, including any wait for the body;</li>
+ *     <li>gg.convert.row, stage=convert: filtering, projecting or converting them in to the row;</li>
+ *     <li>gg.convert.row, stage=serialise or aggregate: everything done with the row before the next is asked for.</li>
+ * </ul>
+ * Reading the body is done a buffer at a time, so gg.convert.read records the whole time each request spent waiting on
+ * it, and gg.convert.rows the number of rows each request produced (for aggregates, the number of Entries aggregated).
+ */
+@Component
+public class ConversionMetrics
+{
+	private static final String ROW_TIMER = "gg.convert.row";
+	private static final String STAGE_TAG = "stage";
+
+	private final int sampleRate;
+	private final Timer read;
+	private final DistributionSummary rows;
+	private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+
+	@Autowired
+	public ConversionMetrics(final WebConfig config, final MeterRegistry registry)
+	{
+		this.sampleRate = config.getMetricsSampleRate();
+		this.read = Timer.builder("gg.convert.read")
+				.description("Time each request spent waiting to read its body")
+				.publishPercentileHistogram()
+				.register(registry);
+		this.rows = DistributionSummary.builder("gg.convert.rows")
+				.description("Rows produced by each request")
+				.publishPercentileHistogram()
+				.register(registry);
+		for (final var stage : Stage.values())
+		{
+			stages.put(stage, Timer.builder(ROW_TIMER)
+					.description("Time spent on a sample of rows, by stage")
+					.tag(STAGE_TAG, stage.name().toLowerCase())
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+	}
+
+	/**
+	 * Time the reads of a request body; the total is recorded once the Reader is closed.
+	 *
+	 * @param reader The request body.
+	 * @return The timed Reader.
+	 */
+	public Reader read(final Reader reader)
+	{
+		return new TimedReader(reader);
+	}
+
+	/**
+	 * Time the parse and convert stages of a sample of rows. The conversion is applied to the Entries of each chunk in
+	 * the parallel converter, so this works the same whichever thread it runs on.
+	 *
+	 * @param conversion The conversion of the Entries.
+	 * @param <T>        The type of the results.
+	 * @return The timed conversion.
+	 */
+	public <T> Function<Stream<Entry>, Stream<T>> convert(final Function<Stream<Entry>, Stream<T>> conversion)
+	{
+		if (sampleRate <= 0)
+		{
+			return conversion;
+		}
+		return entries ->
+		{
+			final var sample = new Sample();
+			final var timed = conversion.apply(wrap(entries, new ParseSpliterator<>(entries.spliterator(), sample)));
+			return wrap(timed, new ConvertSpliterator<>(timed.spliterator(), sample));
+		};
+	}
+
+	/**
+	 * Count the rows of a response, and time what is done with a sample of them.
+	 *
+	 * @param rows  The rows.
+	 * @param stage What the rows are consumed by: {@link Stage#SERIALISE} or {@link Stage#AGGREGATE}.
+	 * @param <T>   The type of the rows.
+	 * @return The counted rows; the count is recorded once the stream is closed.
+	 */
+	public <T> Stream<T> output(final Stream<T> rows, final Stage stage)
+	{
+		final var output = new OutputSpliterator<>(rows.spliterator(), stages.get(stage));
+		return wrap(rows, output).onClose(() -> this.rows.record(output.count));
+	}
+
+	/**
+	 * Record the number of rows in a response which was not produced by a Stream.
+	 *
+	 * @param count The number of rows.
+	 */
+	public void rows(final long count)
+	{
+		rows.record(count);
+	}
+
+	private static <T> Stream<T> wrap(final Stream<T> stream, final Spliterator<T> spliterator)
+	{
+		return StreamSupport.stream(spliterator, false).onClose(stream::close);
+	}
+
+	/**
+	 * The stages rows are timed through.
+	 */
+	public enum Stage
+	{
+		PARSE,
+		CONVERT,
+		SERIALISE,
+		AGGREGATE
+	}
+
+	private class TimedReader extends FilterReader
+	{
+		private long nanos;
+		private boolean closed;
+
+		TimedReader(final Reader reader)
+		{
+			super(reader);
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			final var start = System.nanoTime();
+			try
+			{
+				return super.read();
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int length) throws IOException
+		{
+			final var start = System.nanoTime();
+			try
+			{
+				return super.read(buffer, offset, length);
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			if (!closed)
+			{
+				closed = true;
+				read.record(nanos, TimeUnit.NANOSECONDS);
+			}
+			super.close();
+		}
+	}
+
+	/**
+	 * Base for the timing spliterators: a sequential, non-splitting view of another spliterator.
+	 */
+	private abstract static class TimedSpliterator<T> implements Spliterator<T>
+	{
+		final Spliterator<T> spliterator;
+
+		TimedSpliterator(final Spliterator<T> spliterator)
+		{
+			this.spliterator = spliterator;
+		}
+
+		@Override
+		public Spliterator<T> trySplit()
+		{
+			return null;
+		}
+
+		@Override
+		public long estimateSize()
+		{
+			return spliterator.estimateSize();
+		}
+
+		@Override
+		public int characteristics()
+		{
+			return spliterator.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+		}
+
+		@Override
+		public Comparator<? super T> getComparator()
+		{
+			return spliterator.getComparator();
+		}
+	}
+
+	/**
+	 * Shared by the spliterators of one conversion, which always run on the same thread.
+	 */
+	private static class Sample
+	{
+		private boolean sampling;
+		private long parse;
+	}
+
+	/**
+	 * Adds up the time taken to produce each Entry while a row is being sampled; a filter may need several Entries
+	 * for one row.
+	 */
+	private static class ParseSpliterator<T> extends TimedSpliterator<T>
+	{
+		private final Sample sample;
+
+		ParseSpliterator(final Spliterator<T> spliterator, final Sample sample)
+		{
+			super(spliterator);
+			this.sample = sample;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action)
+		{
+			if (!sample.sampling)
+			{
+				return spliterator.tryAdvance(action);
+			}
+			final var start = System.nanoTime();
+			return spliterator.tryAdvance(entry ->
+			{
+				sample.parse += System.nanoTime() - start;
+				action.accept(entry);
+			});
+		}
+	}
+
+	/**
+	 * Times producing one in every sample-rate rows, less the time spent producing its Entries.
+	 */
+	private class ConvertSpliterator<T> extends TimedSpliterator<T>
+	{
+		private final Sample sample;
+		private long count;
+
+		ConvertSpliterator(final Spliterator<T> spliterator, final Sample sample)
+		{
+			super(spliterator);
+			this.sample = sample;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action)
+		{
+			if (++count % sampleRate != 0)
+			{
+				return spliterator.tryAdvance(action);
+			}
+			sample.sampling = true;
+			sample.parse = 0;
+			final var start = System.nanoTime();
+			try
+			{
+				return spliterator.tryAdvance(row ->
+				{
+					final var produced = System.nanoTime();
+					sample.sampling = false;
+					stages.get(Stage.PARSE).record(sample.parse, TimeUnit.NANOSECONDS);
+					stages.get(Stage.CONVERT).record(produced - start - sample.parse, TimeUnit.NANOSECONDS);
+					action.accept(row);
+				});
+			}
+			finally
+			{
+				sample.sampling = false;
+			}
+		}
+	}
+
+	/**
+	 * Counts every row, and times from handing over one in every sample-rate rows until the next row is asked for;
+	 * whether the rows are consumed by an iterator or a forEach, that is what was done with the row.
+	 */
+	private class OutputSpliterator<T> extends TimedSpliterator<T>
+	{
+		private final Timer timer;
+		private long count;
+		private long delivered = -1;
+
+		OutputSpliterator(final Spliterator<T> spliterator, final Timer timer)
+		{
+			super(spliterator);
+			this.timer = timer;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action)
+		{
+			if (delivered >= 0)
+			{
+				timer.record(System.nanoTime() - delivered, TimeUnit.NANOSECONDS);
+				delivered = -1;
+			}
+			if (sampleRate <= 0 || (count + 1) % sampleRate != 0)
+			{
+				return spliterator.tryAdvance(row ->
+				{
+					count++;
+					action.accept(row);
+				});
+			}
+			return spliterator.tryAdvance(row ->
+			{
+				count++;
+				delivered = System.nanoTime();
+				action.accept(row);
+			});
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.job.JobService;
+import io.anderson.ashley.gg.job.JobStatus;
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.validation.IValidationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Background conversion of EntryFiles; see {@link JobService}.
+ * <ul>
+ *     <li>POST /jobs submits an EntryFile, subject to the same IP validation as the convert endpoint, and returns as
+ *     soon as it has been saved.</li>
+ *     <li>GET /jobs/{id} returns the job's status, row count and throughput.</li>
+ *     <li>GET /jobs/{id}/result returns the Outcomes as a JSON array once the job has succeeded; byte ranges of the
+ *     stored, compressed, result may be requested to resume a download.</li>
+ *     <li>DELETE /jobs/{id} removes a job which is not running.</li>
+ * </ul>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping(JobController.JOBS)
+public class JobController
+{
+	static final String JOBS = "/jobs";
+
+	private final WebConfig config;
+	private final JobService jobService;
+	private final IValidationService validationService;
+	private final ILogService logService;
+	private final AsyncTaskExecutor applicationTaskExecutor;
+
+	/**
+	 * Submit an EntryFile for conversion.
+	 *
+	 * @param httpRequest The HTTP request, whose body is the EntryFile.
+	 * @return The queued job, with its location.
+	 */
+	@PostMapping
+	public CompletableFuture<ResponseEntity<JobStatus>> submit(final HttpServletRequest httpRequest)
+	{
+		final var start = Instant.now();
+
+		final var requestUri = URI.create(httpRequest.getRequestURI());
+		final var ipAddress = httpRequest.getRemoteAddr();
+
+		final CompletableFuture<ValidationResult> validation = config.isIpValidationEnabled()
+				? validationService.validateIpAddress(ipAddress)
+				: CompletableFuture.completedFuture(null);
+		return validation.thenApplyAsync(result ->
+		{
+			final Consumer<HttpStatus> log = status -> logService.logRequest(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, result, status.value()));
+			final var status = result != null ? result.status() : ValidationResult.Status.SUCCESS;
+			switch (status)
+			{
+				case SUCCESS:
+					try
+					{
+						final var job = jobService.submit(httpRequest.getInputStream(), ipAddress);
+						log.accept(HttpStatus.ACCEPTED);
+						return ResponseEntity.accepted().location(URI.create(JOBS + "/" + job.id())).body(job);
+					}
+					catch (final ResponseStatusException e)
+					{
+						log.accept(HttpStatus.valueOf(e.getStatusCode().value()));
+						throw e;
+					}
+					catch (final IOException e)
+					{
+						log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+						throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error saving EntryFile", e);
+					}
+
+				case BLOCKED_IP:
+					log.accept(HttpStatus.FORBIDDEN);
+					throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on country.");
+
+				case BLOCKED_ISP:
+					log.accept(HttpStatus.FORBIDDEN);
+					throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on ISP.");
+
+				default:
+					log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+			}
+		}, applicationTaskExecutor);
+	}
+
+	@GetMapping("/{id}")
+	public JobStatus status(@PathVariable final UUID id)
+	{
+		return jobService.status(id);
+	}
+
+	/**
+	 * Fetch a job's result. A client which accepts the encoding it is stored in is sent the stored file as it is, and
+	 * may ask for byte ranges of it; anyone else is sent the whole result, decoded on the fly.
+	 *
+	 * @param id           The job's ID.
+	 * @param httpRequest  The HTTP request.
+	 * @param httpResponse The HTTP response.
+	 * @return The Outcomes, as a JSON array.
+	 * @throws IOException Thrown if the result cannot be read.
+	 */
+	@GetMapping("/{id}/result")
+	public ResponseEntity<Resource> result(@PathVariable final UUID id,
+	                                       final HttpServletRequest httpRequest,
+	                                       final HttpServletResponse httpResponse) throws IOException
+	{
+		final var result = jobService.result(id);
+		final var encoding = ContentEncoding.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), List.of(result.encoding()));
+		encoding.apply(httpResponse);
+		final var response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		if (encoding == result.encoding())
+		{
+			return response.body(new FileSystemResource(result.path()));
+		}
+		return response.body(new InputStreamResource(result.encoding().decompress(Files.newInputStream(result.path()))));
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<Void> delete(@PathVariable final UUID id) throws IOException
+	{
+		jobService.delete(id);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -0,0 +1,64 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.log.LogConfig;
+import io.anderson.ashley.gg.log.LogCursor;
+import io.anderson.ashley.gg.log.LogPage;
+import io.anderson.ashley.gg.log.LogQuery;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+/**
+ * Query the request logs. The logs hold client IP addresses, so the endpoint is only enabled with log.query.enabled.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "log.query", name = "enabled", havingValue = "true")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping(LogController.LOGS)
+public class LogController
+{
+	static final String LOGS = "/logs";
+
+	private final LogConfig config;
+	private final ILogService logService;
+
+	/**
+	 * Find request logs, newest first. Each page but the last comes with a cursor, to pass as after for the next.
+	 *
+	 * @param from    Only records at or after this time (ISO-8601).
+	 * @param to      Only records before this time (ISO-8601).
+	 * @param ip      Only records from this IP address.
+	 * @param status  Only records with this HTTP status.
+	 * @param country Only records from this country.
+	 * @param limit   The most records to return; capped at log.query.max-limit.
+	 * @param after   The cursor of the previous page.
+	 * @return A page of request logs.
+	 */
+	@GetMapping
+	public LogPage find(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+	                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to,
+	                    @RequestParam(required = false) final String ip,
+	                    @RequestParam(required = false) final Integer status,
+	                    @RequestParam(required = false) final String country,
+	                    @RequestParam(required = false) final Integer limit,
+	                    @RequestParam(required = false) final String after)
+	{
+		return logService.findLogs(new LogQuery(from,
+				to,
+				ip,
+				status,
+				country,
+				limit != null ? limit : config.getQuery().getDefaultLimit(),
+				after != null ? LogCursor.parse(after) : null));
+	}
+}
@@ -0,0 +1,81 @@
+package io.anderson.ashley.gg.web;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * The representations the convert endpoint can write Outcomes in, chosen by the Accept header.
+ */
+public enum OutcomeFormat
+{
+	JSON(MediaType.APPLICATION_JSON, false),
+	NDJSON(MediaType.APPLICATION_NDJSON, true),
+	SMILE(new MediaType("application", "x-jackson-smile"), true),
+	CBOR(MediaType.APPLICATION_CBOR, true),
+	PROTOBUF(MediaType.APPLICATION_PROTOBUF, true);
+
+	private final MediaType mediaType;
+	private final boolean streamed;
+
+	OutcomeFormat(final MediaType mediaType, final boolean streamed)
+	{
+		this.mediaType = mediaType;
+		this.streamed = streamed;
+	}
+
+	/**
+	 * Choose the format for a response: the client's most preferred format, or a JSON array if it has no preference. A
+	 * malformed Accept header is taken as no preference, rather than failing the request.
+	 *
+	 * @param accept The Accept request header; may be null.
+	 * @return The chosen format.
+	 */
+	public static OutcomeFormat negotiate(final String accept)
+	{
+		if (accept == null)
+		{
+			return JSON;
+		}
+		final List<MediaType> mediaTypes;
+		try
+		{
+			mediaTypes = MediaType.parseMediaTypes(accept);
+		}
+		catch (final InvalidMediaTypeException e)
+		{
+			return JSON;
+		}
+		MimeTypeUtils.sortBySpecificity(mediaTypes);
+		for (final var mediaType : mediaTypes)
+		{
+			if (mediaType.getQualityValue() == 0)
+			{
+				continue;
+			}
+			for (final var format : values())
+			{
+				if (mediaType.includes(format.mediaType))
+				{
+					return format;
+				}
+			}
+		}
+		return JSON;
+	}
+
+	public MediaType getMediaType()
+	{
+		return mediaType;
+	}
+
+	/**
+	 * Whether responses in this format are always streamed, rather than only when web.streaming-enabled is set.
+	 */
+	public boolean isStreamed()
+	{
+		return streamed;
+	}
+}
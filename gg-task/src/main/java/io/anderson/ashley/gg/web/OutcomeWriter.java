@@ -0,0 +1,153 @@
+package io.anderson.ashley.gg.web;
+
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedOutputStream;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.model.Outcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Write a stream of Outcomes to a response body, in any of the OutcomeFormats, as they are produced. The Jackson based
+ * formats can also write anything else Jackson can serialise, such as query Projections; Protobuf is only defined for
+ * Outcomes.
+ */
+@Component
+public class OutcomeWriter
+{
+	private static final String NDJSON_SEPARATOR = "\n";
+
+	/*
+	 * Field numbers from proto/outcome.proto; Outcomes are encoded directly rather than through generated message
+	 * classes, so nothing is allocated per row beyond the Outcome itself.
+	 */
+	private static final int PROTOBUF_NAME = 1;
+	private static final int PROTOBUF_TRANSPORT = 2;
+	private static final int PROTOBUF_TOP_SPEED_UNSCALED = 3;
+	private static final int PROTOBUF_TOP_SPEED_SCALE = 4;
+
+	private final ObjectMapper jsonMapper;
+	private final ObjectMapper smileMapper;
+	private final ObjectMapper cborMapper;
+
+	@Autowired
+	public OutcomeWriter(final ObjectMapper objectMapper)
+	{
+		jsonMapper = objectMapper;
+		smileMapper = objectMapper.copyWith(new SmileFactory());
+		cborMapper = objectMapper.copyWith(new CBORFactory());
+	}
+
+	/**
+	 * Write each Outcome to the output stream as it is produced.
+	 *
+	 * @param format       The format to write.
+	 * @param outcomes     The stream of Outcome objects, or for any format but Protobuf, any other values.
+	 * @param outputStream The response body; left open.
+	 * @throws IOException Thrown if the response cannot be written.
+	 */
+	public void write(final OutcomeFormat format, final Stream<?> outcomes, final OutputStream outputStream) throws IOException
+	{
+		switch (format)
+		{
+			case JSON -> writeArray(jsonMapper, outcomes, outputStream);
+			case NDJSON -> writeLines(outcomes, outputStream);
+			/*
+			 * Both binary encodings write topSpeed as its unscaled value and scale: CBOR as a decimal fraction (tag 4)
+			 * of two integers, Smile as a scale and the unscaled value's bytes.
+			 */
+			case SMILE -> writeArray(smileMapper, outcomes, outputStream);
+			case CBOR -> writeArray(cborMapper, outcomes, outputStream);
+			case PROTOBUF -> writeProtobuf(outcomes, outputStream);
+		}
+	}
+
+	private static void writeArray(final ObjectMapper mapper, final Stream<?> outcomes, final OutputStream outputStream) throws IOException
+	{
+		final var writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		try (final var generator = mapper.getFactory().createGenerator(outputStream))
+		{
+			generator.writeStartArray();
+			for (final var iterator = outcomes.iterator(); iterator.hasNext(); )
+			{
+				writer.writeValue(generator, iterator.next());
+			}
+			generator.writeEndArray();
+		}
+	}
+
+	private void writeLines(final Stream<?> outcomes, final OutputStream outputStream) throws IOException
+	{
+		final var writer = jsonMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		try (final var generator = jsonMapper.getFactory().createGenerator(outputStream))
+		{
+			generator.setPrettyPrinter(new MinimalPrettyPrinter(NDJSON_SEPARATOR));
+			var empty = true;
+			for (final var iterator = outcomes.iterator(); iterator.hasNext(); empty = false)
+			{
+				writer.writeValue(generator, iterator.next());
+			}
+			if (!empty)
+			{
+				generator.writeRaw(NDJSON_SEPARATOR);
+			}
+		}
+	}
+
+	/**
+	 * Write each Outcome as a length delimited message, as MessageLite.writeDelimitedTo would. An unscaled topSpeed
+	 * too large for a long cannot be represented, and fails the response.
+	 */
+	private static void writeProtobuf(final Stream<?> outcomes, final OutputStream outputStream) throws IOException
+	{
+		final var coded = CodedOutputStream.newInstance(outputStream);
+		for (final var iterator = outcomes.iterator(); iterator.hasNext(); )
+		{
+			final var outcome = (Outcome) iterator.next();
+			final var fixedPoint = outcome.topSpeedTenths() != FixedPoint.NONE;
+			final var topSpeed = outcome.topSpeedValue();
+			final var present = fixedPoint || topSpeed != null;
+			final var unscaled = fixedPoint ? outcome.topSpeedTenths() : topSpeed != null ? topSpeed.unscaledValue().longValueExact() : 0;
+			final var scale = fixedPoint ? FixedPoint.SCALE : topSpeed != null ? topSpeed.scale() : 0;
+
+			var size = 0;
+			if (outcome.name() != null)
+			{
+				size += CodedOutputStream.computeStringSize(PROTOBUF_NAME, outcome.name());
+			}
+			if (outcome.transport() != null)
+			{
+				size += CodedOutputStream.computeStringSize(PROTOBUF_TRANSPORT, outcome.transport());
+			}
+			if (present)
+			{
+				size += CodedOutputStream.computeSInt64Size(PROTOBUF_TOP_SPEED_UNSCALED, unscaled);
+				size += CodedOutputStream.computeSInt32Size(PROTOBUF_TOP_SPEED_SCALE, scale);
+			}
+
+			coded.writeUInt32NoTag(size);
+			if (outcome.name() != null)
+			{
+				coded.writeString(PROTOBUF_NAME, outcome.name());
+			}
+			if (outcome.transport() != null)
+			{
+				coded.writeString(PROTOBUF_TRANSPORT, outcome.transport());
+			}
+			if (present)
+			{
+				coded.writeSInt64(PROTOBUF_TOP_SPEED_UNSCALED, unscaled);
+				coded.writeSInt32(PROTOBUF_TOP_SPEED_SCALE, scale);
+			}
+		}
+		coded.flush();
+	}
+}
@@ -0,0 +1,174 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.convert.DataBufferEntryParser;
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.query.Query;
+import io.anderson.ashley.gg.validation.IValidationService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The convert endpoint on WebFlux, used when spring.main.web-application-type is reactive. The body is parsed as it
+ * arrives and each Outcome is written as soon as it is converted, as a JSON array or, if asked for, as NDJSON; nothing
+ * blocks, so a few event loop threads can serve many concurrent uploads. The same query parameters as the servlet
+ * endpoint choose fields, filter Entries or aggregate them.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping("/")
+public class ReactiveWebController
+{
+	private static final String FIELDS_PARAMETER = "fields";
+	private static final String FILTER_PARAMETER = "filter";
+	private static final String AGGREGATE_PARAMETER = "aggregate";
+	private static final String GROUP_BY_PARAMETER = "groupBy";
+
+	private final WebConfig config;
+	private final DataBufferEntryParser parser;
+	private final IValidationService validationService;
+	private final ILogService logService;
+	private final ConversionMetrics metrics;
+	private final AdmissionControl admission;
+
+	/**
+	 * Convert a CSV (in this case | [pipe]) document to JSON.
+	 * CSV fields: UUID, ID, Name, Likes, Transport, Avg Speed, Top Speed
+	 * JSON fields: Name, Transport, Top Speed
+	 * The fields, filter, aggregate and groupBy query parameters choose other fields, filter the Entries, or return
+	 * aggregates of them instead; see {@link Query}. Requests are first subject to {@link AdmissionControl}, and hold
+	 * their permit until the response is finished.
+	 *
+	 * @param request The HTTP request.
+	 * @return The Outcomes, written as they are produced.
+	 */
+	@PostMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<Object> convert(final ServerHttpRequest request)
+	{
+		final var start = Instant.now();
+
+		final var requestUri = URI.create(request.getURI().getRawPath());
+		final var ipAddress = request.getRemoteAddress() != null ? request.getRemoteAddress().getAddress().getHostAddress() : "";
+
+		final AdmissionControl.Permit permit;
+		try
+		{
+			permit = admission.admit(ipAddress, request.getHeaders().getContentLength());
+		}
+		catch (final AdmissionControl.Rejected e)
+		{
+			log(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, null, e.getStatusCode().value()));
+			return Flux.error(e);
+		}
+
+		final Query query;
+		try
+		{
+			final var parameters = request.getQueryParams();
+			query = Query.parse(toArray(parameters.get(FIELDS_PARAMETER)),
+					toArray(parameters.get(FILTER_PARAMETER)),
+					parameters.getFirst(AGGREGATE_PARAMETER),
+					parameters.getFirst(GROUP_BY_PARAMETER));
+		}
+		catch (final ResponseStatusException e)
+		{
+			permit.release();
+			log(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, null, e.getStatusCode().value()));
+			return Flux.error(e);
+		}
+
+		final Mono<Optional<ValidationResult>> validation = config.isIpValidationEnabled()
+				? Mono.fromFuture(() -> validationService.validateIpAddress(ipAddress), true).map(Optional::of)
+				: Mono.just(Optional.empty());
+
+		return validation.flatMapMany(result ->
+		{
+			final Consumer<HttpStatus> log = status -> log(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, result.orElse(null), status.value()));
+			final var status = result.map(ValidationResult::status).orElse(ValidationResult.Status.SUCCESS);
+			switch (status)
+			{
+				case SUCCESS:
+					final var count = new AtomicLong();
+					return rows(parser.parse(request.getBody(), query.materialise()).filter(query::test).doOnNext(entry -> count.incrementAndGet()), query)
+							.doOnComplete(() ->
+							{
+								metrics.rows(count.get());
+								log.accept(HttpStatus.OK);
+							})
+							.doOnError(e -> log.accept(e instanceof ResponseStatusException rse
+									? HttpStatus.valueOf(rse.getStatusCode().value())
+									: HttpStatus.INTERNAL_SERVER_ERROR))
+							.doOnCancel(() -> log.accept(HttpStatus.INTERNAL_SERVER_ERROR));
+
+				case BLOCKED_IP:
+					log.accept(HttpStatus.FORBIDDEN);
+					return Flux.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on country."));
+
+				case BLOCKED_ISP:
+					log.accept(HttpStatus.FORBIDDEN);
+					return Flux.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on ISP."));
+
+				default:
+					log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+					return Flux.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR));
+			}
+		}).doFinally(signal -> permit.release());
+	}
+
+	/**
+	 * The chosen fields of each Entry or, once every Entry has been added to it, the aggregates.
+	 *
+	 * @param entries The filtered Entries.
+	 * @param query   The query.
+	 * @return The rows to return.
+	 */
+	private static Flux<Object> rows(final Flux<Entry> entries, final Query query)
+	{
+		if (!query.isAggregate())
+		{
+			return entries.map(query::row);
+		}
+		return Flux.defer(() ->
+		{
+			final var aggregation = query.aggregation();
+			return entries.doOnNext(aggregation)
+					.thenMany(Flux.defer(() -> Flux.fromIterable(aggregation.results())));
+		});
+	}
+
+	private static String[] toArray(final List<String> values)
+	{
+		return values != null ? values.toArray(String[]::new) : null;
+	}
+
+	/**
+	 * Log the request off the event loop, as without write-behind logging writes to the database directly.
+	 *
+	 * @param logRequest The request to log.
+	 */
+	private void log(final LogRequest logRequest)
+	{
+		Schedulers.boundedElastic().schedule(() -> logService.logRequest(logRequest));
+	}
+}
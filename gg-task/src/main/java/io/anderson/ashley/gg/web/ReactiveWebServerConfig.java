@@ -0,0 +1,23 @@
+package io.anderson.ashley.gg.web;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebServerConfig
+{
+	/**
+	 * Serve the reactive endpoint with Reactor Netty. Tomcat is on the classpath for the servlet endpoint, and would
+	 * otherwise be preferred.
+	 *
+	 * @return The Netty server factory.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory()
+	{
+		return new NettyReactiveWebServerFactory();
+	}
+}
@@ -0,0 +1,197 @@
+package io.anderson.ashley.gg.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A buffered response body, held on the heap up to a memory budget. Beyond the budget it spills to a temporary file,
+ * written a block at a time with positional writes so it costs no more heap than one block however large it grows, and
+ * is sent with {@link FileChannel#transferTo}. The file is deleted when the buffer is closed.
+ */
+public class SpillBuffer extends OutputStream
+{
+	private static final int INITIAL_SIZE = 8192;
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	private final long budget;
+	private final int blockSize;
+	private byte[] heap;
+	private int heapLength;
+	private Path file;
+	private FileChannel channel;
+	private ByteBuffer block;
+	private long written;
+	private long size;
+
+	/**
+	 * @param budget The most bytes to hold on the heap.
+	 */
+	public SpillBuffer(final long budget)
+	{
+		this(budget, BLOCK_SIZE);
+	}
+
+	SpillBuffer(final long budget, final int blockSize)
+	{
+		this.budget = Math.min(budget, Integer.MAX_VALUE - 8);
+		this.blockSize = blockSize;
+		this.heap = new byte[(int) Math.min(this.budget, INITIAL_SIZE)];
+	}
+
+	@Override
+	public void write(final int b) throws IOException
+	{
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException
+	{
+		if (channel == null)
+		{
+			if (heapLength + (long) len <= budget)
+			{
+				if (heapLength + len > heap.length)
+				{
+					heap = Arrays.copyOf(heap, (int) Math.min(budget, Math.max(heap.length * 2L, heapLength + len)));
+				}
+				System.arraycopy(b, off, heap, heapLength, len);
+				heapLength += len;
+				size += len;
+				return;
+			}
+			spill();
+		}
+		var offset = off;
+		var remaining = len;
+		while (remaining > 0)
+		{
+			if (!block.hasRemaining())
+			{
+				flush();
+			}
+			final var count = Math.min(remaining, block.remaining());
+			block.put(b, offset, count);
+			offset += count;
+			remaining -= count;
+			size += count;
+		}
+	}
+
+	/**
+	 * Write the partly filled block to the file, at the end of what is already there.
+	 *
+	 * @throws IOException Thrown if the file cannot be written.
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+		if (block == null)
+		{
+			return;
+		}
+		block.flip();
+		while (block.hasRemaining())
+		{
+			written += channel.write(block, written);
+		}
+		block.clear();
+	}
+
+	/**
+	 * @return Whether the body outgrew the budget, and is now in a file.
+	 */
+	public boolean isSpilled()
+	{
+		return channel != null;
+	}
+
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return The body; only while it has not spilled.
+	 */
+	public byte[] toByteArray()
+	{
+		if (isSpilled())
+		{
+			throw new IllegalStateException("Buffer has spilled to disk");
+		}
+		return Arrays.copyOf(heap, heapLength);
+	}
+
+	/**
+	 * Write the body; from a file, this is a transfer from the page cache rather than a copy through the heap.
+	 *
+	 * @param outputStream The response body; left open.
+	 * @throws IOException Thrown if the file cannot be read, or the response cannot be written.
+	 */
+	public void writeTo(final OutputStream outputStream) throws IOException
+	{
+		if (!isSpilled())
+		{
+			outputStream.write(heap, 0, heapLength);
+			return;
+		}
+		flush();
+		final var target = Channels.newChannel(outputStream);
+		for (long position = 0; position < size; )
+		{
+			position += channel.transferTo(position, size - position, target);
+		}
+	}
+
+	/**
+	 * Discard the body, and delete its file.
+	 *
+	 * @throws IOException Thrown if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		heap = null;
+		block = null;
+		if (channel != null)
+		{
+			try
+			{
+				channel.close();
+			}
+			finally
+			{
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	/**
+	 * @return The file the body spilled to, or null.
+	 */
+	Path getFile()
+	{
+		return file;
+	}
+
+	private void spill() throws IOException
+	{
+		file = Files.createTempFile("gg-task-spill-", ".bin");
+		channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+		block = ByteBuffer.allocate(blockSize);
+		final var spilled = heap;
+		final var length = heapLength;
+		heap = null;
+		heapLength = 0;
+		size = 0;
+		write(spilled, 0, length);
+	}
+}
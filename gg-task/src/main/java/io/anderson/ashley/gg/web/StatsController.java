@@ -0,0 +1,63 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.log.LogConfig;
+import io.anderson.ashley.gg.log.LogStats;
+import io.anderson.ashley.gg.log.RequestStats;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+
+/**
+ * Request statistics: rates, block rates by country and ISP, and latency percentiles; see {@link RequestStats}.
+ * <ul>
+ *     <li>GET /stats covers the last few minutes, from memory, and is cheap enough to poll every second.</li>
+ *     <li>GET /stats/history covers any period, from the per-minute summary table.</li>
+ * </ul>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping(StatsController.STATS)
+public class StatsController
+{
+	static final String STATS = "/stats";
+
+	private final LogConfig config;
+	private final RequestStats requestStats;
+
+	/**
+	 * @param minutes How many minutes to cover, including the current one; the whole of log.stats.window by default.
+	 * @return The statistics.
+	 */
+	@GetMapping
+	public LogStats stats(@RequestParam(required = false) final Integer minutes)
+	{
+		return requestStats.stats(minutes != null ? minutes : (int) config.getStats().getWindow().toMinutes());
+	}
+
+	/**
+	 * @param from The start of the period (ISO-8601).
+	 * @param to   The end of the period (ISO-8601); now by default.
+	 * @return The statistics.
+	 */
+	@GetMapping("/history")
+	public LogStats history(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+	                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to)
+	{
+		final var end = to != null ? to : Instant.now();
+		if (!from.isBefore(end))
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+		}
+		return requestStats.history(from, end);
+	}
+}
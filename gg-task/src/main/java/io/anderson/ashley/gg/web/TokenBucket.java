@@ -0,0 +1,75 @@
+package io.anderson.ashley.gg.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, kept as the generic cell rate algorithm: rather than a token count which has to be topped
+ * up, the bucket holds the single time at which it would next be full, and taking tokens is one compare-and-set which
+ * pushes that time further in to the future. A bucket holding burst tokens is full again burst / rate seconds after it
+ * was emptied. Times are only compared by their difference, as {@link System#nanoTime} may wrap.
+ */
+class TokenBucket
+{
+	private final AtomicLong full;
+
+	/**
+	 * @param now The current time, in nanoseconds, at which the bucket starts full.
+	 */
+	TokenBucket(final long now)
+	{
+		this.full = new AtomicLong(now);
+	}
+
+	/**
+	 * Take tokens from the bucket if there are enough. More tokens than the bucket can hold are taken as a whole
+	 * bucket, so that a single large request is still possible once the bucket is full.
+	 *
+	 * @param tokens The tokens to take.
+	 * @param rate   Tokens added per second.
+	 * @param burst  The most tokens the bucket holds.
+	 * @param now    The current time, in nanoseconds.
+	 * @return Zero if the tokens were taken, otherwise how many nanoseconds until there will be enough.
+	 */
+	long tryTake(final long tokens, final double rate, final double burst, final long now)
+	{
+		final var nanosPerToken = 1e9 / rate;
+		final var capacity = (long) (burst * nanosPerToken);
+		final var cost = (long) (Math.min(tokens, burst) * nanosPerToken);
+		while (true)
+		{
+			final var current = full.get();
+			final var next = (current - now > 0 ? current : now) + cost;
+			final var wait = next - now - capacity;
+			if (wait > 0)
+			{
+				return wait;
+			}
+			if (full.compareAndSet(current, next))
+			{
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Put back tokens taken by tryTake, e.g. because the request they were taken for was refused for some other reason.
+	 *
+	 * @param tokens The tokens taken.
+	 * @param rate   Tokens added per second.
+	 * @param burst  The most tokens the bucket holds.
+	 */
+	void refund(final long tokens, final double rate, final double burst)
+	{
+		// Going back past now just means the bucket is full, as tryTake never starts from earlier than now
+		full.addAndGet(-(long) (Math.min(tokens, burst) * (1e9 / rate)));
+	}
+
+	/**
+	 * @param now The current time, in nanoseconds.
+	 * @return Whether the bucket has been refilled, so that forgetting it would make no difference.
+	 */
+	boolean isFull(final long now)
+	{
+		return full.get() - now <= 0;
+	}
+}
@@ -0,0 +1,207 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.upload.CommittedUpload;
+import io.anderson.ashley.gg.upload.ContentRange;
+import io.anderson.ashley.gg.upload.UploadService;
+import io.anderson.ashley.gg.upload.UploadStatus;
+import io.anderson.ashley.gg.validation.IValidationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Resumable, chunked, conversion of EntryFiles too large to send in a single request; see {@link UploadService}.
+ * <ul>
+ *     <li>POST /uploads starts an upload, subject to the same IP validation as the convert endpoint.</li>
+ *     <li>PUT /uploads/{id} with a Content-Range header sends a chunk; chunks may be sent in any order, in parallel,
+ *     and retried.</li>
+ *     <li>GET /uploads/{id} returns the ranges received so far, to resume an interrupted upload.</li>
+ *     <li>POST /uploads/{id}/commit returns the Outcomes, as a JSON array or NDJSON, and ends the upload.</li>
+ *     <li>DELETE /uploads/{id} abandons an upload.</li>
+ * </ul>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping(UploadController.UPLOADS)
+public class UploadController
+{
+	static final String UPLOADS = "/uploads";
+
+	private final WebConfig config;
+	private final UploadService uploadService;
+	private final IValidationService validationService;
+	private final ILogService logService;
+	private final AsyncTaskExecutor applicationTaskExecutor;
+
+	/**
+	 * Start an upload.
+	 *
+	 * @param httpRequest The HTTP request.
+	 * @return The new upload, with its location.
+	 */
+	@PostMapping
+	public CompletableFuture<ResponseEntity<UploadStatus>> create(final HttpServletRequest httpRequest)
+	{
+		final var start = Instant.now();
+
+		final var requestUri = URI.create(httpRequest.getRequestURI());
+		final var ipAddress = httpRequest.getRemoteAddr();
+
+		final CompletableFuture<ValidationResult> validation = config.isIpValidationEnabled()
+				? validationService.validateIpAddress(ipAddress)
+				: CompletableFuture.completedFuture(null);
+		return validation.thenApplyAsync(result ->
+		{
+			final Consumer<HttpStatus> log = status -> logService.logRequest(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, result, status.value()));
+			final var status = result != null ? result.status() : ValidationResult.Status.SUCCESS;
+			switch (status)
+			{
+				case SUCCESS:
+					try
+					{
+						final var upload = uploadService.create();
+						log.accept(HttpStatus.CREATED);
+						return ResponseEntity.created(URI.create(UPLOADS + "/" + upload.id())).body(upload);
+					}
+					catch (final IOException e)
+					{
+						log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+						throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error creating upload", e);
+					}
+
+				case BLOCKED_IP:
+					log.accept(HttpStatus.FORBIDDEN);
+					throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on country.");
+
+				case BLOCKED_ISP:
+					log.accept(HttpStatus.FORBIDDEN);
+					throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on ISP.");
+
+				default:
+					log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+			}
+		}, applicationTaskExecutor);
+	}
+
+	/**
+	 * Send a chunk of the EntryFile, which is converted straight away.
+	 *
+	 * @param id           The upload's ID.
+	 * @param contentRange The bytes the chunk holds: bytes start-end/length.
+	 * @param httpRequest  The HTTP request, whose body is the chunk.
+	 * @return The status of the upload.
+	 * @throws IOException Thrown if the chunk cannot be read or spooled.
+	 */
+	@PutMapping("/{id}")
+	public UploadStatus put(@PathVariable final UUID id,
+	                        @RequestHeader(HttpHeaders.CONTENT_RANGE) final String contentRange,
+	                        final HttpServletRequest httpRequest) throws IOException
+	{
+		return uploadService.put(id, ContentRange.parse(contentRange), httpRequest.getInputStream());
+	}
+
+	@GetMapping("/{id}")
+	public UploadStatus status(@PathVariable final UUID id)
+	{
+		return uploadService.status(id);
+	}
+
+	/**
+	 * Complete an upload, and return its Outcomes. The response is compressed on the fly if the client accepts one of
+	 * the enabled encodings. The request is logged once the response has been written.
+	 *
+	 * @param id           The upload's ID.
+	 * @param httpRequest  The HTTP request.
+	 * @param httpResponse The HTTP response.
+	 * @return The Outcomes, as a JSON array or NDJSON.
+	 * @throws IOException Thrown if a line cannot be converted.
+	 */
+	@PostMapping("/{id}/commit")
+	public StreamingResponseBody commit(@PathVariable final UUID id,
+	                                    final HttpServletRequest httpRequest,
+	                                    final HttpServletResponse httpResponse) throws IOException
+	{
+		final var start = Instant.now();
+
+		final var requestUri = URI.create(httpRequest.getRequestURI());
+		final var ipAddress = httpRequest.getRemoteAddr();
+		final Consumer<HttpStatus> log = status -> logService.logRequest(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, null, status.value()));
+
+		final var format = OutcomeFormat.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT));
+		final var encoding = ContentEncoding.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), config.getCompression());
+		final CommittedUpload upload;
+		try
+		{
+			if (format != OutcomeFormat.JSON && format != OutcomeFormat.NDJSON)
+			{
+				throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Uploads can only be returned as JSON or NDJSON.");
+			}
+			upload = uploadService.commit(id);
+		}
+		catch (final ResponseStatusException e)
+		{
+			log.accept(HttpStatus.valueOf(e.getStatusCode().value()));
+			throw e;
+		}
+		catch (final IOException e)
+		{
+			log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
+			throw e;
+		}
+
+		httpResponse.setContentType(format.getMediaType().toString());
+		encoding.apply(httpResponse);
+		return outputStream ->
+		{
+			var status = HttpStatus.OK;
+			try (upload; final var encoded = encoding.wrap(outputStream))
+			{
+				upload.write(encoded, format);
+			}
+			catch (final Exception e)
+			{
+				status = HttpStatus.INTERNAL_SERVER_ERROR;
+				throw e;
+			}
+			finally
+			{
+				log.accept(status);
+			}
+		};
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<Void> delete(@PathVariable final UUID id)
+	{
+		uploadService.delete(id);
+		return ResponseEntity.noContent().build();
+	}
+}
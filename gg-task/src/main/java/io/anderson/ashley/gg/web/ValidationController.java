@@ -0,0 +1,58 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.model.IpValidationResult;
+import io.anderson.ashley.gg.validation.IValidationService;
+import io.anderson.ashley.gg.validation.ValidationConfig;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validate IP addresses in bulk, e.g. to screen clients ahead of time. Each lookup uses up IP-API quota, so the
+ * endpoint is only enabled with validation.batch.enabled; it works with either web stack.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "validation.batch", name = "enabled", havingValue = "true")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+@RequestMapping(ValidationController.VALIDATION)
+public class ValidationController
+{
+	static final String VALIDATION = "/validation";
+
+	private final ValidationConfig config;
+	private final IValidationService validationService;
+
+	/**
+	 * Validate the given IP addresses. Results are streamed back as each is known, cached ones first, so not in the
+	 * order given; as NDJSON, each line is written as soon as its batch completes.
+	 *
+	 * @param ipAddresses The IP addresses, as a JSON array; at most validation.batch.max-addresses of them.
+	 * @return Details of whether the validation of each IP address was successful or not.
+	 */
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
+			produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public Flux<IpValidationResult> validate(@RequestBody final List<String> ipAddresses)
+	{
+		if (ipAddresses.stream().anyMatch(Objects::isNull))
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "IP addresses must not be null");
+		}
+		final var maxAddresses = config.getBatch().getMaxAddresses();
+		if (ipAddresses.size() > maxAddresses)
+		{
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxAddresses + " IP addresses may be validated at once");
+		}
+		return validationService.validateIpAddresses(ipAddresses);
+	}
+}
@@ -2,12 +2,64 @@ package io.anderson.ashley.gg.web;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "web")
 @Data
 public class WebConfig
 {
+	private String entryParser;
 	private String entryRecordDelimiter;
 	private boolean ipValidationEnabled;
 	private boolean dataValidationEnabled;
+	private boolean streamingEnabled;
+	private boolean fixedPointSpeeds;
+	private DataSize memoryBudget = DataSize.ofMegabytes(16);
+	private int metricsSampleRate = 100;
+	private List<ContentEncoding> compression = List.of();
+	private Parallel parallel = new Parallel();
+	private Upload upload = new Upload();
+	private Admission admission = new Admission();
+	private Speculative speculative = new Speculative();
+
+	@Data
+	public static class Parallel
+	{
+		private boolean enabled;
+		private DataSize threshold;
+		private DataSize chunkSize;
+		private int parallelism;
+	}
+
+	@Data
+	public static class Upload
+	{
+		private String spoolDirectory;
+		private DataSize maxChunkSize = DataSize.ofMegabytes(64);
+		private Duration expiry = Duration.ofHours(1);
+	}
+
+	@Data
+	public static class Admission
+	{
+		private boolean enabled;
+		private double requestsPerSecond = 10;
+		private double requestBurst = 50;
+		private DataSize bytesPerSecond = DataSize.ofMegabytes(64);
+		private DataSize bytesBurst = DataSize.ofMegabytes(256);
+		private DataSize inFlightBudget = DataSize.ofMegabytes(512);
+		private DataSize unknownLength = DataSize.ofMegabytes(1);
+		private Duration retryAfter = Duration.ofSeconds(1);
+		private Duration sweepInterval = Duration.ofMinutes(1);
+	}
+
+	@Data
+	public static class Speculative
+	{
+		private boolean enabled;
+		private DataSize maxBytes = DataSize.ofMegabytes(8);
+	}
 }
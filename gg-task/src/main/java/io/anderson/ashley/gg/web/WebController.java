@@ -1,201 +1,584 @@
 package io.anderson.ashley.gg.web;
 
+import io.anderson.ashley.gg.convert.IEntryParser;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
 import io.anderson.ashley.gg.log.ILogService;
 import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
 import io.anderson.ashley.gg.model.LogRequest;
-import io.anderson.ashley.gg.model.Outcome;
 import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.query.Query;
 import io.anderson.ashley.gg.validation.IValidationService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 @RequestMapping("/")
 public class WebController
 {
-	private static final String DEFAULT_DELIMITER = "|";
+	private static final String FIELDS_PARAMETER = "fields";
+	private static final String FILTER_PARAMETER = "filter";
+	private static final String AGGREGATE_PARAMETER = "aggregate";
+	private static final String GROUP_BY_PARAMETER = "groupBy";
 
 	private final WebConfig config;
+	private final IEntryParser parser;
+	private final ParallelEntryConverter parallelConverter;
 	private final IValidationService validationService;
 	private final ILogService logService;
+	private final OutcomeWriter outcomeWriter;
+	private final ConversionMetrics metrics;
+	private final AdmissionControl admission;
+	private final AsyncTaskExecutor applicationTaskExecutor;
 
 	/**
 	 * Convert a CSV (in this case | [pipe]) document to JSON.
 	 * CSV fields: UUID, ID, Name, Likes, Transport, Avg Speed, Top Speed
 	 * JSON fields: Name, Transport, Top Speed
+	 * The fields, filter, aggregate and groupBy query parameters choose other fields, filter the Entries, or return
+	 * aggregates of them instead; see {@link Query}. Requests are first subject to {@link AdmissionControl}. With
+	 * web.speculative.enabled, buffered responses are produced while the IP address is being validated; see
+	 * {@link #speculate}.
 	 *
-	 * @param httpRequest The HTTP request.
-	 * @return A JSON document.
+	 * @param httpRequest  The HTTP request.
+	 * @param httpResponse The HTTP response; only written to directly for a streaming body.
+	 * @return A JSON document, either as a buffered body or a streaming body.
 	 * @throws IOException Thrown if the request cannot be parsed.
 	 */
 	@PostMapping
-	public CompletableFuture<List<Outcome>> convert(final HttpServletRequest httpRequest) throws IOException
+	public CompletableFuture<Object> convert(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse) throws IOException
 	{
 		final var start = Instant.now();
 
 		final var requestUri = URI.create(httpRequest.getRequestURI());
 		final var ipAddress = httpRequest.getRemoteAddr();
 
-		if (config.isIpValidationEnabled())
+		final AdmissionControl.Permit permit;
+		try
+		{
+			permit = admission.admit(ipAddress, httpRequest.getContentLengthLong());
+		}
+		catch (final AdmissionControl.Rejected e)
+		{
+			logService.logRequest(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, null, e.getStatusCode().value()));
+			throw e;
+		}
+		/*
+		 * Every way a request can finish logs it exactly once, so the permit is released with the log; it is also
+		 * released if the request fails some other way, as releasing it again does nothing.
+		 */
+		final Function<ValidationResult, Consumer<HttpStatus>> logger = result -> status ->
+		{
+			permit.release();
+			logService.logRequest(LogRequest.fromValidationResult(start, Instant.now(), requestUri, ipAddress, result, status.value()));
+		};
+
+		try
 		{
-			return validationService.validateIpAddress(ipAddress)
-					.thenApply(result ->
-					{
-						HttpStatus status = HttpStatus.OK;
-						try
+			if (config.isIpValidationEnabled())
+			{
+				/*
+				 * The validation future may complete on a WebClient event loop thread, which must never block; reading
+				 * the request and logging it is done on the application task executor instead, which uses virtual
+				 * threads when spring.threads.virtual.enabled is set.
+				 */
+				final var speculation = speculate(httpRequest);
+				final var validation = validationService.validateIpAddress(ipAddress);
+				if (speculation != null)
+				{
+					/*
+					 * Decided on whichever thread completes the validation, not on the executor: the speculative
+					 * conversion may be holding an executor thread waiting for this, and if all of them are, the
+					 * continuation below would never get one.
+					 */
+					validation.whenComplete((result, e) -> speculation.decide(e == null && result.status() == ValidationResult.Status.SUCCESS));
+				}
+				return validation
+						.thenComposeAsync(result ->
 						{
+							final var log = logger.apply(result);
 							switch (result.status())
 							{
 								case SUCCESS:
+									if (speculation != null)
+									{
+										return speculation.release(httpResponse, log);
+									}
 									try
 									{
-										return process(parseEntries(httpRequest.getReader()));
+										return CompletableFuture.completedFuture(respond(httpRequest, httpResponse, log));
 									}
 									catch (final IOException e)
 									{
-										status = HttpStatus.INTERNAL_SERVER_ERROR;
 										throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing EntryFile", e);
 									}
 
 								case BLOCKED_IP:
-									status = HttpStatus.FORBIDDEN;
+									log.accept(HttpStatus.FORBIDDEN);
 									throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on country.");
 
 								case BLOCKED_ISP:
-									status = HttpStatus.FORBIDDEN;
+									log.accept(HttpStatus.FORBIDDEN);
 									throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Blocking request based on ISP.");
 
 								default:
-									status = HttpStatus.INTERNAL_SERVER_ERROR;
+									log.accept(HttpStatus.INTERNAL_SERVER_ERROR);
 									throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
 							}
-						}
-						finally
+						}, applicationTaskExecutor)
+						.exceptionallyCompose(e ->
 						{
-							logService.logRequest(validationResultToLogRequest(start, Instant.now(), requestUri, ipAddress, result, status));
-						}
-					});
+							permit.release();
+							return reject(speculation, e);
+						});
+			}
+			else
+			{
+				return CompletableFuture.completedFuture(respond(httpRequest, httpResponse, logger.apply(null)));
+			}
 		}
-		else
+		catch (final IOException | RuntimeException e)
 		{
-			HttpStatus status = HttpStatus.OK;
-			try
+			permit.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Build the response body; a JSON array is buffered by default, or streamed if enabled. Any other format the client
+	 * prefers (NDJSON, Smile, CBOR or Protobuf) is always streamed, and the body is compressed on the fly if the client
+	 * accepts one of the enabled encodings. Aggregates are computed as the Entries are parsed, and then returned as a
+	 * buffered response. A buffered body is held on the heap up to web.memory-budget, and beyond that spills to a
+	 * temporary file which is then streamed. The request is logged once the body has been produced, which
+	 * for streaming is after the last Outcome has been written.
+	 *
+	 * @param httpRequest  The HTTP request.
+	 * @param httpResponse The HTTP response.
+	 * @param log          Callback to log the request with the final HTTP status.
+	 * @return Either the buffered JSON body, or a StreamingResponseBody.
+	 * @throws IOException Thrown if the request cannot be read.
+	 */
+	private Object respond(final HttpServletRequest httpRequest,
+	                       final HttpServletResponse httpResponse,
+	                       final Consumer<HttpStatus> log) throws IOException
+	{
+		final var format = OutcomeFormat.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT));
+		final var encoding = ContentEncoding.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), config.getCompression());
+		final Query query;
+		try
+		{
+			query = query(httpRequest, format);
+		}
+		catch (final ResponseStatusException e)
+		{
+			log.accept(HttpStatus.valueOf(e.getStatusCode().value()));
+			throw e;
+		}
+
+		if (isStreamed(query, format))
+		{
+			/*
+			 * Once the first bytes have been sent the status can no longer be changed, so with data validation enabled
+			 * a malformed record part way through will abort the response rather than return a BAD_REQUEST.
+			 */
+			httpResponse.setContentType(format.getMediaType().toString());
+			encoding.apply(httpResponse);
+			return (StreamingResponseBody) outputStream ->
 			{
-				return CompletableFuture.completedFuture(process(parseEntries(httpRequest.getReader())));
+				var status = HttpStatus.OK;
+				try (final var rows = metrics.output(process(httpRequest, UnaryOperator.identity(), query.materialise(), query::rows), ConversionMetrics.Stage.SERIALISE);
+				     final var encoded = encoding.wrap(outputStream))
+				{
+					outcomeWriter.write(format, rows, encoded);
+				}
+				catch (final Exception e)
+				{
+					status = HttpStatus.INTERNAL_SERVER_ERROR;
+					throw e;
+				}
+				finally
+				{
+					log.accept(status);
+				}
+			};
+		}
+
+		return reply(format, encoding, buffer(httpRequest, UnaryOperator.identity(), format, encoding, query, log), httpResponse);
+	}
+
+	/**
+	 * Produce a buffered response body, logging the request once it has been produced.
+	 *
+	 * @param httpRequest The HTTP request.
+	 * @param gate        Wraps the request body; see {@link GatedReader}.
+	 * @param format      The format of the body.
+	 * @param encoding    The content encoding of the body.
+	 * @param query       The query.
+	 * @param log         Callback to log the request with the final HTTP status.
+	 * @return The encoded body.
+	 * @throws IOException Thrown if the request cannot be read.
+	 */
+	private SpillBuffer buffer(final HttpServletRequest httpRequest,
+	                           final UnaryOperator<Reader> gate,
+	                           final OutcomeFormat format,
+	                           final ContentEncoding encoding,
+	                           final Query query,
+	                           final Consumer<HttpStatus> log) throws IOException
+	{
+		final var body = new SpillBuffer(config.getMemoryBudget().toBytes());
+		var status = HttpStatus.OK;
+		try
+		{
+			if (query.isAggregate())
+			{
+				encode(format, encoding, aggregate(httpRequest, gate, query).stream(), body);
 			}
-			catch (final Exception e)
+			else
 			{
-				status = HttpStatus.INTERNAL_SERVER_ERROR;
-				throw e;
+				try (final var rows = metrics.output(process(httpRequest, gate, query.materialise(), query::rows), ConversionMetrics.Stage.SERIALISE))
+				{
+					encode(format, encoding, rows, body);
+				}
 			}
-			finally
+		}
+		catch (final ResponseStatusException e)
+		{
+			status = HttpStatus.valueOf(e.getStatusCode().value());
+			body.close();
+			throw e;
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			status = HttpStatus.INTERNAL_SERVER_ERROR;
+			body.close();
+			throw e;
+		}
+		finally
+		{
+			log.accept(status);
+		}
+		return body;
+	}
+
+	/**
+	 * Send a buffered response body: small uncompressed JSON as it is, and anything else from the buffer.
+	 *
+	 * @param format       The format of the body.
+	 * @param encoding     The content encoding of the body.
+	 * @param body         The encoded body.
+	 * @param httpResponse The HTTP response.
+	 * @return Either the JSON body, or a StreamingResponseBody.
+	 * @throws IOException Thrown if the buffer cannot be closed.
+	 */
+	private static Object reply(final OutcomeFormat format,
+	                            final ContentEncoding encoding,
+	                            final SpillBuffer body,
+	                            final HttpServletResponse httpResponse) throws IOException
+	{
+		if (format == OutcomeFormat.JSON && encoding == ContentEncoding.IDENTITY && !body.isSpilled())
+		{
+			try (body)
 			{
-				logService.logRequest(validationResultToLogRequest(start, Instant.now(), requestUri, ipAddress, null, status));
+				return ResponseEntity.ok()
+						.contentType(MediaType.APPLICATION_JSON)
+						.body(body.toByteArray());
 			}
 		}
+		httpResponse.setContentType(format.getMediaType().toString());
+		encoding.apply(httpResponse);
+		return (StreamingResponseBody) outputStream ->
+		{
+			try (body)
+			{
+				body.writeTo(outputStream);
+			}
+		};
 	}
 
 	/**
-	 * Process all entries in to outcomes.
+	 * Encode the whole response body before anything is sent, so that a malformed record can still be reported as a
+	 * BAD_REQUEST; the encoded body is far more compact than the rows it holds.
+	 */
+	private void encode(final OutcomeFormat format,
+	                    final ContentEncoding encoding,
+	                    final Stream<?> rows,
+	                    final SpillBuffer body) throws IOException
+	{
+		try (final var encoded = encoding.wrap(body))
+		{
+			outcomeWriter.write(format, rows, encoded);
+		}
+	}
+
+	private List<Map<String, Object>> aggregate(final HttpServletRequest httpRequest,
+	                                            final UnaryOperator<Reader> gate,
+	                                            final Query query) throws IOException
+	{
+		final var aggregation = query.aggregation();
+		try (final var entries = metrics.output(process(httpRequest, gate, query.materialise(), query::filter), ConversionMetrics.Stage.AGGREGATE))
+		{
+			entries.forEach(aggregation);
+		}
+		return aggregation.results();
+	}
+
+	/**
+	 * Process all entries in the request body; large bodies are processed in parallel. Reading, parsing and converting
+	 * the body are timed; see {@link ConversionMetrics}.
 	 *
-	 * @param entries The list of Entry objects.
-	 * @return A list of Outcome objects.
+	 * @param httpRequest The HTTP request.
+	 * @param gate        Wraps the request body, outside its timing.
+	 * @param fields      The fields the conversion needs the parser to materialise.
+	 * @param conversion  The conversion of the Entries, such as in to Outcomes.
+	 * @param <T>         The type of the results.
+	 * @return A stream of results.
+	 * @throws IOException Thrown if the request cannot be read.
 	 */
-	private List<Outcome> process(final List<Entry> entries)
+	private <T> Stream<T> process(final HttpServletRequest httpRequest,
+	                              final UnaryOperator<Reader> gate,
+	                              final Set<EntryField> fields,
+	                              final Function<Stream<Entry>, Stream<T>> conversion) throws IOException
+	{
+		final var reader = gate.apply(metrics.read(httpRequest.getReader()));
+		if (parallelConverter.isParallel(httpRequest.getContentLengthLong()))
+		{
+			return parallelConverter.convert(reader, fields, metrics.convert(conversion));
+		}
+		return metrics.convert(conversion).apply(parser.parse(reader, fields));
+	}
+
+	private static Query query(final HttpServletRequest httpRequest, final OutcomeFormat format)
 	{
-		return entries.stream().map(Outcome::fromEntry).collect(Collectors.toList());
+		final var query = Query.parse(httpRequest.getParameterValues(FIELDS_PARAMETER),
+				httpRequest.getParameterValues(FILTER_PARAMETER),
+				httpRequest.getParameter(AGGREGATE_PARAMETER),
+				httpRequest.getParameter(GROUP_BY_PARAMETER));
+		if (format == OutcomeFormat.PROTOBUF && !query.isOutcome())
+		{
+			throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Only Outcomes can be returned as Protobuf.");
+		}
+		return query;
+	}
+
+	private boolean isStreamed(final Query query, final OutcomeFormat format)
+	{
+		return !query.isAggregate() && (format.isStreamed() || config.isStreamingEnabled());
 	}
 
 	/**
-	 * Parse the request body for Entries
+	 * Start producing the response while the IP address is being validated, so that the request takes as long as the
+	 * slower of the two rather than both. Only responses which would be buffered anyway are started; a streamed
+	 * response is written to the client as it goes, so is only started once the client is known to be allowed. Until
+	 * then, no more than web.speculative.max-bytes characters of the body are read, so a blocked client can never cost
+	 * more than that.
 	 *
-	 * @param reader The request body Reader instance.
-	 * @return A list of Entry objects.
-	 * @throws IOException Thrown if there is an issue parsing the Reader.
+	 * @param httpRequest The HTTP request.
+	 * @return The speculation, or null if the request is only to be processed once it has been validated.
+	 */
+	private Speculation speculate(final HttpServletRequest httpRequest)
+	{
+		if (!config.getSpeculative().isEnabled())
+		{
+			return null;
+		}
+		try
+		{
+			final var format = OutcomeFormat.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT));
+			final var encoding = ContentEncoding.negotiate(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), config.getCompression());
+			final var query = query(httpRequest, format);
+			return isStreamed(query, format) ? null : new Speculation(httpRequest, format, encoding, query);
+		}
+		catch (final ResponseStatusException e)
+		{
+			// Reported once the IP address has been validated, as it is without speculation
+			return null;
+		}
+	}
+
+	private static CompletableFuture<Object> reject(final Speculation speculation, final Throwable error)
+	{
+		return speculation != null ? speculation.reject(error) : CompletableFuture.failedFuture(error);
+	}
+
+	/**
+	 * A buffered response being produced before the client is known to be allowed; it is either released as the
+	 * response, or discarded.
 	 */
-	private List<Entry> parseEntries(final Reader reader) throws IOException
+	private class Speculation
 	{
-		final var csvFormat = CSVFormat.Builder
-				.create(CSVFormat.DEFAULT)
-				.setDelimiter(StringUtils.defaultIfEmpty(config.getEntryRecordDelimiter(), DEFAULT_DELIMITER))
-				.build();
-		final List<Entry> entries = new ArrayList<>();
-		for (final CSVRecord record : csvFormat.parse(reader))
-		{
-			try
+		private final CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+		private final AtomicReference<HttpStatus> status = new AtomicReference<>(HttpStatus.INTERNAL_SERVER_ERROR);
+		private final OutcomeFormat format;
+		private final ContentEncoding encoding;
+		private final CompletableFuture<SpillBuffer> body;
+
+		Speculation(final HttpServletRequest httpRequest, final OutcomeFormat format, final ContentEncoding encoding, final Query query)
+		{
+			this.format = format;
+			this.encoding = encoding;
+			final var limit = config.getSpeculative().getMaxBytes().toBytes();
+			this.body = CompletableFuture.supplyAsync(() ->
 			{
-				entries.add(new Entry(UUID.fromString(record.get(0)),
-						record.get(1),
-						record.get(2),
-						record.get(3),
-						record.get(4),
-						new BigDecimal(record.get(5)),
-						new BigDecimal(record.get(6))));
-			}
-			catch (final Exception e)
+				try
+				{
+					return buffer(httpRequest, reader -> new GatedReader(reader, limit, verdict), format, encoding, query, status::set);
+				}
+				catch (final IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			}, applicationTaskExecutor);
+		}
+
+		/**
+		 * Let the conversion carry on past the limit, and respond with it once it is done; the request is logged with
+		 * the status the conversion finished with.
+		 *
+		 * @param httpResponse The HTTP response.
+		 * @param log          Callback to log the request with the final HTTP status.
+		 * @return The response.
+		 */
+		private CompletableFuture<Object> release(final HttpServletResponse httpResponse, final Consumer<HttpStatus> log)
+		{
+			decide(true);
+			return body.handle((buffered, e) ->
 			{
-				/*
-				 * This does require restarting the application is the flag is changed. Using a service similar to
-				 * Unleash would allow this to be toggled externally to the application and with (alsmot) immediate
-				 * availability.
-				 */
-				if (config.isDataValidationEnabled())
+				log.accept(status.get());
+				final var cause = e instanceof CompletionException ? e.getCause() : e;
+				if (cause instanceof UncheckedIOException io)
 				{
-					throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed request data - disable data validation flag and try again!");
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing EntryFile", io.getCause());
 				}
-			}
+				if (cause instanceof RuntimeException runtime)
+				{
+					throw runtime;
+				}
+				if (cause != null)
+				{
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing EntryFile", cause);
+				}
+				try
+				{
+					return reply(format, encoding, buffered, httpResponse);
+				}
+				catch (final IOException io)
+				{
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing EntryFile", io);
+				}
+			});
+		}
+
+		/**
+		 * Let the conversion carry on past the limit, or stop it at its next read; only the first verdict counts. This
+		 * never blocks, so it may be called from any thread.
+		 *
+		 * @param allowed Whether the client is allowed.
+		 */
+		private void decide(final boolean allowed)
+		{
+			verdict.complete(allowed);
+		}
+
+		/**
+		 * Stop the conversion at its next read, throw away whatever it has produced, and fail with the given error once
+		 * it has stopped; until then it may still be reading the request, which must not be completed under it.
+		 *
+		 * @param error The error to fail with.
+		 * @return The failed response.
+		 */
+		private CompletableFuture<Object> reject(final Throwable error)
+		{
+			decide(false);
+			return body.handle((buffered, e) ->
+			{
+				if (!verdict.getNow(true))
+				{
+					IOUtils.closeQuietly(buffered);
+				}
+				return null;
+			}).thenCompose(stopped -> CompletableFuture.failedFuture(error));
 		}
-		return entries;
 	}
 
 	/**
-	 * Helper method to create a LogRequest instance.
-	 *
-	 * @param uri              The request URI
-	 * @param ipAddress        The IP address that was validated.
-	 * @param validationResult The result of that validation.
-	 * @param httpStatus       The HTTP status to return to the user.
-	 * @return The new LogRequest object.
+	 * Reads the request body freely up to a limit; beyond that, waits to be told whether to carry on.
 	 */
-	private static LogRequest validationResultToLogRequest(final Instant start,
-	                                                       final Instant end,
-	                                                       final URI uri,
-	                                                       final String ipAddress,
-	                                                       final ValidationResult validationResult,
-	                                                       final HttpStatus httpStatus)
+	private static class GatedReader extends FilterReader
 	{
-		final var request = validationResult != null ? validationResult.request() : null;
-		final var country = validationResult != null ? validationResult.country() : null;
-		final var isp = validationResult != null ? validationResult.isp() : null;
-
-		return new LogRequest(uri,
-				request,
-				ipAddress,
-				start,
-				end,
-				httpStatus.value(),
-				country,
-				isp);
+		private final long limit;
+		private final CompletableFuture<Boolean> verdict;
+		private long count;
+
+		GatedReader(final Reader reader, final long limit, final CompletableFuture<Boolean> verdict)
+		{
+			super(reader);
+			this.limit = limit;
+			this.verdict = verdict;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			check();
+			final var read = super.read();
+			if (read >= 0)
+			{
+				count++;
+			}
+			return read;
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int length) throws IOException
+		{
+			check();
+			final var read = super.read(buffer, offset, length);
+			if (read > 0)
+			{
+				count += read;
+			}
+			return read;
+		}
+
+		private void check() throws IOException
+		{
+			if (!(count < limit ? verdict.getNow(true) : verdict.join()))
+			{
+				throw new IOException("Speculative conversion discarded");
+			}
+		}
 	}
 }
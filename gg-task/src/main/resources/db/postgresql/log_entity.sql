@@ -0,0 +1,26 @@
+-- The request log, partitioned by day, for PostgreSQL with log.retention.partitioning=postgresql.
+-- Create it before starting the application, with spring.jpa.hibernate.ddl-auto set to validate or none; the day
+-- partitions themselves are created ahead of time, and dropped once expired, by LogRetention.
+-- A partitioned table's primary key has to include the partition key.
+CREATE TABLE log_entity
+(
+    request_id           UUID         NOT NULL,
+    partition_day        DATE         NOT NULL,
+    request_uri          VARCHAR(255) NOT NULL,
+    validation_uri       VARCHAR(255),
+    request_timestamp    TIMESTAMP(6) NOT NULL,
+    response_status      INTEGER      NOT NULL,
+    request_ip_address   VARCHAR(255) NOT NULL,
+    request_country_code VARCHAR(255),
+    request_ip_provider  VARCHAR(255),
+    time_lapsed          BIGINT       NOT NULL,
+    PRIMARY KEY (request_id, partition_day)
+) PARTITION BY RANGE (partition_day);
+
+CREATE INDEX log_entity_timestamp ON log_entity (request_timestamp, request_id);
+CREATE INDEX log_entity_ip_address ON log_entity (request_ip_address, request_timestamp, request_id);
+CREATE INDEX log_entity_status ON log_entity (response_status, request_timestamp, request_id);
+CREATE INDEX log_entity_country_code ON log_entity (request_country_code, request_timestamp, request_id);
+
+-- Catches records for any day whose partition has not been created, rather than failing the insert
+CREATE TABLE log_entity_default PARTITION OF log_entity DEFAULT;
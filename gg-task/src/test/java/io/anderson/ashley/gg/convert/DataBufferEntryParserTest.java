@@ -0,0 +1,111 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.WebConfig;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DataBufferEntryParserTest
+{
+	private static final String ROW = "3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7|2X2D24|Mike Smith|Likes Grape|Drives an SUV|35.0|95.5";
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+	private WebConfig config;
+	private DataBufferEntryParser target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+		target = new DataBufferEntryParser(config);
+	}
+
+	@Test
+	public void parse()
+	{
+		final var file = file(100, "\n");
+		assertEquals(expected(file), parse(file, 1 << 16));
+	}
+
+	@Test
+	public void parseSplitLines()
+	{
+		final var file = file(100, "\r\n").replace("Mike Smith", "Mïke Smïth 🚲");
+		for (final var chunkSize : List.of(1, 2, 3, 7, 64, 1000))
+		{
+			assertEquals(expected(file), parse(file, chunkSize), "chunk size " + chunkSize);
+		}
+		assertEquals(new Outcome("Mïke Smïth 🚲 0", "Drives an SUV", new BigDecimal("0.5")), parse(file, 3).get(0));
+	}
+
+	@Test
+	public void parseLongLine()
+	{
+		final var file = ROW.replace("Mike Smith", "M".repeat(10_000)) + "\n" + ROW;
+		assertEquals(expected(file), parse(file, 100));
+	}
+
+	@Test
+	public void parseMalformed()
+	{
+		final var file = ROW + "\nnot-a-uuid" + ROW.substring(36) + "\n" + ROW;
+		assertThrows(ResponseStatusException.class, () -> parse(file, 10));
+	}
+
+	@Test
+	public void parseMalformedNoDataValidation()
+	{
+		config.setDataValidationEnabled(false);
+		final var file = ROW + "\nnot-a-uuid" + ROW.substring(36) + "\n" + ROW;
+		assertEquals(2, parse(file, 10).size());
+	}
+
+	private List<Outcome> parse(final String file, final int chunkSize)
+	{
+		return target.parse(buffers(file, chunkSize))
+				.map(Outcome::fromEntry)
+				.collectList()
+				.block();
+	}
+
+	@SneakyThrows
+	private List<Outcome> expected(final String file)
+	{
+		try (final var entries = new PipeEntryParser(config).parse(new StringReader(file)))
+		{
+			return entries.map(Outcome::fromEntry).toList();
+		}
+	}
+
+	private Flux<DataBuffer> buffers(final String file, final int chunkSize)
+	{
+		final var bytes = file.getBytes(StandardCharsets.UTF_8);
+		return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+				.map(i -> bufferFactory.wrap(Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize))));
+	}
+
+	private static String file(final int rows, final String lineEnding)
+	{
+		return IntStream.range(0, rows)
+				.mapToObj(i -> ROW.replace("Mike Smith", "Mike Smith " + i).replace("95.5", i + ".5"))
+				.collect(Collectors.joining(lineEnding, "", lineEnding));
+	}
+}
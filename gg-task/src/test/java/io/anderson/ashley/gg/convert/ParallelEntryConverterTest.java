@@ -0,0 +1,125 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.WebConfig;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelEntryConverterTest
+{
+	private static final int ROWS = 20_000;
+	private static final String MALFORMED = "not-a-uuid|2X2D24|Mike Smith|Likes Grape|Drives an SUV|35.0|95.5";
+
+	private WebConfig config;
+	private ParallelEntryConverter target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+		config.getParallel().setEnabled(true);
+		config.getParallel().setThreshold(DataSize.ofKilobytes(1));
+		config.getParallel().setChunkSize(DataSize.ofBytes(4096));
+		config.getParallel().setParallelism(4);
+		target = new ParallelEntryConverter(config, new PipeEntryParser(config));
+	}
+
+	@AfterEach
+	public void destroy()
+	{
+		target.shutdown();
+	}
+
+	@Test
+	public void isParallel()
+	{
+		assertTrue(target.isParallel(1024));
+		assertFalse(target.isParallel(1023));
+		assertFalse(target.isParallel(-1));
+		config.getParallel().setEnabled(false);
+		assertFalse(target.isParallel(1024));
+	}
+
+	@Test
+	public void convert()
+	{
+		final var file = entryFile(IntStream.range(0, ROWS).mapToObj(ParallelEntryConverterTest::row), "\n");
+		assertEquals(sequential(file), parallel(file));
+	}
+
+	@Test
+	public void convertLineEndings()
+	{
+		final var file = entryFile(IntStream.range(0, ROWS).mapToObj(ParallelEntryConverterTest::row), "\r\n");
+		assertEquals(ROWS, parallel(file).size());
+		assertEquals(sequential(file), parallel(file));
+	}
+
+	@Test
+	public void convertLongLine()
+	{
+		final var file = entryFile(IntStream.range(0, 100).mapToObj(i -> i == 50 ? row(i).replace("Name", "N".repeat(20_000)) : row(i)), "\n");
+		assertEquals(sequential(file), parallel(file));
+	}
+
+	@Test
+	public void convertMalformed()
+	{
+		final var file = entryFile(IntStream.range(0, ROWS).mapToObj(i -> i == ROWS - 1 ? MALFORMED : row(i)), "\n");
+		assertThrows(ResponseStatusException.class, () -> parallel(file));
+	}
+
+	@Test
+	public void convertMalformedNoDataValidation()
+	{
+		config.setDataValidationEnabled(false);
+		final var file = entryFile(IntStream.range(0, ROWS).mapToObj(i -> i % 100 == 0 ? MALFORMED : row(i)), "\n");
+		final var actual = parallel(file);
+		assertEquals(sequential(file), actual);
+		assertEquals(ROWS - ROWS / 100, actual.size());
+	}
+
+	private List<Outcome> parallel(final String file)
+	{
+		try (final var outcomes = target.convert(new StringReader(file)))
+		{
+			return outcomes.toList();
+		}
+	}
+
+	@SneakyThrows
+	private List<Outcome> sequential(final String file)
+	{
+		try (final var entries = new CsvEntryParser(config).parse(new StringReader(file)))
+		{
+			return entries.map(Outcome::fromEntry).toList();
+		}
+	}
+
+	private static String row(final int i)
+	{
+		return "3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7|" + i + "X|Name " + i + "|Likes Grape|Drives an SUV|35.0|" + i + ".5";
+	}
+
+	private static String entryFile(final Stream<String> rows, final String lineEnding)
+	{
+		return rows.collect(Collectors.joining(lineEnding, "", lineEnding));
+	}
+}
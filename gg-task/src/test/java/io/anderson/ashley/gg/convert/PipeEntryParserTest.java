@@ -0,0 +1,199 @@
+package io.anderson.ashley.gg.convert;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.WebConfig;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipeEntryParserTest
+{
+	private static final String ROW = "3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7|2X2D24|Mike Smith|Likes Grape|Drives an SUV|35.0|95.5";
+
+	private WebConfig config;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+	}
+
+	@Test
+	public void parse()
+	{
+		final var actual = outcomes(new PipeEntryParser(config), resource("EntryFile.txt"));
+		final var expected = outcomes(new CsvEntryParser(config), resource("EntryFile.txt"));
+		assertEquals(expected, actual);
+		assertEquals(new Outcome("John Smith", "Rides A Bike", new BigDecimal("12.1")), actual.get(0));
+	}
+
+	@Test
+	public void parseFixedPoint()
+	{
+		final var expected = outcomes(new PipeEntryParser(config), resource("EntryFile.txt"));
+		config.setFixedPointSpeeds(true);
+		final var actual = outcomes(new PipeEntryParser(config), resource("EntryFile.txt"));
+		assertEquals(expected, actual);
+		assertEquals(outcomes(new CsvEntryParser(config), resource("EntryFile.txt")), actual);
+		assertEquals(121, actual.get(0).topSpeedTenths());
+		assertEquals(FixedPoint.NONE, outcomes(new PipeEntryParser(config), new StringReader(ROW.replace("95.5", "95.55"))).get(0).topSpeedTenths());
+	}
+
+	@Test
+	@SneakyThrows
+	public void parseFields()
+	{
+		try (final var entries = new PipeEntryParser(config).parse(new StringReader(ROW), EnumSet.of(EntryField.UUID, EntryField.LIKES, EntryField.AVERAGE_SPEED)))
+		{
+			assertEquals(List.of(new Entry(UUID.fromString("3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7"), null, null, "Likes Grape", null, new BigDecimal("35.0"), null)),
+					entries.toList());
+		}
+		final var malformed = ROW.replace("95.5", "fast");
+		assertThrows(ResponseStatusException.class, () -> new PipeEntryParser(config).parse(new StringReader(malformed), EnumSet.of(EntryField.NAME)).toList());
+	}
+
+	@Test
+	public void parseMalformed()
+	{
+		assertThrows(ResponseStatusException.class, () -> outcomes(new PipeEntryParser(config), resource("MalformedEntryFile.txt")));
+	}
+
+	@Test
+	public void parseMalformedNoDataValidation()
+	{
+		config.setDataValidationEnabled(false);
+		final var actual = outcomes(new PipeEntryParser(config), resource("MalformedEntryFile.txt"));
+		final var expected = outcomes(new CsvEntryParser(config), resource("MalformedEntryFile.txt"));
+		assertEquals(expected, actual);
+		assertEquals(1, actual.size());
+	}
+
+	@Test
+	public void parseMalformedCounted()
+	{
+		final var registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+		try
+		{
+			config.setDataValidationEnabled(false);
+			outcomes(new PipeEntryParser(config), resource("MalformedEntryFile.txt"));
+			config.setDataValidationEnabled(true);
+			assertThrows(ResponseStatusException.class, () -> outcomes(new PipeEntryParser(config), resource("MalformedEntryFile.txt")));
+
+			assertEquals(2, registry.get(MalformedRecords.METRIC).tag(MalformedRecords.OUTCOME_TAG, "dropped").counter().count());
+			assertEquals(1, registry.get(MalformedRecords.METRIC).tag(MalformedRecords.OUTCOME_TAG, "rejected").counter().count());
+		}
+		finally
+		{
+			Metrics.removeRegistry(registry);
+		}
+	}
+
+	@Test
+	public void parseLineEndings()
+	{
+		final var file = ROW + "\r\n\r\n" + ROW + "\r" + ROW + "\n\n" + ROW;
+		assertEquals(4, outcomes(new PipeEntryParser(config), new StringReader(file)).size());
+		assertEquals(outcomes(new CsvEntryParser(config), new StringReader(file)), outcomes(new PipeEntryParser(config), new StringReader(file)));
+	}
+
+	@Test
+	public void parseAcrossBuffers()
+	{
+		final var name = "N".repeat(200_000);
+		final var file = IntStream.range(0, 5_000)
+				.mapToObj(i -> ROW.replace("Mike Smith", i == 2_500 ? name : "Mike Smith " + i))
+				.reduce(new StringBuilder(), (builder, row) -> builder.append(row).append("\r\n"), StringBuilder::append)
+				.toString();
+		final var actual = outcomes(new PipeEntryParser(config), new StringReader(file));
+		assertEquals(outcomes(new CsvEntryParser(config), new StringReader(file)), actual);
+		assertEquals(name, actual.get(2_500).name());
+	}
+
+	@Test
+	public void parseDelimiter()
+	{
+		config.setEntryRecordDelimiter(",");
+		final var actual = outcomes(new PipeEntryParser(config), new StringReader(ROW.replace('|', ',')));
+		assertEquals(List.of(new Outcome("Mike Smith", "Drives an SUV", new BigDecimal("95.5"))), actual);
+		config.setEntryRecordDelimiter("||");
+		assertThrows(IllegalArgumentException.class, () -> new PipeEntryParser(config));
+	}
+
+	@Test
+	public void parseExtraFields()
+	{
+		final var file = ROW + "|extra|fields";
+		assertEquals(outcomes(new CsvEntryParser(config), new StringReader(file)), outcomes(new PipeEntryParser(config), new StringReader(file)));
+	}
+
+	@Test
+	public void isUuid()
+	{
+		assertTrue(isUuid("3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7"));
+		assertTrue(isUuid("3CE2D17B-E66A-4C1E-BCA3-40EB1C9222C7"));
+		assertTrue(isUuid("1-2-3-4-5"));
+		assertFalse(isUuid("3ce2d17b-e66a-4c1e-bca3-40eb1c9222cg"));
+		assertFalse(isUuid("3ce2d17b_e66a-4c1e-bca3-40eb1c9222c7"));
+		assertFalse(isUuid("fUVWsgXcYPaqIiZBLTZAtJsyxwnvpYBcLszAkrHVOEOoEsOzYP"));
+		assertFalse(isUuid(""));
+	}
+
+	@Test
+	public void isDecimal()
+	{
+		List.of("0", "6.2", "-6.2", "+6.2", ".5", "5.", "1e3", "1.5E-3", "١٢")
+				.forEach(value -> assertTrue(isDecimal(value), value));
+		List.of("", ".", "-", "e3", "1e", "1.2.3", "1,2", " 1", "1e9999999999", "NaN")
+				.forEach(value -> assertFalse(isDecimal(value), value));
+	}
+
+	@SneakyThrows
+	private static List<Outcome> outcomes(final IEntryParser parser, final Reader reader)
+	{
+		try (final var entries = parser.parse(reader))
+		{
+			return entries.map(Outcome::fromEntry).toList();
+		}
+	}
+
+	private static Reader resource(final String name)
+	{
+		return new InputStreamReader(Objects.requireNonNull(PipeEntryParserTest.class.getResourceAsStream("/" + name)), StandardCharsets.UTF_8);
+	}
+
+	private static boolean isUuid(final String value)
+	{
+		return EntryLineParser.isUuid(value.toCharArray(), 0, value.length());
+	}
+
+	private static boolean isDecimal(final String value)
+	{
+		final var padded = ("|" + value + "|").toCharArray();
+		return EntryLineParser.isDecimal(padded, 1, padded.length - 1);
+	}
+}
@@ -0,0 +1,277 @@
+package io.anderson.ashley.gg.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.convert.PipeEntryParser;
+import io.anderson.ashley.gg.web.ContentEncoding;
+import io.anderson.ashley.gg.web.OutcomeWriter;
+import io.anderson.ashley.gg.web.WebConfig;
+import lombok.SneakyThrows;
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.AdditionalAnswers;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JobServiceTest
+{
+	private static final String IP = "86.8.134.206";
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@TempDir
+	private Path directory;
+	@Autowired
+	private JobRepository repository;
+	private JobConfig config;
+	private WebConfig webConfig;
+	private JobService target;
+
+	@BeforeEach
+	@SneakyThrows
+	public void init()
+	{
+		webConfig = new WebConfig();
+		webConfig.setEntryRecordDelimiter("|");
+		webConfig.setDataValidationEnabled(true);
+		webConfig.getParallel().setParallelism(1);
+		config = new JobConfig();
+		config.setDirectory(directory.toString());
+		config.setConcurrency(1);
+		config.setQueueCapacity(0);
+		config.setCompression(ContentEncoding.ZSTD);
+		target = service(repository);
+	}
+
+	@AfterEach
+	public void shutdown()
+	{
+		target.shutdown();
+		repository.deleteAll();
+	}
+
+	@Test
+	@SneakyThrows
+	public void submit()
+	{
+		final var submitted = target.submit(resource("EntryFile.txt"), IP);
+		assertEquals(JobStatus.State.QUEUED, submitted.state());
+
+		final var status = await(submitted.id());
+		assertEquals(JobStatus.State.SUCCEEDED, status.state());
+		assertEquals(3, status.rows());
+		assertTrue(status.resultBytes() > 0);
+		assertTrue(status.rowsPerSecond() > 0);
+
+		final var result = target.result(submitted.id());
+		assertEquals(status.resultBytes(), Files.size(result.path()));
+		try (final var inputStream = result.encoding().decompress(Files.newInputStream(result.path())))
+		{
+			final var actual = new JSONArray(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+			JSONAssert.assertEquals(new JSONArray(new String(resource("Outcome.json").readAllBytes(), StandardCharsets.UTF_8)), actual, true);
+		}
+
+		target.delete(submitted.id());
+		assertFalse(Files.exists(result.path()));
+		assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class, () -> target.status(submitted.id())).getStatusCode());
+	}
+
+	@Test
+	@SneakyThrows
+	public void submitMalformed()
+	{
+		final var submitted = target.submit(resource("MalformedEntryFile.txt"), IP);
+
+		final var status = await(submitted.id());
+		assertEquals(JobStatus.State.FAILED, status.state());
+		assertEquals(400, status.errorStatus());
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ResponseStatusException.class, () -> target.result(submitted.id())).getStatusCode());
+	}
+
+	@Test
+	@SneakyThrows
+	public void submitQueueFull()
+	{
+		final var bytes = resource("EntryFile.txt").readAllBytes();
+		final var checked = new AtomicBoolean();
+		// A second job submitted while the first is still being received is refused
+		final var body = new ByteArrayInputStream(bytes)
+		{
+			@Override
+			public synchronized int read(final byte[] b, final int off, final int len)
+			{
+				check();
+				return super.read(b, off, len);
+			}
+
+			@Override
+			public synchronized long transferTo(final OutputStream out) throws IOException
+			{
+				check();
+				return super.transferTo(out);
+			}
+
+			private void check()
+			{
+				if (!checked.getAndSet(true))
+				{
+					assertEquals(HttpStatus.SERVICE_UNAVAILABLE, assertThrows(ResponseStatusException.class,
+							() -> target.submit(new ByteArrayInputStream(bytes), IP)).getStatusCode());
+				}
+			}
+		};
+
+		final var submitted = target.submit(body, IP);
+		assertTrue(checked.get());
+		assertEquals(JobStatus.State.SUCCEEDED, await(submitted.id()).state());
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	@SneakyThrows
+	public void submitAfterShutdown()
+	{
+		target.shutdown();
+
+		for (int i = 0; i < 2; i++)
+		{
+			// Refused by the executor each time, rather than by a queue still counting the first job
+			final var e = assertThrows(ResponseStatusException.class, () -> target.submit(resource("EntryFile.txt"), IP));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+			assertTrue(e.getReason().startsWith("Jobs are not being accepted"));
+		}
+		assertEquals(0, repository.count());
+		try (final var files = Files.list(directory))
+		{
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	@SneakyThrows
+	public void resume()
+	{
+		final var queued = job(JobStatus.State.QUEUED);
+		Files.copy(resource("EntryFile.txt"), directory.resolve(queued.getJobId() + ".input"));
+		final var lost = job(JobStatus.State.RUNNING);
+
+		target.resume();
+
+		assertEquals(JobStatus.State.SUCCEEDED, await(queued.getJobId()).state());
+		final var status = target.status(lost.getJobId());
+		assertEquals(JobStatus.State.FAILED, status.state());
+		assertEquals(500, status.errorStatus());
+	}
+
+	@Test
+	@SneakyThrows
+	public void deleteStartedMeanwhile()
+	{
+		final var job = job(JobStatus.State.QUEUED);
+		final var racing = mock(JobRepository.class, AdditionalAnswers.delegatesTo(repository));
+		// The job starts after delete has found it, but before it is deleted
+		doAnswer(invocation ->
+		{
+			final var found = repository.findById(job.getJobId());
+			assertEquals(1, repository.start(job.getJobId(), Timestamp.from(Instant.now()), ContentEncoding.ZSTD));
+			return found;
+		}).when(racing).findById(job.getJobId());
+		target.shutdown();
+		target = service(racing);
+
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ResponseStatusException.class, () -> target.delete(job.getJobId())).getStatusCode());
+		assertEquals(JobStatus.State.RUNNING, repository.findById(job.getJobId()).orElseThrow().getState());
+	}
+
+	@Test
+	@SneakyThrows
+	public void deleteWhileStarting()
+	{
+		final var job = job(JobStatus.State.QUEUED);
+		Files.copy(resource("EntryFile.txt"), directory.resolve(job.getJobId() + ".input"));
+		final var racing = mock(JobRepository.class, AdditionalAnswers.delegatesTo(repository));
+		// The job is deleted after the worker has found it, but before it starts
+		doAnswer(invocation ->
+		{
+			final var found = repository.findById(job.getJobId());
+			assertEquals(1, repository.deleteUnlessRunning(job.getJobId()));
+			return found;
+		}).when(racing).findById(job.getJobId());
+		target.shutdown();
+		config.setQueueCapacity(1);
+		target = service(racing);
+
+		target.resume();
+		// With one worker, the next job only runs once the deleted one has been dealt with
+		assertEquals(JobStatus.State.SUCCEEDED, await(target.submit(resource("EntryFile.txt"), IP).id()).state());
+
+		assertFalse(repository.existsById(job.getJobId()));
+		assertEquals(1, repository.count());
+	}
+
+	private JobService service(final JobRepository repository) throws IOException
+	{
+		final var parser = new PipeEntryParser(webConfig);
+		return new JobService(config, repository, parser, new ParallelEntryConverter(webConfig, parser), new OutcomeWriter(new ObjectMapper()));
+	}
+
+	private JobEntity job(final JobStatus.State state)
+	{
+		final var job = new JobEntity();
+		job.setJobId(UUID.randomUUID());
+		job.setState(state);
+		job.setRequestIpAddress(IP);
+		job.setSubmitted(Timestamp.from(Instant.now()));
+		return repository.save(job);
+	}
+
+	@SneakyThrows
+	private JobStatus await(final UUID id)
+	{
+		final var deadline = Instant.now().plus(TIMEOUT);
+		var status = target.status(id);
+		while ((status.state() == JobStatus.State.QUEUED || status.state() == JobStatus.State.RUNNING) && Instant.now().isBefore(deadline))
+		{
+			Thread.sleep(10);
+			status = target.status(id);
+		}
+		return status;
+	}
+
+	private InputStream resource(final String name)
+	{
+		return getClass().getResourceAsStream("/" + name);
+	}
+}
@@ -0,0 +1,87 @@
+package io.anderson.ashley.gg.log;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+public class LogRetentionTest
+{
+	private static final Instant NOW = Instant.parse("2026-03-31T12:00:00Z");
+
+	@Autowired
+	private LogRepository repository;
+	@Autowired
+	private LogSummaryRepository summaryRepository;
+	private ColumnLogPartitions partitions;
+	private LogRetention target;
+
+	@BeforeEach
+	public void init()
+	{
+		final var config = new LogConfig();
+		config.getRetention().setPeriod(Duration.ofDays(30));
+		partitions = new ColumnLogPartitions(repository);
+		target = new LogRetention(config, partitions, summaryRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void maintain()
+	{
+		log(NOW.minus(Duration.ofDays(40)));
+		log(NOW.minus(Duration.ofDays(31)));
+		log(NOW.minus(Duration.ofDays(30)));
+		log(NOW);
+		summary(NOW.minus(Duration.ofDays(400)));
+		summary(NOW.minus(Duration.ofDays(10)));
+
+		assertEquals(List.of(LocalDate.parse("2026-02-19"), LocalDate.parse("2026-02-20")),
+				partitions.findBefore(LocalDate.parse("2026-02-21")));
+
+		target.maintain();
+
+		assertEquals(List.of(NOW.minus(Duration.ofDays(30)), NOW),
+				repository.findAll().stream().map(log -> log.getRequestTimestamp().toInstant()).sorted().toList());
+		assertEquals(List.of(), partitions.findBefore(LocalDate.parse("2026-03-01")));
+		assertEquals(List.of(NOW.minus(Duration.ofDays(10))),
+				summaryRepository.findAll().stream().map(summary -> summary.getMinute().toInstant()).toList());
+	}
+
+	private void log(final Instant timestamp)
+	{
+		final var entity = new LogEntity();
+		entity.setRequestId(UUID.randomUUID());
+		entity.setRequestUri(URI.create("http://localhost"));
+		entity.setRequestTimestamp(Timestamp.from(timestamp));
+		entity.setPartitionDay(LogEntity.partitionDay(entity.getRequestTimestamp()));
+		entity.setRequestIpAddress("86.8.134.206");
+		repository.save(entity);
+	}
+
+	private void summary(final Instant minute)
+	{
+		final var summary = new LogSummaryEntity();
+		summary.setMinute(Timestamp.from(minute));
+		summary.setLatency(new byte[0]);
+		summary.setStatuses("{}");
+		summary.setCountries("{}");
+		summary.setProviders("{}");
+		summaryRepository.save(summary);
+	}
+}
@@ -1,18 +1,37 @@
 package io.anderson.ashley.gg.log;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.anderson.ashley.gg.model.LogRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
 
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -27,14 +46,31 @@ public class LogServiceTest
 	private static final String COUNTRY_CODE = "GB";
 	private static final String ISP = "Virgin Media";
 
+	@Autowired
+	private LogConfig config;
 	@Autowired
 	private LogRepository repository;
+	@Autowired
+	private LogSummaryRepository summaryRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private Environment environment;
+	private MeterRegistry registry;
+	private LogWriter writer;
+	private RequestStats stats;
 	private LogService target;
 
 	@BeforeEach
 	public void init()
 	{
-		target = new LogService(repository);
+		config.getWriteBehind().setEnabled(false);
+		registry = new SimpleMeterRegistry();
+		writer = new LogWriter(config, entityManager, transactionTemplate, environment, registry);
+		stats = new RequestStats(config, summaryRepository, new ObjectMapper());
+		target = new LogService(config, repository, writer, stats, registry);
 	}
 
 	@Test
@@ -54,5 +90,164 @@ public class LogServiceTest
 		assertEquals(COUNTRY_CODE, entity.getRequestCountryCode());
 		assertEquals(ISP, entity.getRequestIpProvider());
 		assertEquals(5000L, entity.getTimeLapsed());
+		assertEquals(1, registry.get("gg.log.persist").tag("mode", "direct").timer().count());
+		assertEquals(1, stats.stats(1).countries().get(COUNTRY_CODE).requests());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void logRequestWriteBehind()
+	{
+		config.getWriteBehind().setEnabled(true);
+		final var logRequest = new LogRequest(REQUEST, VALIDATION, IP, START, END, HTTP_STATUS, COUNTRY_CODE, ISP);
+
+		try
+		{
+			writer.start();
+			for (int i = 0; i < 5; i++)
+			{
+				target.logRequest(logRequest);
+			}
+			writer.stop();
+
+			final var entities = repository.findAll();
+			assertEquals(5, entities.size());
+			assertEquals(0L, writer.getDropped());
+			assertEquals(5, (long) registry.get("gg.log.batch").summary().totalAmount());
+			entities.forEach(entity -> assertEquals(IP, entity.getRequestIpAddress()));
+		}
+		finally
+		{
+			repository.deleteAll();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void logRequestWriteBehindInterrupted()
+	{
+		config.getWriteBehind().setEnabled(true);
+		final var logRequest = new LogRequest(REQUEST, VALIDATION, IP, START, END, HTTP_STATUS, COUNTRY_CODE, ISP);
+		final var interrupting = spy(transactionTemplate);
+		// The writer is interrupted as it writes its first batch, with more records queued behind it
+		doAnswer(invocation ->
+		{
+			invocation.callRealMethod();
+			if (registry.get("gg.log.batch").summary().count() == 1)
+			{
+				for (int i = 0; i < 3; i++)
+				{
+					target.logRequest(logRequest);
+				}
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}).when(interrupting).executeWithoutResult(any());
+		writer = new LogWriter(config, entityManager, interrupting, environment, registry);
+		target = new LogService(config, repository, writer, stats, registry);
+
+		try
+		{
+			writer.start();
+			target.logRequest(logRequest);
+
+			assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+			{
+				// The first batch, then the rest once interrupted
+				while (registry.get("gg.log.persist").tag("mode", "write-behind").timer().count() < 2)
+				{
+					Thread.sleep(10);
+				}
+			});
+			writer.stop();
+			assertEquals(4, repository.count());
+			assertEquals(0L, writer.getDropped());
+		}
+		finally
+		{
+			repository.deleteAll();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void logRequestWriteBehindSampled()
+	{
+		final var writeBehind = config.getWriteBehind();
+		final var sampled = new LogConfig.WriteBehind();
+		sampled.setEnabled(true);
+		sampled.setQueueCapacity(1);
+		sampled.setBatchSize(1);
+		sampled.setFlushInterval(writeBehind.getFlushInterval());
+		sampled.setBackpressure(LogConfig.Backpressure.SAMPLE);
+		sampled.setSampleRate(1);
+		config.setWriteBehind(sampled);
+		final var logRequest = new LogRequest(REQUEST, VALIDATION, IP, START, END, HTTP_STATUS, COUNTRY_CODE, ISP);
+		final var persisting = new CountDownLatch(1);
+		final var persisted = new CountDownLatch(1);
+		final var stalling = spy(transactionTemplate);
+		// The writer is stuck on its first batch, so the queue stays full
+		doAnswer(invocation ->
+		{
+			persisting.countDown();
+			persisted.await();
+			invocation.callRealMethod();
+			return null;
+		}).when(stalling).executeWithoutResult(any());
+		writer = new LogWriter(config, entityManager, stalling, environment, registry);
+		target = new LogService(config, repository, writer, stats, registry);
+
+		try
+		{
+			writer.start();
+			target.logRequest(logRequest);
+			assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+			{
+				persisting.await();
+				// Fills the queue, then is sampled with the queue full
+				target.logRequest(logRequest);
+				target.logRequest(logRequest);
+			});
+			persisted.countDown();
+			writer.stop();
+
+			assertEquals(1L, writer.getDropped());
+			assertEquals(2, repository.count());
+		}
+		finally
+		{
+			persisted.countDown();
+			config.setWriteBehind(writeBehind);
+			repository.deleteAll();
+		}
+	}
+
+	@Test
+	public void findLogs()
+	{
+		// Whole milliseconds, so that the records held in the persistence context match what the database stored
+		final var base = START.truncatedTo(ChronoUnit.MILLIS);
+		for (int i = 0; i < 5; i++)
+		{
+			// Two records share each timestamp, so pages have to be split on the ID too
+			final var start = base.plus(Duration.ofMinutes(i / 2));
+			target.logRequest(new LogRequest(REQUEST, VALIDATION, i % 2 == 0 ? IP : "52.17.7.98", start, END, i == 4 ? 403 : HTTP_STATUS, COUNTRY_CODE, ISP));
+		}
+
+		final var first = target.findLogs(new LogQuery(null, null, null, null, null, 2, null));
+		assertEquals(2, first.logs().size());
+		assertNotNull(first.next());
+		final var second = target.findLogs(new LogQuery(null, null, null, null, null, 2, LogCursor.parse(first.next())));
+		final var third = target.findLogs(new LogQuery(null, null, null, null, null, 2, LogCursor.parse(second.next())));
+		assertEquals(1, third.logs().size());
+		assertNull(third.next());
+
+		final var all = Stream.of(first, second, third).flatMap(page -> page.logs().stream()).toList();
+		assertEquals(5, all.stream().map(LogEntity::getRequestId).distinct().count());
+		assertEquals(all.stream().sorted(Comparator.comparing(LogEntity::getRequestTimestamp).reversed()).map(LogEntity::getRequestTimestamp).toList(),
+				all.stream().map(LogEntity::getRequestTimestamp).toList());
+
+		assertEquals(List.of(403), target.findLogs(new LogQuery(null, null, IP, 403, COUNTRY_CODE, 10, null)).logs().stream().map(LogEntity::getResponseStatus).toList());
+		assertEquals(2, target.findLogs(new LogQuery(base.plus(Duration.ofMinutes(1)), base.plus(Duration.ofMinutes(2)), null, null, null, 10, null)).logs().size());
 	}
 }
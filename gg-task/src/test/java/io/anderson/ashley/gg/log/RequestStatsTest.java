@@ -0,0 +1,108 @@
+package io.anderson.ashley.gg.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.model.LogRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+public class RequestStatsTest
+{
+	private static final URI REQUEST = URI.create("http://localhost");
+	private static final String IP = "86.8.134.206";
+	private static final Instant NOW = Instant.parse("2026-03-31T12:00:30Z");
+
+	@Autowired
+	private LogSummaryRepository repository;
+	private LogConfig config;
+	private RequestStats target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new LogConfig();
+		config.getStats().setWindow(Duration.ofMinutes(10));
+		config.getStats().setTop(2);
+		target = requestStats();
+	}
+
+	@Test
+	public void stats()
+	{
+		for (int i = 1; i <= 100; i++)
+		{
+			record(NOW.minus(Duration.ofMinutes(i % 2)), i, i % 4 == 0 ? 403 : 200, i % 4 == 0 ? "CN" : "GB", i % 3 == 0 ? "Amazon" : "Virgin Media");
+		}
+		record(NOW, 1, 200, null, "BT");
+		// Outside the window
+		record(NOW.minus(Duration.ofMinutes(20)), 1, 200, "GB", "BT");
+
+		final var stats = target.stats(10);
+		assertEquals(NOW.minus(Duration.ofSeconds(30)).minus(Duration.ofMinutes(9)), stats.from());
+		assertEquals(101, stats.requests());
+		assertEquals(101 / 570.0, stats.requestsPerSecond(), 1e-9);
+		assertEquals(Map.of(200, 76L, 403, 25L), stats.statuses());
+		assertEquals(List.of("GB", "CN"), List.copyOf(stats.countries().keySet()));
+		assertEquals(new LogStats.Counts(25, 25, 1.0), stats.countries().get("CN"));
+		assertEquals(new LogStats.Counts(67, 17, 17 / 67.0), stats.providers().get("Virgin Media"));
+		assertEquals(100, stats.latency().max(), 1);
+		assertEquals(50, stats.latency().p50(), 1);
+		assertEquals(99, stats.latency().p99(), 1);
+
+		// Only the current minute: the even numbered requests, and the one from BT
+		assertEquals(51, target.stats(1).requests());
+	}
+
+	@Test
+	public void flush()
+	{
+		for (int i = 1; i <= 10; i++)
+		{
+			record(NOW.minus(Duration.ofMinutes(i % 2)), i * 10, 200, "GB", "Virgin Media");
+		}
+
+		target.flush();
+		assertEquals(2, repository.count());
+		record(NOW, 1000, 403, "GB", "Virgin Media");
+		target.flush();
+
+		final var history = target.history(NOW.minus(Duration.ofHours(1)), NOW);
+		assertEquals(11, history.requests());
+		assertEquals(Map.of(200, 10L, 403, 1L), history.statuses());
+		assertEquals(new LogStats.Counts(11, 1, 1 / 11.0), history.countries().get("GB"));
+		assertEquals(1000, history.latency().max(), 10);
+
+		// A restart carries on from the flushed buckets
+		target = requestStats();
+		target.load();
+		record(NOW, 1, 200, "GB", "BT");
+		target.flush();
+		assertEquals(12, target.stats(10).requests());
+		assertEquals(12, target.history(NOW.minus(Duration.ofHours(1)), NOW).requests());
+	}
+
+	private RequestStats requestStats()
+	{
+		return new RequestStats(config, repository, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	private void record(final Instant end, final long latency, final int status, final String country, final String isp)
+	{
+		target.record(new LogRequest(REQUEST, null, IP, end.minusMillis(latency), end, status, country, isp));
+	}
+}
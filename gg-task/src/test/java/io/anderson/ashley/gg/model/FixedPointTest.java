@@ -0,0 +1,70 @@
+package io.anderson.ashley.gg.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FixedPointTest
+{
+	@Test
+	public void parse()
+	{
+		for (final var value : List.of("95.5", "35.0", "0.0", "-0.5", "+12.1", "007.5", "-123456789012345.6"))
+		{
+			final var tenths = FixedPoint.parse(value);
+			assertEquals(new BigDecimal(value), FixedPoint.toBigDecimal(tenths), value);
+			assertEquals(FixedPoint.toString(tenths), new BigDecimal(value).toString(), value);
+			assertEquals(tenths, FixedPoint.parse(("|" + value + "|").toCharArray(), 1, value.length() + 1), value);
+		}
+	}
+
+	@Test
+	public void parseNotFixedPoint()
+	{
+		for (final var value : List.of("", "-", "95", "95.", ".5", "95.55", "9.5e1", "95,5", "٩٥.٥", "1234567890123456789.0"))
+		{
+			assertEquals(FixedPoint.NONE, FixedPoint.parse(value), value);
+		}
+		assertNull(FixedPoint.toBigDecimal(FixedPoint.NONE));
+	}
+
+	@Test
+	public void entry()
+	{
+		final var fixedPoint = new Entry(null, "1", "Mike Smith", "Likes Grape", "Drives an SUV", null, null, 355, 955);
+		final var decimal = new Entry(null, "1", "Mike Smith", "Likes Grape", "Drives an SUV", new BigDecimal("35.5"), new BigDecimal("95.5"));
+
+		assertNull(fixedPoint.averageSpeedValue());
+		assertNull(fixedPoint.topSpeedValue());
+		assertEquals(decimal.averageSpeed(), fixedPoint.averageSpeed());
+		assertEquals(decimal.topSpeed(), fixedPoint.topSpeed());
+		assertEquals(decimal, fixedPoint);
+		assertEquals(decimal.hashCode(), fixedPoint.hashCode());
+		assertEquals(decimal.toString(), fixedPoint.toString());
+	}
+
+	@Test
+	@SneakyThrows
+	public void serialise()
+	{
+		final var objectMapper = new ObjectMapper();
+		final var fixedPoint = new Outcome("Mike Smith", "Drives an SUV", null, 955);
+		final var decimal = new Outcome("Mike Smith", "Drives an SUV", new BigDecimal("95.5"));
+
+		assertNull(fixedPoint.topSpeedValue());
+		assertEquals(decimal.topSpeed(), fixedPoint.topSpeed());
+		assertEquals(decimal, fixedPoint);
+		assertEquals(decimal.hashCode(), fixedPoint.hashCode());
+		assertEquals(objectMapper.writeValueAsString(decimal), objectMapper.writeValueAsString(fixedPoint));
+		assertArrayEquals(objectMapper.writeValueAsBytes(decimal), objectMapper.writeValueAsBytes(fixedPoint));
+		assertEquals("{\"name\":\"Mike Smith\",\"transport\":\"Drives an SUV\",\"topSpeed\":95.5}", objectMapper.writeValueAsString(fixedPoint));
+		assertEquals(decimal, objectMapper.readValue(objectMapper.writeValueAsString(fixedPoint), Outcome.class));
+	}
+}
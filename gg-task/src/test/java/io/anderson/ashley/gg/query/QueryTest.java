@@ -0,0 +1,114 @@
+package io.anderson.ashley.gg.query;
+
+import io.anderson.ashley.gg.model.Entry;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.FixedPoint;
+import io.anderson.ashley.gg.model.Outcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryTest
+{
+	private static final Entry BIKE = new Entry(UUID.fromString("18148426-89e1-11ee-b9d1-0242ac120002"), "1X1D14", "John Smith", "Likes Apricots", "Rides A Bike", new BigDecimal("6.2"), new BigDecimal("12.1"));
+	private static final Entry SUV = new Entry(UUID.fromString("3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7"), "2X2D24", "Mike Smith", "Likes Grape", "Drives an SUV", null, null, 350, 955);
+	private static final Entry SCOOTER = new Entry(UUID.fromString("1afb6f5d-a7c2-4311-a92d-974f3180ff5e"), "3X3D35", "Jenny Walters", "Likes Avocados", "Rides A Scooter", new BigDecimal("8.5"), new BigDecimal("15.3"));
+	private static final Entry BUS = new Entry(null, null, "Sam Jones", null, "Rides A Bike", null, null, FixedPoint.NONE, 501);
+
+	@Test
+	public void parseDefault()
+	{
+		final var query = Query.parse(null, null, null, null);
+		assertEquals(Query.OUTCOMES, query);
+		assertTrue(query.isOutcome());
+		assertEquals(EntryField.OUTCOME, query.materialise());
+		assertEquals(List.of(Outcome.fromEntry(BIKE), Outcome.fromEntry(SUV)), query.rows(Stream.of(BIKE, SUV)).toList());
+	}
+
+	@Test
+	public void parseInvalid()
+	{
+		for (final var query : List.<Runnable>of(
+				() -> Query.parse(new String[] { "name,speed" }, null, null, null),
+				() -> Query.parse(null, new String[] { "topSpeed>fast" }, null, null),
+				() -> Query.parse(null, new String[] { "transport>Bike" }, null, null),
+				() -> Query.parse(null, new String[] { "topSpeed~5" }, null, null),
+				() -> Query.parse(null, new String[] { "topSpeed" }, null, null),
+				() -> Query.parse(null, null, "transport", null),
+				() -> Query.parse(null, null, null, "colour")))
+		{
+			final var e = assertThrows(ResponseStatusException.class, query::run);
+			assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		}
+	}
+
+	@Test
+	public void project()
+	{
+		final var query = Query.parse(new String[] { "uuid,topSpeed", "name" }, new String[] { "averageSpeed<10" }, null, null);
+		assertFalse(query.isOutcome());
+		assertEquals(EnumSet.of(EntryField.UUID, EntryField.NAME, EntryField.AVERAGE_SPEED, EntryField.TOP_SPEED), query.materialise());
+		assertEquals(List.of(new Projection(BIKE, List.of(EntryField.UUID, EntryField.TOP_SPEED, EntryField.NAME)),
+						new Projection(SCOOTER, List.of(EntryField.UUID, EntryField.TOP_SPEED, EntryField.NAME))),
+				query.rows(Stream.of(BIKE, SUV, SCOOTER)).toList());
+	}
+
+	@Test
+	public void filter()
+	{
+		assertEquals(List.of(SUV, BUS), filter("topSpeed>50"));
+		assertEquals(List.of(BIKE, SCOOTER, BUS), filter("topSpeed<=50.1"));
+		assertEquals(List.of(SUV), filter("topSpeed=95.50"));
+		assertEquals(List.of(BIKE, SCOOTER, BUS), filter("topSpeed!=95.5"));
+		assertEquals(List.of(SUV, SCOOTER), filter("topSpeed>=15.3", "averageSpeed>8"));
+		assertEquals(List.of(BIKE, BUS), filter("transport~bike"));
+		assertEquals(List.of(SUV), filter("transport=Drives an SUV"));
+		assertEquals(List.of(BIKE, SCOOTER), filter("likes!=Likes Grape"));
+		assertEquals(List.of(SUV), filter("uuid~3ce2d17b"));
+		assertEquals(List.of(BUS), filter("topSpeed>50.09", "topSpeed<50.11"));
+	}
+
+	@Test
+	public void aggregate()
+	{
+		final var query = Query.parse(null, new String[] { "topSpeed<90" }, null, "transport");
+		assertTrue(query.isAggregate());
+		assertEquals(EnumSet.of(EntryField.TOP_SPEED, EntryField.TRANSPORT), query.materialise());
+
+		final var aggregation = query.aggregation();
+		query.filter(Stream.of(BIKE, SUV, SCOOTER, BUS)).forEach(aggregation);
+		assertEquals(List.of(
+				Map.of("transport", "Rides A Bike", "count", 2L, "min", new BigDecimal("12.1"), "max", new BigDecimal("50.1"), "avg", new BigDecimal("31.100")),
+				Map.of("transport", "Rides A Scooter", "count", 1L, "min", new BigDecimal("15.3"), "max", new BigDecimal("15.3"), "avg", new BigDecimal("15.300"))),
+				aggregation.results());
+	}
+
+	@Test
+	public void aggregateUngrouped()
+	{
+		final var query = Query.parse(null, new String[] { "name=Nobody" }, "averageSpeed", null);
+		final var aggregation = query.aggregation();
+		query.filter(Stream.of(BIKE, SUV)).forEach(aggregation);
+		final var results = aggregation.results();
+		assertEquals(1, results.size());
+		assertEquals(0L, results.get(0).get("count"));
+		assertEquals(null, results.get(0).get("avg"));
+	}
+
+	private static List<Entry> filter(final String... filters)
+	{
+		return Query.parse(null, filters, null, null).filter(Stream.of(BIKE, SUV, SCOOTER, BUS)).toList();
+	}
+}
@@ -0,0 +1,225 @@
+package io.anderson.ashley.gg.upload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.convert.PipeEntryParser;
+import io.anderson.ashley.gg.model.Outcome;
+import io.anderson.ashley.gg.web.OutcomeFormat;
+import io.anderson.ashley.gg.web.OutcomeWriter;
+import io.anderson.ashley.gg.web.WebConfig;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UploadServiceTest
+{
+	private static final String ROW = "3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7|2X2D24|Mike Smith|Likes Grape|Drives an SUV|35.0|95.5";
+
+	@TempDir
+	private Path spoolDirectory;
+	private WebConfig config;
+	private OutcomeWriter outcomeWriter;
+	private UploadService target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+		config.getParallel().setEnabled(false);
+		config.getParallel().setParallelism(1);
+		config.getUpload().setSpoolDirectory(spoolDirectory.toString());
+		final var parser = new PipeEntryParser(config);
+		outcomeWriter = new OutcomeWriter(new ObjectMapper());
+		target = new UploadService(config, parser, new ParallelEntryConverter(config, parser), outcomeWriter);
+	}
+
+	@AfterEach
+	public void shutdown()
+	{
+		target.shutdown();
+	}
+
+	@Test
+	public void upload()
+	{
+		final var file = file(100, "\r\n").replace("Mike Smith", "Mïke Smïth 🚲");
+		for (final var chunkSize : List.of(1, 2, 7, 64, 1000, 1 << 16))
+		{
+			assertEquals(expected(file, OutcomeFormat.JSON), upload(file, chunkSize, OutcomeFormat.JSON), "chunk size " + chunkSize);
+			assertEquals(expected(file, OutcomeFormat.NDJSON), upload(file, chunkSize, OutcomeFormat.NDJSON), "chunk size " + chunkSize);
+		}
+	}
+
+	@Test
+	public void uploadNoTrailingLineBreak()
+	{
+		final var file = file(3, "\n").strip();
+		assertEquals(expected(file, OutcomeFormat.JSON), upload(file, 50, OutcomeFormat.JSON));
+	}
+
+	@Test
+	@SneakyThrows
+	public void status()
+	{
+		final var bytes = file(10, "\n").getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+
+		put(id, bytes, 200, 299);
+		put(id, bytes, 0, 99);
+		final var status = put(id, bytes, 100, 199);
+
+		assertEquals(bytes.length, status.length());
+		assertEquals(List.of(new UploadStatus.Range(0, 299)), status.received());
+		assertFalse(status.complete());
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ResponseStatusException.class, () -> target.commit(id)).getStatusCode());
+
+		put(id, bytes, 300, bytes.length - 1);
+		assertTrue(target.status(id).complete());
+	}
+
+	@Test
+	@SneakyThrows
+	public void retryChunk()
+	{
+		final var file = file(10, "\n");
+		final var bytes = file.getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+
+		put(id, bytes, 0, 99);
+		put(id, bytes, 0, 99);
+		put(id, bytes, 100, bytes.length - 1);
+
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ResponseStatusException.class, () -> put(id, bytes, 50, 149)).getStatusCode());
+		assertEquals(expected(file, OutcomeFormat.JSON), commit(id, OutcomeFormat.JSON));
+		try (final var files = Files.list(spoolDirectory))
+		{
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	@SneakyThrows
+	public void malformedChunk()
+	{
+		final var bytes = (ROW + "\nnot-a-uuid" + ROW.substring(36) + "\n" + ROW + "\n").getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () -> put(id, bytes, 0, bytes.length - 1)).getStatusCode());
+		assertEquals(List.of(), target.status(id).received());
+	}
+
+	@Test
+	@SneakyThrows
+	public void malformedAcrossChunks()
+	{
+		final var bytes = (ROW + "\nnot-a-uuid" + ROW.substring(36) + "\n" + ROW + "\n").getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+
+		put(id, bytes, 0, ROW.length() + 5);
+		put(id, bytes, ROW.length() + 6, bytes.length - 1);
+
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () -> target.commit(id)).getStatusCode());
+	}
+
+	@Test
+	@SneakyThrows
+	public void invalidChunk()
+	{
+		config.getUpload().setMaxChunkSize(DataSize.ofBytes(100));
+		final var bytes = file(10, "\n").getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, assertThrows(ResponseStatusException.class, () -> put(id, bytes, 0, 100)).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+				() -> target.put(id, new ContentRange(0, 99, bytes.length), new ByteArrayInputStream(bytes, 0, 50))).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+				() -> target.put(id, new ContentRange(0, 49, bytes.length), new ByteArrayInputStream(bytes, 0, 51))).getStatusCode());
+		// Nothing received is left behind
+		try (final var files = Files.walk(spoolDirectory))
+		{
+			assertEquals(0, files.filter(Files::isRegularFile).count());
+		}
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () -> ContentRange.parse("bytes 10-9/100")).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class, () -> ContentRange.parse("bytes 0-99/*")).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class, () -> target.status(UUID.randomUUID())).getStatusCode());
+	}
+
+	/**
+	 * Upload a file in chunks of the given size, sent in a random order.
+	 */
+	@SneakyThrows
+	private String upload(final String file, final int chunkSize, final OutcomeFormat format)
+	{
+		final var bytes = file.getBytes(StandardCharsets.UTF_8);
+		final var id = target.create().id();
+		final var starts = new ArrayList<>(IntStream.iterate(0, start -> start < bytes.length, start -> start + chunkSize).boxed().toList());
+		Collections.shuffle(starts, new Random(chunkSize));
+		for (final var start : starts)
+		{
+			put(id, bytes, start, Math.min(bytes.length, start + chunkSize) - 1);
+		}
+		return commit(id, format);
+	}
+
+	@SneakyThrows
+	private UploadStatus put(final UUID id, final byte[] bytes, final int start, final int end)
+	{
+		return target.put(id, new ContentRange(start, end, bytes.length), new ByteArrayInputStream(Arrays.copyOfRange(bytes, start, end + 1)));
+	}
+
+	@SneakyThrows
+	private String commit(final UUID id, final OutcomeFormat format)
+	{
+		final var outputStream = new ByteArrayOutputStream();
+		try (final var upload = target.commit(id))
+		{
+			upload.write(outputStream, format);
+		}
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+
+	@SneakyThrows
+	private String expected(final String file, final OutcomeFormat format)
+	{
+		final var outputStream = new ByteArrayOutputStream();
+		try (final var entries = new PipeEntryParser(config).parse(new StringReader(file)))
+		{
+			outcomeWriter.write(format, entries.map(Outcome::fromEntry), outputStream);
+		}
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+
+	private static String file(final int rows, final String lineEnding)
+	{
+		return IntStream.range(0, rows)
+				.mapToObj(i -> ROW.replace("Mike Smith", "Mike Smith " + i).replace("95.5", i + ".5"))
+				.collect(Collectors.joining(lineEnding, "", lineEnding));
+	}
+}
@@ -0,0 +1,109 @@
+package io.anderson.ashley.gg.validation;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlocklistTest
+{
+	@TempDir
+	private Path tempDir;
+	private ValidationConfig config;
+	private Blocklist target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new ValidationConfig();
+		config.setBlockedCountries(List.of("CN", "ES", "US", "XKX"));
+		config.setBlockedProviders(List.of("Amazon", "Google", "Microsoft", "he", "she", "hers"));
+		target = new Blocklist(config);
+	}
+
+	@Test
+	public void isCountryBlocked()
+	{
+		assertTrue(target.isCountryBlocked("CN"));
+		assertTrue(target.isCountryBlocked("US"));
+		assertTrue(target.isCountryBlocked("XKX"));
+		assertFalse(target.isCountryBlocked("GB"));
+		assertFalse(target.isCountryBlocked("cn"));
+		assertFalse(target.isCountryBlocked(""));
+		assertFalse(target.isCountryBlocked(null));
+	}
+
+	@Test
+	public void isIspBlocked()
+	{
+		assertTrue(target.isIspBlocked("Amazon.com, Inc."));
+		assertTrue(target.isIspBlocked("Google LLC"));
+		assertTrue(target.isIspBlocked("ushers"));
+		assertFalse(target.isIspBlocked("Virgin Media"));
+		assertFalse(target.isIspBlocked("amazon"));
+		assertFalse(target.isIspBlocked(null));
+	}
+
+	@Test
+	public void isIspBlockedMatchesContains()
+	{
+		final var random = new Random(42);
+		final var providers = IntStream.range(0, 500).mapToObj(i -> randomString(random, 1 + random.nextInt(4))).toList();
+		config.setBlockedProviders(providers);
+		target = new Blocklist(config);
+
+		for (int i = 0; i < 5000; i++)
+		{
+			final var isp = randomString(random, random.nextInt(20));
+			assertEquals(providers.stream().anyMatch(isp::contains), target.isIspBlocked(isp), isp);
+		}
+	}
+
+	@Test
+	public void isIspBlockedEmptyProvider()
+	{
+		config.setBlockedProviders(List.of(""));
+		target = new Blocklist(config);
+
+		assertTrue(target.isIspBlocked("Virgin Media"));
+	}
+
+	@Test
+	@SneakyThrows
+	public void reload()
+	{
+		final var file = tempDir.resolve("blocklist.yaml");
+		Files.writeString(file, """
+				blocked-providers:
+				  - Virgin
+				""");
+		config.setBlocklistFile(file);
+
+		target.reload();
+
+		assertTrue(target.isIspBlocked("Virgin Media"));
+		assertFalse(target.isIspBlocked("Amazon.com, Inc."));
+		// Not in the file, so unchanged
+		assertTrue(target.isCountryBlocked("CN"));
+	}
+
+	private static String randomString(final Random random, final int length)
+	{
+		final var builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+		{
+			builder.append((char) ('a' + random.nextInt(4)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,109 @@
+package io.anderson.ashley.gg.validation;
+
+import io.anderson.ashley.gg.model.ValidationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LookupCollectorTest
+{
+	private static final String IP_1 = "86.8.134.206";
+	private static final String IP_2 = "52.17.7.98";
+	private static final String IP_3 = "111.13.49.147";
+
+	private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+	private LookupCollector target;
+
+	@AfterEach
+	public void shutdown()
+	{
+		target.close();
+	}
+
+	@Test
+	public void submitFillsBatch()
+	{
+		target = new LookupCollector(2, Duration.ofMinutes(1), this::lookup);
+
+		final var first = target.submit(IP_1);
+		assertFalse(first.isDone());
+		final var second = target.submit(IP_2);
+
+		assertTrue(first.isDone());
+		assertTrue(second.isDone());
+		assertEquals(List.of(List.of(IP_1, IP_2)), batches);
+	}
+
+	@Test
+	public void submitSharesQueuedLookup()
+	{
+		target = new LookupCollector(2, Duration.ofMinutes(1), this::lookup);
+
+		final var first = target.submit(IP_1);
+		final var second = target.submit(IP_1);
+		assertSame(first, second);
+		target.submit(IP_2);
+
+		assertEquals(List.of(List.of(IP_1, IP_2)), batches);
+	}
+
+	@Test
+	public void submitWaitsNoLongerThanMaxWait()
+	{
+		target = new LookupCollector(100, Duration.ofMillis(50), this::lookup);
+
+		final var first = target.submit(IP_1);
+		final var second = target.submit(IP_2);
+
+		assertEquals(SUCCESS, first.join().status());
+		assertEquals(SUCCESS, second.join().status());
+		assertEquals(List.of(List.of(IP_1, IP_2)), batches);
+
+		// The next batch gets its own wait
+		assertEquals(SUCCESS, target.submit(IP_3).join().status());
+		assertEquals(List.of(List.of(IP_1, IP_2), List.of(IP_3)), batches);
+	}
+
+	@Test
+	public void closeLooksUpQueued()
+	{
+		target = new LookupCollector(100, Duration.ofMinutes(1), this::lookup);
+
+		final var first = target.submit(IP_1);
+		target.close();
+
+		assertTrue(first.isDone());
+		assertEquals(List.of(List.of(IP_1)), batches);
+	}
+
+	@Test
+	public void submitAfterClose()
+	{
+		target = new LookupCollector(100, Duration.ofMinutes(1), this::lookup);
+		target.close();
+
+		assertEquals(SUCCESS, target.submit(IP_1).join().status());
+		assertEquals(List.of(List.of(IP_1)), batches);
+	}
+
+	private Map<String, CompletableFuture<ValidationResult>> lookup(final List<String> ipAddresses)
+	{
+		batches.add(ipAddresses);
+		return ipAddresses.stream().collect(Collectors.toMap(Function.identity(),
+				ip -> CompletableFuture.completedFuture(new ValidationResult(URI.create("localhost"), SUCCESS, "GB", "Virgin Media"))));
+	}
+}
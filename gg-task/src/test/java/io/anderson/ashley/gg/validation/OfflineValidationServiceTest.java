@@ -0,0 +1,120 @@
+package io.anderson.ashley.gg.validation;
+
+import io.anderson.ashley.gg.model.ValidationResult;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class OfflineValidationServiceTest
+{
+	private static final String IP_OKAY = "86.8.134.206";
+	private static final String IP_AWS = "52.17.7.98";
+	private static final String IP_BLOCKED = "111.13.49.147";
+	private static final String IP_V6 = "2a00:23c5:1234::1";
+	private static final String IP_UNKNOWN = "8.8.8.8";
+	private static final String IP_PRIVATE = "192.168.0.1";
+
+	@TempDir
+	private Path tempDir;
+	private Path database;
+	private OfflineValidationService target;
+
+	@BeforeEach
+	@SneakyThrows
+	public void init()
+	{
+		database = tempDir.resolve("ip-ranges.csv");
+		Files.copy(new ClassPathResource("ip-ranges.csv").getInputStream(), database, StandardCopyOption.REPLACE_EXISTING);
+
+		final var config = new ValidationConfig();
+		config.setBlockedCountries(List.of("CN", "ES", "US"));
+		config.setBlockedProviders(List.of("Amazon", "Google", "Microsoft"));
+		config.getOffline().setDatabase(database);
+		config.getOffline().setReloadInterval(Duration.ofMinutes(1));
+		target = new OfflineValidationService(config, new Blocklist(config));
+	}
+
+	@Test
+	public void validateIpAddressOkay()
+	{
+		final var result = target.validateIpAddress(IP_OKAY).join();
+
+		assertEquals(ValidationResult.Status.SUCCESS, result.status());
+		assertEquals("GB", result.country());
+		assertEquals("Virgin Media", result.isp());
+		assertEquals(database.toUri(), result.request());
+	}
+
+	@Test
+	public void validateIpAddressAWS()
+	{
+		final var result = target.validateIpAddress(IP_AWS).join();
+
+		assertEquals(ValidationResult.Status.BLOCKED_ISP, result.status());
+		assertEquals("IE", result.country());
+		assertEquals("Amazon.com, Inc.", result.isp());
+	}
+
+	@Test
+	public void validateIpAddressChina()
+	{
+		final var result = target.validateIpAddress(IP_BLOCKED).join();
+
+		assertEquals(ValidationResult.Status.BLOCKED_IP, result.status());
+		assertEquals("CN", result.country());
+	}
+
+	@Test
+	public void validateIpAddressIpV6()
+	{
+		final var result = target.validateIpAddress(IP_V6).join();
+
+		assertEquals(ValidationResult.Status.SUCCESS, result.status());
+		assertEquals("British Telecommunications PLC", result.isp());
+	}
+
+	@Test
+	public void validateIpAddressUnknown()
+	{
+		final var result = target.validateIpAddress(IP_UNKNOWN).join();
+
+		assertEquals(ValidationResult.Status.UNKNOWN_ERROR, result.status());
+		assertNull(result.country());
+	}
+
+	@Test
+	public void validateIpAddressPrivate()
+	{
+		final var result = target.validateIpAddress(IP_PRIVATE).join();
+
+		assertEquals(ValidationResult.Status.SUCCESS, result.status());
+	}
+
+	@Test
+	@SneakyThrows
+	public void reload()
+	{
+		final var replacement = tempDir.resolve("ip-ranges.csv.new");
+		Files.writeString(replacement, "8.8.8.0,8.8.8.255,US,Google LLC\n");
+		Files.setLastModifiedTime(replacement, FileTime.from(Instant.now().plusSeconds(60)));
+		Files.move(replacement, database, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		target.reload();
+
+		assertEquals(ValidationResult.Status.BLOCKED_IP, target.validateIpAddress(IP_UNKNOWN).join().status());
+		assertEquals(ValidationResult.Status.UNKNOWN_ERROR, target.validateIpAddress(IP_OKAY).join().status());
+	}
+}
@@ -0,0 +1,108 @@
+package io.anderson.ashley.gg.validation;
+
+import io.anderson.ashley.gg.model.ValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.UNKNOWN_ERROR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ValidationCacheTest
+{
+	private static final String IP = "86.8.134.206";
+
+	private ValidationConfig config;
+	private ValidationCache target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new ValidationConfig();
+		config.getCache().setEnabled(true);
+		config.getCache().setMaximumSize(100);
+		config.getCache().setSuccessTtl(Duration.ofMinutes(10));
+		config.getCache().setBlockedTtl(Duration.ofHours(1));
+		target = new ValidationCache(config);
+	}
+
+	@Test
+	public void getCoalescesConcurrentMisses()
+	{
+		final var lookups = new AtomicInteger();
+		final var pending = new CompletableFuture<ValidationResult>();
+
+		final var first = target.get(IP, ip ->
+		{
+			lookups.incrementAndGet();
+			return pending;
+		});
+		final var second = target.get(IP, ip ->
+		{
+			lookups.incrementAndGet();
+			return pending;
+		});
+		pending.complete(generateValidationResult(SUCCESS));
+
+		assertSame(first.join(), second.join());
+		assertEquals(1, lookups.get());
+		assertEquals(1, target.stats().hitCount());
+		assertEquals(1, target.stats().missCount());
+	}
+
+	@Test
+	public void getCachesBlockedResult()
+	{
+		final var lookups = new AtomicInteger();
+
+		target.get(IP, ip -> lookup(lookups, BLOCKED_IP)).join();
+		final var result = target.get(IP, ip -> lookup(lookups, BLOCKED_IP)).join();
+
+		assertEquals(BLOCKED_IP, result.status());
+		assertEquals(1, lookups.get());
+	}
+
+	@Test
+	public void getDoesNotCacheErrors()
+	{
+		final var lookups = new AtomicInteger();
+
+		target.get(IP, ip -> lookup(lookups, UNKNOWN_ERROR)).join();
+		target.get(IP, ip -> lookup(lookups, UNKNOWN_ERROR)).join();
+
+		assertEquals(2, lookups.get());
+	}
+
+	@Test
+	public void getDisabled()
+	{
+		config.getCache().setEnabled(false);
+		final var lookups = new AtomicInteger();
+
+		target.get(IP, ip -> lookup(lookups, SUCCESS)).join();
+		target.get(IP, ip -> lookup(lookups, SUCCESS)).join();
+
+		assertEquals(2, lookups.get());
+	}
+
+	private CompletableFuture<ValidationResult> lookup(final AtomicInteger lookups, final ValidationResult.Status status)
+	{
+		lookups.incrementAndGet();
+		return CompletableFuture.completedFuture(generateValidationResult(status));
+	}
+
+	private ValidationResult generateValidationResult(final ValidationResult.Status status)
+	{
+		return new ValidationResult(URI.create("localhost"),
+				status,
+				"GB",
+				"Virgin Media");
+	}
+}
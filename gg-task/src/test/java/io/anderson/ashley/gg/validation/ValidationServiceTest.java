@@ -4,23 +4,47 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.maciejwalkowiak.wiremock.spring.ConfigureWireMock;
 import com.maciejwalkowiak.wiremock.spring.EnableWireMock;
 import com.maciejwalkowiak.wiremock.spring.InjectWireMock;
+import io.anderson.ashley.gg.model.IpValidationResult;
 import io.anderson.ashley.gg.model.ValidationResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.Resource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.ConnectionObserver;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @EnableWireMock({
@@ -31,9 +55,16 @@ public class ValidationServiceTest
 	private static final String IP_OKAY = "86.8.134.206";
 	private static final String IP_AWS = "52.17.7.98";
 	private static final String IP_BLOCKED = "111.13.49.147";
+	private static final int REQUESTS = 10;
 	@Autowired
 	private ValidationConfig config;
+	@Autowired
+	private ValidationClientConfig clientConfig;
 	private ValidationService target;
+	private Blocklist blocklist;
+	@TempDir
+	private Path tempDir;
+	private MeterRegistry registry;
 	@InjectWireMock("validation-service")
 	private WireMockServer wireMock;
 	@Value("classpath:Outcome.json")
@@ -48,7 +79,28 @@ public class ValidationServiceTest
 	@BeforeEach
 	public void init()
 	{
-		target = new ValidationService(config);
+		registry = new SimpleMeterRegistry();
+		config.getCache().setEnabled(true);
+		config.getBatch().setRequestUrl(wireMock.baseUrl() + "/batch");
+		config.getBatch().setSize(100);
+		config.getBatch().setRequestsPerMinute(15);
+		config.getBatch().setMaxWait(Duration.ofMinutes(1));
+		config.getBatch().getCollector().setEnabled(false);
+		config.setBlocklistFile(null);
+		blocklist = new Blocklist(config);
+		target = new ValidationService(config,
+				blocklist,
+				new ValidationCache(config),
+				clientConfig.ipApiWebClient(config),
+				clientConfig.ipApiCircuitBreaker(config),
+				clientConfig.ipApiBatchRateLimiter(config),
+				registry);
+	}
+
+	@AfterEach
+	public void shutdown()
+	{
+		target.shutdown();
 	}
 
 	@Test
@@ -61,6 +113,7 @@ public class ValidationServiceTest
 		assertEquals(ValidationResult.Status.SUCCESS, result.status());
 		assertEquals(jsonObject.getString("countryCode"), result.country());
 		assertEquals(jsonObject.getString("isp"), result.isp());
+		assertEquals(1, registry.get("gg.validation.ip-api").tag("status", "SUCCESS").timer().count());
 	}
 
 	@Test
@@ -87,6 +140,217 @@ public class ValidationServiceTest
 		assertEquals(jsonObject.getString("isp"), result.isp());
 	}
 
+	@Test
+	public void validateIpAddressCached() throws JSONException
+	{
+		initWireMock(okay, IP_OKAY);
+
+		final var first = target.validateIpAddress(IP_OKAY).join();
+		final var second = target.validateIpAddress(IP_OKAY).join();
+
+		assertEquals(first, second);
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/" + IP_OKAY)));
+	}
+
+	@Test
+	public void validateIpAddressCachedBlocklistReloaded() throws IOException
+	{
+		initWireMock(blockedIsp, IP_AWS);
+		assertEquals(ValidationResult.Status.BLOCKED_ISP, target.validateIpAddress(IP_AWS).join().status());
+
+		final var file = tempDir.resolve("blocklist.yaml");
+		Files.writeString(file, """
+				blocked-countries:
+				  - IE
+				blocked-providers:
+				  - Virgin
+				""");
+		config.setBlocklistFile(file);
+		blocklist.reload();
+
+		// Still cached, but judged by the blocklist as it is now
+		assertEquals(ValidationResult.Status.BLOCKED_IP, target.validateIpAddress(IP_AWS).join().status());
+		assertEquals(ValidationResult.Status.BLOCKED_IP, validateIpAddresses(IP_AWS).get(IP_AWS).status());
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/" + IP_AWS)));
+
+		Files.writeString(file, """
+				blocked-countries:
+				  - CN
+				blocked-providers:
+				  - Virgin
+				""");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+		blocklist.reload();
+
+		assertEquals(ValidationResult.Status.SUCCESS, target.validateIpAddress(IP_AWS).join().status());
+	}
+
+	@Test
+	public void validateIpAddressReusesConnection()
+	{
+		config.getCache().setEnabled(false);
+		initWireMock(okay, IP_OKAY);
+		final var connections = new AtomicInteger();
+		final var httpClient = clientConfig.ipApiHttpClient(config)
+				.observe((connection, state) ->
+				{
+					// Only a new channel is CONNECTED; a pooled channel is just ACQUIRED again
+					if (state == ConnectionObserver.State.CONNECTED)
+					{
+						connections.incrementAndGet();
+					}
+				});
+		target = new ValidationService(config,
+				new Blocklist(config),
+				new ValidationCache(config),
+				WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build(),
+				clientConfig.ipApiCircuitBreaker(config),
+				clientConfig.ipApiBatchRateLimiter(config),
+				registry);
+
+		for (int i = 0; i < REQUESTS; i++)
+		{
+			assertEquals(ValidationResult.Status.SUCCESS, target.validateIpAddress(IP_OKAY).join().status());
+		}
+
+		wireMock.verify(REQUESTS, getRequestedFor(urlPathEqualTo("/" + IP_OKAY)));
+		// A connection is released just after its response body is read, so the next request may open a second one
+		assertTrue(connections.get() < REQUESTS);
+	}
+
+	@Test
+	public void validateIpAddressSlow()
+	{
+		final var request = String.format("/%s?%s", IP_OKAY, StringUtils.join(config.getRequestFields(), ","));
+		wireMock.stubFor(get(request)
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "application/json")
+						.withFixedDelay((int) config.getClient().getResponseTimeout().multipliedBy(2).toMillis())
+						.withBody("{}")
+				));
+
+		final var result = target.validateIpAddress(IP_OKAY).join();
+
+		assertEquals(ValidationResult.Status.UNKNOWN_ERROR, result.status());
+	}
+
+	@Test
+	public void validateIpAddresses() throws JSONException
+	{
+		initWireMock(okay, IP_OKAY);
+		target.validateIpAddress(IP_OKAY).join();
+		final var responses = initWireMockBatch(List.of(blockedIsp, blockedIp), IP_AWS, IP_BLOCKED);
+
+		final var results = validateIpAddresses(IP_OKAY, IP_AWS, IP_BLOCKED, IP_AWS);
+
+		assertEquals(3, results.size());
+		assertEquals(ValidationResult.Status.SUCCESS, results.get(IP_OKAY).status());
+		assertEquals(ValidationResult.Status.BLOCKED_ISP, results.get(IP_AWS).status());
+		assertEquals(ValidationResult.Status.BLOCKED_IP, results.get(IP_BLOCKED).status());
+		assertEquals(responses.getJSONObject(1).getString("countryCode"), results.get(IP_BLOCKED).country());
+		// The cached IP address is not looked up again, and the duplicate is looked up once
+		wireMock.verify(1, postRequestedFor(urlPathEqualTo("/batch")));
+		assertEquals(results.get(IP_AWS), target.validateIpAddress(IP_AWS).join());
+		wireMock.verify(0, getRequestedFor(urlPathEqualTo("/" + IP_AWS)));
+	}
+
+	@Test
+	public void validateIpAddressesRateLimited()
+	{
+		config.getBatch().setSize(1);
+		config.getBatch().setRequestsPerMinute(1);
+		config.getBatch().setMaxWait(Duration.ZERO);
+		target = new ValidationService(config,
+				new Blocklist(config),
+				new ValidationCache(config),
+				clientConfig.ipApiWebClient(config),
+				clientConfig.ipApiCircuitBreaker(config),
+				clientConfig.ipApiBatchRateLimiter(config),
+				registry);
+		initWireMockBatch(List.of(blockedIsp), IP_AWS);
+
+		final var results = validateIpAddresses(IP_AWS, IP_BLOCKED);
+
+		// The first batch takes the only permit; the second does not wait for the next one
+		assertEquals(ValidationResult.Status.BLOCKED_ISP, results.get(IP_AWS).status());
+		assertEquals(ValidationResult.Status.UNKNOWN_ERROR, results.get(IP_BLOCKED).status());
+		wireMock.verify(1, postRequestedFor(urlPathEqualTo("/batch")));
+	}
+
+	@Test
+	public void validateIpAddressCollected()
+	{
+		enableCollector(2, Duration.ofMinutes(1));
+		initWireMockBatch(List.of(blockedIsp, blockedIp), IP_AWS, IP_BLOCKED);
+
+		// The first waits for the second, which fills the batch
+		final var aws = target.validateIpAddress(IP_AWS);
+		final var blocked = target.validateIpAddress(IP_BLOCKED);
+
+		assertEquals(ValidationResult.Status.BLOCKED_ISP, aws.join().status());
+		assertEquals(ValidationResult.Status.BLOCKED_IP, blocked.join().status());
+		wireMock.verify(1, postRequestedFor(urlPathEqualTo("/batch")));
+		wireMock.verify(0, getRequestedFor(urlPathEqualTo("/" + IP_AWS)));
+		assertEquals(2, registry.get("gg.validation.ip-api.batch").summary().totalAmount());
+	}
+
+	@Test
+	public void validateIpAddressCollectedAlone()
+	{
+		enableCollector(100, Duration.ofMillis(50));
+		initWireMock(okay, IP_OKAY);
+
+		final var result = target.validateIpAddress(IP_OKAY).join();
+
+		// Nothing else arrived in time, so it is looked up on its own rather than as a batch of one
+		assertEquals(ValidationResult.Status.SUCCESS, result.status());
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/" + IP_OKAY)));
+		wireMock.verify(0, postRequestedFor(urlPathEqualTo("/batch")));
+	}
+
+	private void enableCollector(final int maxSize, final Duration maxWait)
+	{
+		config.getBatch().getCollector().setEnabled(true);
+		config.getBatch().getCollector().setMaxSize(maxSize);
+		config.getBatch().getCollector().setMaxWait(maxWait);
+		target.shutdown();
+		target = new ValidationService(config,
+				new Blocklist(config),
+				new ValidationCache(config),
+				clientConfig.ipApiWebClient(config),
+				clientConfig.ipApiCircuitBreaker(config),
+				clientConfig.ipApiBatchRateLimiter(config),
+				registry);
+	}
+
+	private Map<String, ValidationResult> validateIpAddresses(final String... ipAddresses)
+	{
+		return target.validateIpAddresses(List.of(ipAddresses))
+				.collectList()
+				.block()
+				.stream()
+				.collect(Collectors.toMap(IpValidationResult::ipAddress, IpValidationResult::result));
+	}
+
+	@SneakyThrows
+	private JSONArray initWireMockBatch(final List<Resource> resources, final String... ipAddresses)
+	{
+		final var jsonResponse = new JSONArray();
+		for (final var resource : resources)
+		{
+			jsonResponse.put(new JSONObject(resource.getContentAsString(Charset.defaultCharset())));
+		}
+
+		wireMock.stubFor(post(urlPathEqualTo("/batch"))
+				.withRequestBody(equalToJson(new JSONArray(List.of(ipAddresses)).toString()))
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "application/json")
+						.withBody(jsonResponse.toString())
+				));
+
+		return jsonResponse;
+	}
+
 	@SneakyThrows
 	private JSONObject initWireMock(final Resource resource, final String ipAddress)
 	{
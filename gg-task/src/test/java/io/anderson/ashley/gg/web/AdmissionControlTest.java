@@ -0,0 +1,165 @@
+package io.anderson.ashley.gg.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdmissionControlTest
+{
+	private static final String IP = "86.8.134.206";
+
+	private final AtomicLong now = new AtomicLong();
+	private WebConfig config;
+	private MeterRegistry registry;
+	private AdmissionControl target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.getAdmission().setEnabled(true);
+		config.getAdmission().setRequestsPerSecond(2);
+		config.getAdmission().setRequestBurst(2);
+		config.getAdmission().setBytesPerSecond(DataSize.ofBytes(1000));
+		config.getAdmission().setBytesBurst(DataSize.ofBytes(1000));
+		config.getAdmission().setInFlightBudget(DataSize.ofBytes(1000));
+		registry = new SimpleMeterRegistry();
+		target = new AdmissionControl(config, registry, now::get);
+	}
+
+	@Test
+	public void admitRequests()
+	{
+		target.admit(IP, 0);
+		target.admit(IP, 0);
+		final var rejected = assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 0));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+		assertEquals(AdmissionControl.Limit.REQUESTS, rejected.getLimit());
+		assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		// Another client has its own buckets
+		target.admit("52.17.7.98", 0);
+
+		advance(Duration.ofMillis(500));
+		target.admit(IP, 0);
+		assertEquals(1, registry.get("gg.admission.rejected").tag("limit", "requests").counter().count());
+	}
+
+	@Test
+	public void admitBytes()
+	{
+		target.admit(IP, 600).release();
+		final var rejected = assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 600));
+		assertEquals(AdmissionControl.Limit.BYTES, rejected.getLimit());
+
+		// A body larger than the bucket takes a whole bucket, once the bucket is full
+		advance(Duration.ofSeconds(1));
+		target.admit(IP, 5000).release();
+		assertEquals("1", assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 1)).getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	public void admitCapacity()
+	{
+		config.getAdmission().setBytesBurst(DataSize.ofBytes(10_000));
+		config.getAdmission().setRetryAfter(Duration.ofSeconds(5));
+
+		final var first = target.admit(IP, 700);
+		final var rejected = assertThrows(AdmissionControl.Rejected.class, () -> target.admit("52.17.7.98", 700));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+		assertEquals(AdmissionControl.Limit.CAPACITY, rejected.getLimit());
+		assertEquals("5", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		first.release();
+		first.release();
+		assertEquals(0, target.getInFlight());
+
+		// Alone, a body larger than the whole budget is admitted
+		final var large = target.admit("52.17.7.98", 5000);
+		assertEquals(5000, target.getInFlight());
+		large.release();
+		assertEquals(0, target.getInFlight());
+	}
+
+	@Test
+	public void admitRefusedCostsNothing()
+	{
+		config.getAdmission().setBytesBurst(DataSize.ofBytes(10_000));
+		config.getAdmission().setInFlightBudget(DataSize.ofBytes(1000));
+
+		// Shed for capacity, without using up the client's request or byte tokens
+		final var first = target.admit(IP, 700);
+		for (int i = 0; i < 3; i++)
+		{
+			assertEquals(AdmissionControl.Limit.CAPACITY, assertThrows(AdmissionControl.Rejected.class, () -> target.admit("52.17.7.98", 9000)).getLimit());
+		}
+		first.release();
+		target.admit("52.17.7.98", 9000).release();
+		target.admit("52.17.7.98", 1000).release();
+
+		// Refused for bytes, without using up the client's request tokens
+		assertEquals(AdmissionControl.Limit.BYTES, assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 9500)).getLimit());
+		assertEquals(AdmissionControl.Limit.BYTES, assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 9500)).getLimit());
+		target.admit(IP, 0);
+	}
+
+	@Test
+	public void sweep()
+	{
+		target.admit(IP, 100).release();
+		target.sweep();
+		assertEquals(1, target.getClients());
+
+		advance(Duration.ofSeconds(1));
+		target.sweep();
+		assertEquals(0, target.getClients());
+	}
+
+	@Test
+	public void admitAcrossNanoTimeWrap()
+	{
+		now.set(Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(250));
+
+		target.admit(IP, 0);
+		target.admit(IP, 0);
+		assertEquals(AdmissionControl.Limit.REQUESTS, assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 0)).getLimit());
+		target.sweep();
+		assertEquals(1, target.getClients());
+
+		advance(Duration.ofMillis(500));
+		target.admit(IP, 0);
+		assertEquals(AdmissionControl.Limit.REQUESTS, assertThrows(AdmissionControl.Rejected.class, () -> target.admit(IP, 0)).getLimit());
+
+		advance(Duration.ofSeconds(1));
+		target.sweep();
+		assertEquals(0, target.getClients());
+	}
+
+	@Test
+	public void admitDisabled()
+	{
+		config.getAdmission().setEnabled(false);
+
+		for (int i = 0; i < 10; i++)
+		{
+			target.admit(IP, 5000);
+		}
+		assertEquals(0, target.getInFlight());
+	}
+
+	private void advance(final Duration duration)
+	{
+		now.addAndGet(TimeUnit.NANOSECONDS.convert(duration));
+	}
+}
@@ -0,0 +1,60 @@
+package io.anderson.ashley.gg.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static io.anderson.ashley.gg.web.ContentEncoding.GZIP;
+import static io.anderson.ashley.gg.web.ContentEncoding.IDENTITY;
+import static io.anderson.ashley.gg.web.ContentEncoding.ZSTD;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ContentEncodingTest
+{
+	private static final List<ContentEncoding> ENABLED = List.of(ZSTD, GZIP);
+
+	@Test
+	public void negotiate()
+	{
+		assertEquals(ZSTD, ContentEncoding.negotiate("gzip, deflate, br, zstd", ENABLED));
+		assertEquals(GZIP, ContentEncoding.negotiate("gzip, deflate, br", ENABLED));
+		assertEquals(GZIP, ContentEncoding.negotiate("GZIP;q=0.5", ENABLED));
+		assertEquals(ZSTD, ContentEncoding.negotiate("*", ENABLED));
+	}
+
+	@Test
+	public void negotiateNotAccepted()
+	{
+		assertEquals(IDENTITY, ContentEncoding.negotiate(null, ENABLED));
+		assertEquals(IDENTITY, ContentEncoding.negotiate("deflate, br", ENABLED));
+		assertEquals(IDENTITY, ContentEncoding.negotiate("zstd;q=0, gzip;q=0.0", ENABLED));
+		assertEquals(IDENTITY, ContentEncoding.negotiate("gzip", List.of()));
+		// A refusal counts wherever it is, and the encoding itself outranks a wildcard
+		assertEquals(GZIP, ContentEncoding.negotiate("zstd, gzip, zstd;q=0", ENABLED));
+		assertEquals(GZIP, ContentEncoding.negotiate("*, zstd;q=0", ENABLED));
+		assertEquals(IDENTITY, ContentEncoding.negotiate("*;q=0, zstd;q=0", ENABLED));
+		assertEquals(ZSTD, ContentEncoding.negotiate("*;q=0, zstd", ENABLED));
+	}
+
+	@Test
+	public void roundTrip() throws Exception
+	{
+		final var bytes = "[{\"name\":\"Mike Smith\"}]".repeat(100).getBytes(StandardCharsets.UTF_8);
+		for (final var encoding : ContentEncoding.values())
+		{
+			final var encoded = new ByteArrayOutputStream();
+			try (final var outputStream = encoding.wrap(encoded))
+			{
+				outputStream.write(bytes);
+			}
+			try (final var inputStream = encoding.decompress(new ByteArrayInputStream(encoded.toByteArray())))
+			{
+				assertArrayEquals(bytes, inputStream.readAllBytes(), encoding.name());
+			}
+		}
+	}
+}
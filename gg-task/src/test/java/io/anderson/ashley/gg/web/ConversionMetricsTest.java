@@ -0,0 +1,92 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.convert.PipeEntryParser;
+import io.anderson.ashley.gg.model.EntryField;
+import io.anderson.ashley.gg.model.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConversionMetricsTest
+{
+	private static final String ROW = "3ce2d17b-e66a-4c1e-bca3-40eb1c9222c7|2X2D24|Mike Smith|Likes Grape|Drives an SUV|35.0|95.5";
+	private static final int ROWS = 100;
+
+	private WebConfig config;
+	private MeterRegistry registry;
+	private ConversionMetrics target;
+
+	@BeforeEach
+	public void init()
+	{
+		config = new WebConfig();
+		config.setEntryRecordDelimiter("|");
+		config.setDataValidationEnabled(true);
+		config.setMetricsSampleRate(10);
+		registry = new SimpleMeterRegistry();
+		target = new ConversionMetrics(config, registry);
+	}
+
+	@Test
+	public void convert() throws Exception
+	{
+		final var file = IntStream.range(0, ROWS).mapToObj(i -> ROW).collect(Collectors.joining("\n"));
+		final var parser = new PipeEntryParser(config);
+
+		final var reader = target.read(new StringReader(file));
+		try (final var rows = target.output(target.<Outcome>convert(entries -> entries.map(Outcome::fromEntry))
+				.apply(parser.parse(reader, EntryField.OUTCOME)), ConversionMetrics.Stage.SERIALISE))
+		{
+			assertEquals(ROWS, rows.count());
+		}
+
+		assertEquals(1, registry.get("gg.convert.read").timer().count());
+		assertEquals(ROWS, (long) registry.get("gg.convert.rows").summary().totalAmount());
+		for (final var stage : new String[] { "parse", "convert", "serialise" })
+		{
+			assertEquals(ROWS / 10, registry.get("gg.convert.row").tag("stage", stage).timer().count(), stage);
+		}
+		assertEquals(0, registry.get("gg.convert.row").tag("stage", "aggregate").timer().count());
+	}
+
+	@Test
+	public void convertFiltered() throws Exception
+	{
+		// Only every other Entry becomes a row; the parse time of a sampled row covers both of them
+		final var file = IntStream.range(0, ROWS).mapToObj(i -> ROW.replace("Mike Smith", "Mike Smith " + (i % 2))).collect(Collectors.joining("\n"));
+		final var parser = new PipeEntryParser(config);
+
+		try (final var rows = target.output(target.<Outcome>convert(entries -> entries.map(Outcome::fromEntry).filter(outcome -> outcome.name().endsWith("1")))
+				.apply(parser.parse(new StringReader(file), EntryField.OUTCOME)), ConversionMetrics.Stage.SERIALISE))
+		{
+			assertTrue(rows.allMatch(outcome -> outcome.name().endsWith("1")));
+		}
+
+		assertEquals(ROWS / 2, (long) registry.get("gg.convert.rows").summary().totalAmount());
+		assertEquals(ROWS / 2 / 10, registry.get("gg.convert.row").tag("stage", "parse").timer().count());
+	}
+
+	@Test
+	public void convertNotSampled() throws Exception
+	{
+		config.setMetricsSampleRate(0);
+		target = new ConversionMetrics(config, registry);
+		final var conversion = target.<Outcome>convert(entries -> entries.map(Outcome::fromEntry));
+
+		try (final var rows = target.output(conversion.apply(new PipeEntryParser(config).parse(new StringReader(ROW))), ConversionMetrics.Stage.SERIALISE))
+		{
+			assertEquals(1, rows.count());
+		}
+
+		assertEquals(1, (long) registry.get("gg.convert.rows").summary().totalAmount());
+		assertEquals(0, registry.get("gg.convert.row").tag("stage", "parse").timer().count());
+	}
+}
@@ -0,0 +1,163 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.job.JobResult;
+import io.anderson.ashley.gg.job.JobService;
+import io.anderson.ashley.gg.job.JobStatus;
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.validation.IValidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_ISP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(JobController.class)
+public class JobControllerTest
+{
+	private static final String RESULT = "[{\"name\":\"Mike Smith\",\"transport\":\"Drives an SUV\",\"topSpeed\":95.5}]";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private WebConfig config;
+	@MockBean
+	private JobService jobService;
+	@MockBean
+	private IValidationService validationService;
+	@MockBean
+	private ILogService logService;
+
+	@TempDir
+	private Path directory;
+	private final UUID id = UUID.randomUUID();
+
+	@BeforeEach
+	public void init()
+	{
+		config.setIpValidationEnabled(false);
+	}
+
+	@Test
+	public void submit() throws Exception
+	{
+		when(jobService.submit(any(InputStream.class), any(String.class)))
+				.thenReturn(new JobStatus(id, JobStatus.State.QUEUED, Instant.now(), null, null, 42, 0, 0, null, null, null));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post(JobController.JOBS)
+						.content("EntryFile")
+						.contentType(MediaType.TEXT_PLAIN))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isAccepted())
+				.andExpect(header().string(HttpHeaders.LOCATION, JobController.JOBS + "/" + id))
+				.andExpect(jsonPath("$.state").value("QUEUED"));
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void submitQueueFull() throws Exception
+	{
+		when(jobService.submit(any(InputStream.class), any(String.class)))
+				.thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post(JobController.JOBS)
+						.content("EntryFile")
+						.contentType(MediaType.TEXT_PLAIN))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isServiceUnavailable());
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void submitIspBlocked() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(CompletableFuture.completedFuture(new ValidationResult(URI.create("localhost"), BLOCKED_ISP, "GB", "Amazon")));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post(JobController.JOBS)
+						.content("EntryFile")
+						.contentType(MediaType.TEXT_PLAIN))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isForbidden());
+		verify(jobService, never()).submit(any(InputStream.class), any(String.class));
+	}
+
+	@Test
+	public void resultRange() throws Exception
+	{
+		final var encoded = result();
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(JobController.JOBS + "/" + id + "/result")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + encoded.length))
+				.andExpect(content().bytes(Arrays.copyOfRange(encoded, 10, 20)));
+	}
+
+	@Test
+	public void resultDecoded() throws Exception
+	{
+		result();
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(JobController.JOBS + "/" + id + "/result"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(content().string(RESULT));
+	}
+
+	private byte[] result() throws Exception
+	{
+		final var path = directory.resolve(id + ".result.gzip");
+		try (final var file = Files.newOutputStream(path);
+		     final var outputStream = ContentEncoding.GZIP.wrap(file))
+		{
+			outputStream.write(RESULT.getBytes(StandardCharsets.UTF_8));
+		}
+		when(jobService.result(id)).thenReturn(new JobResult(path, ContentEncoding.GZIP));
+		return Files.readAllBytes(path);
+	}
+}
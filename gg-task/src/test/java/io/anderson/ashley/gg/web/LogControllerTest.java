@@ -0,0 +1,61 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.log.LogCursor;
+import io.anderson.ashley.gg.log.LogPage;
+import io.anderson.ashley.gg.log.LogQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LogController.class)
+public class LogControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+	@MockBean
+	private ILogService logService;
+
+	@Test
+	public void find() throws Exception
+	{
+		final var cursor = new LogCursor(Timestamp.from(Instant.parse("2026-03-31T12:00:00Z")), UUID.randomUUID());
+		final var query = new LogQuery(Instant.parse("2026-03-31T11:00:00Z"), null, null, 403, "GB", 100, cursor);
+		when(logService.findLogs(query)).thenReturn(new LogPage(List.of(), "next"));
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(LogController.LOGS)
+						.param("from", "2026-03-31T11:00:00Z")
+						.param("status", "403")
+						.param("country", "GB")
+						.param("after", cursor.encode()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.logs").isEmpty())
+				.andExpect(jsonPath("$.next").value("next"));
+	}
+
+	@Test
+	public void findMalformedCursor() throws Exception
+	{
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(LogController.LOGS)
+						.param("after", "not a cursor"))
+				.andExpect(status().isBadRequest());
+		verify(logService, never()).findLogs(any(LogQuery.class));
+	}
+}
@@ -0,0 +1,130 @@
+package io.anderson.ashley.gg.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import io.anderson.ashley.gg.model.Outcome;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OutcomeWriterTest
+{
+	private static final List<Outcome> OUTCOMES = List.of(
+			new Outcome("John Smith", "Rides A Bike", new BigDecimal("12.1")),
+			new Outcome("Mike Smith", "Drives an SUV", new BigDecimal("95.5")),
+			new Outcome("Jenny Walters", null, new BigDecimal("-1E+3")),
+			new Outcome(null, "Rides A Scooter", null),
+			new Outcome("Ashley Anderson", "Takes The Bus", null, -1234));
+	private static final TypeReference<List<Outcome>> OUTCOME_LIST = new TypeReference<>()
+	{
+	};
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final OutcomeWriter target = new OutcomeWriter(objectMapper);
+
+	@Test
+	@SneakyThrows
+	public void writeJson()
+	{
+		assertEquals(OUTCOMES, objectMapper.readValue(write(OutcomeFormat.JSON), OUTCOME_LIST));
+	}
+
+	@Test
+	@SneakyThrows
+	public void writeNdjson()
+	{
+		final var lines = new String(write(OutcomeFormat.NDJSON), StandardCharsets.UTF_8).split("\n");
+		assertEquals(OUTCOMES.size(), lines.length);
+		assertEquals(OUTCOMES.get(1), objectMapper.readValue(lines[1], Outcome.class));
+	}
+
+	@Test
+	@SneakyThrows
+	public void writeSmile()
+	{
+		final var smile = write(OutcomeFormat.SMILE);
+		assertEquals(OUTCOMES, objectMapper.copyWith(new SmileFactory()).readValue(smile, OUTCOME_LIST));
+		assertTrue(smile.length < write(OutcomeFormat.JSON).length);
+	}
+
+	@Test
+	@SneakyThrows
+	public void writeCbor()
+	{
+		final var cbor = write(OutcomeFormat.CBOR);
+		assertEquals(OUTCOMES, objectMapper.copyWith(new CBORFactory()).readValue(cbor, OUTCOME_LIST));
+		assertTrue(cbor.length < write(OutcomeFormat.JSON).length);
+	}
+
+	@Test
+	@SneakyThrows
+	public void writeProtobuf()
+	{
+		final var protobuf = write(OutcomeFormat.PROTOBUF);
+		final var input = CodedInputStream.newInstance(protobuf);
+		final var actual = new ArrayList<Outcome>();
+		while (!input.isAtEnd())
+		{
+			final var limit = input.pushLimit(input.readRawVarint32());
+			String name = null;
+			String transport = null;
+			Long unscaled = null;
+			var scale = 0;
+			for (var tag = input.readTag(); tag != 0; tag = input.readTag())
+			{
+				switch (tag >>> 3)
+				{
+					case 1 -> name = input.readString();
+					case 2 -> transport = input.readString();
+					case 3 -> unscaled = input.readSInt64();
+					case 4 -> scale = input.readSInt32();
+					default -> input.skipField(tag);
+				}
+			}
+			input.popLimit(limit);
+			actual.add(new Outcome(name, transport, unscaled != null ? BigDecimal.valueOf(unscaled, scale) : null));
+		}
+		assertEquals(OUTCOMES, actual);
+		assertTrue(protobuf.length < write(OutcomeFormat.CBOR).length);
+	}
+
+	@Test
+	public void writeProtobufOverflow()
+	{
+		final var outcomes = List.of(new Outcome("John Smith", "Rides A Bike", new BigDecimal("123456789012345678901234567890.1")));
+		assertThrows(ArithmeticException.class, () -> target.write(OutcomeFormat.PROTOBUF, outcomes.stream(), new ByteArrayOutputStream()));
+	}
+
+	@Test
+	public void negotiate()
+	{
+		assertEquals(OutcomeFormat.JSON, OutcomeFormat.negotiate(null));
+		assertEquals(OutcomeFormat.JSON, OutcomeFormat.negotiate("*/*"));
+		assertEquals(OutcomeFormat.JSON, OutcomeFormat.negotiate("application/x-ndjson;q=0.5, application/json"));
+		assertEquals(OutcomeFormat.NDJSON, OutcomeFormat.negotiate("application/x-ndjson, */*;q=0.1"));
+		assertEquals(OutcomeFormat.SMILE, OutcomeFormat.negotiate("application/x-jackson-smile"));
+		assertEquals(OutcomeFormat.CBOR, OutcomeFormat.negotiate("application/cbor, application/json;q=0.9"));
+		assertEquals(OutcomeFormat.PROTOBUF, OutcomeFormat.negotiate("application/x-protobuf, application/cbor;q=0"));
+		assertEquals(OutcomeFormat.JSON, OutcomeFormat.negotiate("application/x-ndjson;q=oops, ,/"));
+	}
+
+	@SneakyThrows
+	private byte[] write(final OutcomeFormat format)
+	{
+		final var outputStream = new ByteArrayOutputStream();
+		target.write(format, OUTCOMES.stream(), outputStream);
+		return outputStream.toByteArray();
+	}
+}
@@ -0,0 +1,260 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.convert.DataBufferEntryParser;
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.validation.IValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.json.JSONArray;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveWebController.class)
+@Import({ DataBufferEntryParser.class, ConversionMetrics.class, AdmissionControl.class, SimpleMeterRegistry.class })
+public class ReactiveWebControllerTest
+{
+	@Autowired
+	private WebTestClient webTestClient;
+	@Autowired
+	private WebConfig config;
+	@Autowired
+	private ReactiveWebController controller;
+	@MockBean
+	private IValidationService validationService;
+	@MockBean
+	private ILogService logService;
+
+	@Value("classpath:EntryFile.txt")
+	private Resource entryFileResource;
+	@Value("classpath:MalformedEntryFile.txt")
+	private Resource malformedEntryFileResource;
+	@Value("classpath:Outcome.json")
+	private Resource outcomeResource;
+	@Value("classpath:MalformedOutcome.json")
+	private Resource malformedOutcomeResource;
+
+	@Test
+	public void convert()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var actual = webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(entryFileResource))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		assertJson(getOutcome(outcomeResource), actual);
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertNdjson()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var actual = webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.bodyValue(getEntryFile(entryFileResource))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		final var lines = actual.strip().split("\n");
+		assertEquals(3, lines.length);
+		assertJson(getOutcome(outcomeResource), "[" + String.join(",", lines) + "]");
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertAggregate()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var actual = webTestClient.post()
+				.uri("/?groupBy=transport&filter=topSpeed<50")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(entryFileResource))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		assertJson(new JSONArray(List.of(
+				Map.of("transport", "Rides A Bike", "count", 1, "min", 12.1, "max", 12.1, "avg", 12.1),
+				Map.of("transport", "Rides A Scooter", "count", 1, "min", 15.3, "max", 15.3, "avg", 15.3))), actual);
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertMalformedEntryValidationEnabled()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(malformedEntryFileResource))
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertMalformedEntryValidationDisabled()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(false);
+
+		final var actual = webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(malformedEntryFileResource))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		assertJson(getOutcome(malformedOutcomeResource), actual);
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertIpOkay()
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(CompletableFuture.completedFuture(generateValidationResult(SUCCESS)));
+
+		final var actual = webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(entryFileResource))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		assertJson(getOutcome(outcomeResource), actual);
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertIpBlocked()
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(CompletableFuture.completedFuture(generateValidationResult(BLOCKED_IP)));
+
+		webTestClient.post()
+				.uri("/")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(getEntryFile(entryFileResource))
+				.exchange()
+				.expectStatus().isForbidden();
+
+		verify(logService, timeout(1000)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertDisconnectedDuringValidation()
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+
+		final var validation = new CompletableFuture<ValidationResult>();
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(validation);
+
+		// The client goes away while its IP address is still being validated
+		controller.convert(MockServerHttpRequest.post("/")
+						.remoteAddress(new InetSocketAddress("198.51.100.1", 0))
+						.contentType(MediaType.TEXT_PLAIN)
+						.body(getEntryFile(entryFileResource)))
+				.subscribe()
+				.dispose();
+
+		// The validation may be shared with other requests for the same IP address, so must carry on regardless
+		assertFalse(validation.isCancelled());
+	}
+
+	private ValidationResult generateValidationResult(final ValidationResult.Status status)
+	{
+		return new ValidationResult(URI.create("localhost"),
+				status,
+				"GB",
+				"Virgin Media");
+	}
+
+	@SneakyThrows
+	private void assertJson(final JSONArray expected, final String actual)
+	{
+		JSONAssert.assertEquals(expected, new JSONArray(actual), true);
+	}
+
+	@SneakyThrows
+	private String getEntryFile(final Resource entryFile)
+	{
+		return entryFile.getContentAsString(Charset.defaultCharset());
+	}
+
+	@SneakyThrows
+	private JSONArray getOutcome(final Resource outcome)
+	{
+		return new JSONArray(outcome.getContentAsString(Charset.defaultCharset()));
+	}
+}
@@ -0,0 +1,92 @@
+package io.anderson.ashley.gg.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpillBufferTest
+{
+	@Test
+	public void withinBudget() throws Exception
+	{
+		final var bytes = bytes(1000);
+		try (final var target = new SpillBuffer(1000, 64))
+		{
+			target.write(bytes, 0, 500);
+			target.write(bytes, 500, 500);
+
+			assertFalse(target.isSpilled());
+			assertArrayEquals(bytes, target.toByteArray());
+			assertArrayEquals(bytes, writeTo(target));
+		}
+	}
+
+	@Test
+	public void spill() throws Exception
+	{
+		final var bytes = bytes(1000);
+		try (final var target = new SpillBuffer(100, 64))
+		{
+			for (int i = 0; i < bytes.length; i += 7)
+			{
+				target.write(bytes, i, Math.min(7, bytes.length - i));
+			}
+
+			assertTrue(target.isSpilled());
+			assertEquals(bytes.length, target.size());
+			assertArrayEquals(bytes, writeTo(target));
+			assertThrows(IllegalStateException.class, target::toByteArray);
+		}
+	}
+
+	@Test
+	public void closeDeletesFile() throws Exception
+	{
+		final var bytes = bytes(1000);
+		final var target = new SpillBuffer(100, 64);
+		target.write(bytes, 0, bytes.length);
+		final var file = target.getFile();
+		assertNotNull(file);
+
+		target.close();
+
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	public void spillLargeWrite() throws Exception
+	{
+		final var bytes = bytes(1000);
+		try (final var target = new SpillBuffer(0, 64))
+		{
+			target.write(bytes[0]);
+			target.write(bytes, 1, bytes.length - 1);
+
+			assertTrue(target.isSpilled());
+			assertArrayEquals(bytes, writeTo(target));
+		}
+	}
+
+	private static byte[] writeTo(final SpillBuffer target) throws Exception
+	{
+		final var outputStream = new ByteArrayOutputStream();
+		target.writeTo(outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] bytes(final int length)
+	{
+		final var bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,58 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.log.LogStats;
+import io.anderson.ashley.gg.log.RequestStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StatsController.class)
+public class StatsControllerTest
+{
+	private static final Instant FROM = Instant.parse("2026-03-31T11:00:00Z");
+	private static final Instant TO = Instant.parse("2026-03-31T12:00:00Z");
+
+	@Autowired
+	private MockMvc mockMvc;
+	@MockBean
+	private RequestStats requestStats;
+
+	@Test
+	public void stats() throws Exception
+	{
+		when(requestStats.stats(60)).thenReturn(new LogStats(FROM, TO, 10, 10 / 3600.0, Map.of(200, 8L, 403, 2L),
+				Map.of("GB", new LogStats.Counts(10, 2, 0.2)), Map.of(), new LogStats.Latency(12.5, 10, 20, 30, 40, 50)));
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(StatsController.STATS))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.requests").value(10))
+				.andExpect(jsonPath("$.statuses.403").value(2))
+				.andExpect(jsonPath("$.countries.GB.blockRate").value(0.2))
+				.andExpect(jsonPath("$.latency.p99").value(40));
+	}
+
+	@Test
+	public void historyBackwards() throws Exception
+	{
+		mockMvc.perform(MockMvcRequestBuilders
+						.get(StatsController.STATS + "/history")
+						.param("from", TO.toString())
+						.param("to", FROM.toString()))
+				.andExpect(status().isBadRequest());
+		verify(requestStats, never()).history(any(Instant.class), any(Instant.class));
+	}
+}
@@ -0,0 +1,170 @@
+package io.anderson.ashley.gg.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.anderson.ashley.gg.convert.CsvEntryParser;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.convert.PipeEntryParser;
+import io.anderson.ashley.gg.log.ILogService;
+import io.anderson.ashley.gg.model.LogRequest;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.upload.UploadService;
+import io.anderson.ashley.gg.upload.UploadStatus;
+import io.anderson.ashley.gg.validation.IValidationService;
+import lombok.SneakyThrows;
+import org.json.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UploadController.class)
+@Import({ CsvEntryParser.class, PipeEntryParser.class, ParallelEntryConverter.class, OutcomeWriter.class, UploadService.class })
+public class UploadControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private WebConfig config;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@MockBean
+	private IValidationService validationService;
+	@MockBean
+	private ILogService logService;
+
+	@Value("classpath:EntryFile.txt")
+	private Resource entryFileResource;
+	@Value("classpath:Outcome.json")
+	private Resource outcomeResource;
+
+	@BeforeEach
+	public void init()
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.setCompression(List.of());
+	}
+
+	@Test
+	public void upload() throws Exception
+	{
+		final var bytes = entryFileResource.getContentAsByteArray();
+		final var id = create();
+		final var split = bytes.length / 2;
+
+		put(id, bytes, split, bytes.length - 1)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.complete").value(false));
+		put(id, bytes, 0, split - 1)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.received[0].start").value(0))
+				.andExpect(jsonPath("$.received[0].end").value(bytes.length - 1))
+				.andExpect(jsonPath("$.complete").value(true));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post(UploadController.UPLOADS + "/" + id + "/commit")
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(new JSONArray(outcomeResource.getContentAsString(StandardCharsets.UTF_8)), actual, true);
+				});
+
+		mockMvc.perform(MockMvcRequestBuilders.get(UploadController.UPLOADS + "/" + id))
+				.andExpect(status().isNotFound());
+		verify(logService, times(2)).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void uploadIncomplete() throws Exception
+	{
+		final var bytes = entryFileResource.getContentAsByteArray();
+		final var id = create();
+
+		put(id, bytes, 0, 9).andExpect(status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders
+						.put(UploadController.UPLOADS + "/" + id)
+						.content(Arrays.copyOfRange(bytes, 0, 10))
+						.header(HttpHeaders.CONTENT_RANGE, "bytes 0-9"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.post(UploadController.UPLOADS + "/" + id + "/commit"))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(MockMvcRequestBuilders.delete(UploadController.UPLOADS + "/" + id))
+				.andExpect(status().isNoContent());
+		put(id, bytes, 10, 19).andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void uploadIpBlocked() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(CompletableFuture.completedFuture(new ValidationResult(URI.create("localhost"), BLOCKED_IP, "CN", "Amazon")));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders.post(UploadController.UPLOADS))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isForbidden());
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@SneakyThrows
+	private UUID create()
+	{
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders.post(UploadController.UPLOADS))
+				.andReturn();
+
+		final var response = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isCreated())
+				.andExpect(header().exists(HttpHeaders.LOCATION))
+				.andReturn()
+				.getResponse();
+		return objectMapper.readValue(response.getContentAsString(), UploadStatus.class).id();
+	}
+
+	@SneakyThrows
+	private ResultActions put(final UUID id, final byte[] bytes, final int start, final int end)
+	{
+		return mockMvc.perform(MockMvcRequestBuilders
+				.put(UploadController.UPLOADS + "/" + id)
+				.content(Arrays.copyOfRange(bytes, start, end + 1))
+				.contentType(MediaType.TEXT_PLAIN)
+				.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + bytes.length));
+	}
+}
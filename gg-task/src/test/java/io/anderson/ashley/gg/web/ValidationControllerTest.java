@@ -0,0 +1,80 @@
+package io.anderson.ashley.gg.web;
+
+import io.anderson.ashley.gg.model.IpValidationResult;
+import io.anderson.ashley.gg.model.ValidationResult;
+import io.anderson.ashley.gg.validation.IValidationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
+import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ValidationController.class)
+public class ValidationControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+	@MockBean
+	private IValidationService validationService;
+
+	@Test
+	public void validate() throws Exception
+	{
+		final var ipAddresses = List.of("86.8.134.206", "111.13.49.147");
+		when(validationService.validateIpAddresses(ipAddresses)).thenReturn(Flux.just(
+				new IpValidationResult(ipAddresses.get(0), generateValidationResult(SUCCESS)),
+				new IpValidationResult(ipAddresses.get(1), generateValidationResult(BLOCKED_IP))));
+
+		final var result = mockMvc.perform(MockMvcRequestBuilders
+						.post(ValidationController.VALIDATION)
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.APPLICATION_NDJSON)
+						.content("[\"86.8.134.206\", \"111.13.49.147\"]"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		result.getAsyncResult();
+
+		final var lines = result.getResponse().getContentAsString().strip().split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("{\"ipAddress\":\"111.13.49.147\",\"result\":{\"request\":\"localhost\",\"status\":\"BLOCKED_IP\",\"country\":\"CN\",\"isp\":null}}", lines[1]);
+	}
+
+	@Test
+	public void validateTooMany() throws Exception
+	{
+		final var content = "[" + String.join(",", Collections.nCopies(1001, "\"86.8.134.206\"")) + "]";
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.post(ValidationController.VALIDATION)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(content))
+				.andExpect(status().isBadRequest());
+		verify(validationService, never()).validateIpAddresses(anyCollection());
+	}
+
+	private ValidationResult generateValidationResult(final ValidationResult.Status status)
+	{
+		return new ValidationResult(URI.create("localhost"),
+				status,
+				status == SUCCESS ? "GB" : "CN",
+				null);
+	}
+}
@@ -1,42 +1,77 @@
 package io.anderson.ashley.gg.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.luben.zstd.ZstdInputStream;
+import io.anderson.ashley.gg.convert.CsvEntryParser;
+import io.anderson.ashley.gg.convert.ParallelEntryConverter;
+import io.anderson.ashley.gg.convert.PipeEntryParser;
 import io.anderson.ashley.gg.log.ILogService;
 import io.anderson.ashley.gg.model.LogRequest;
 import io.anderson.ashley.gg.model.ValidationResult;
 import io.anderson.ashley.gg.validation.IValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.json.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.unit.DataSize;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_IP;
 import static io.anderson.ashley.gg.model.ValidationResult.Status.BLOCKED_ISP;
 import static io.anderson.ashley.gg.model.ValidationResult.Status.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(WebController.class)
+@Import({ CsvEntryParser.class, PipeEntryParser.class, ParallelEntryConverter.class, OutcomeWriter.class, ConversionMetrics.class, AdmissionControl.class, SimpleMeterRegistry.class })
 public class WebControllerTest
 {
+	private static final String RATE_LIMITED_IP = "192.0.2.1";
+
 	@Autowired
 	private MockMvc mockMvc;
 	@Autowired
 	private WebConfig config;
+	@Autowired
+	private ObjectMapper objectMapper;
 	@MockBean
 	private IValidationService validationService;
 	@MockBean
@@ -51,6 +86,18 @@ public class WebControllerTest
 	@Value("classpath:MalformedOutcome.json")
 	private Resource malformedOutcomeResource;
 
+	@BeforeEach
+	public void init()
+	{
+		config.setStreamingEnabled(false);
+		config.setFixedPointSpeeds(false);
+		config.setMemoryBudget(DataSize.ofMegabytes(16));
+		config.getParallel().setThreshold(DataSize.ofMegabytes(8));
+		config.setCompression(List.of(ContentEncoding.ZSTD, ContentEncoding.GZIP));
+		config.getSpeculative().setEnabled(false);
+		config.getSpeculative().setMaxBytes(DataSize.ofMegabytes(8));
+	}
+
 	@Test
 	public void convert() throws Exception
 	{
@@ -73,6 +120,337 @@ public class WebControllerTest
 				});
 	}
 
+	@Test
+	public void convertStreaming() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.setStreamingEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		// The future completes with a StreamingResponseBody, which is then written asynchronously
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertSpill() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.setMemoryBudget(DataSize.ofBytes(64));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		// Past the memory budget the body spills to a file, which is then streamed
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertSpillMalformedEntryValidationEnabled() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.setMemoryBudget(DataSize.ofBytes(0));
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(malformedEntryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void convertNdjson() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andReturn();
+
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andExpect(result ->
+				{
+					final var lines = result.getResponse().getContentAsString().split("\n");
+					assertEquals(3, lines.length);
+					final var actual = new JSONArray("[" + String.join(",", lines) + "]");
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+
+		verify(logService).logRequest(any(LogRequest.class));
+	}
+
+	@Test
+	public void convertGzip() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, zstd;q=0"))
+				.andReturn();
+
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(result ->
+				{
+					try (final var body = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())))
+					{
+						final var actual = new JSONArray(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+						JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+					}
+				});
+	}
+
+	@Test
+	public void convertZstdNdjson() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_NDJSON)
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+				.andReturn();
+
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+				.andExpect(result ->
+				{
+					try (final var body = new ZstdInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())))
+					{
+						final var lines = new String(body.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+						final var actual = new JSONArray("[" + String.join(",", lines) + "]");
+						JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+					}
+				});
+	}
+
+	@Test
+	public void convertCbor() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_CBOR))
+				.andReturn();
+
+		final var streamingResult = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(streamingResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andExpect(result ->
+				{
+					final var json = objectMapper.writeValueAsString(objectMapper.copyWith(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray()));
+					JSONAssert.assertEquals(getOutcome(outcomeResource), new JSONArray(json), true);
+				});
+	}
+
+	@Test
+	public void convertFixedPoint() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.setFixedPointSpeeds(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+	}
+
+	@Test
+	public void convertQuery() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.param("fields", "id,name")
+						.param("filter", "topSpeed>15", "transport~scooter")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(new JSONArray("[{\"id\":\"3X3D35\",\"name\":\"Jenny Walters\"}]"), actual, true);
+				});
+	}
+
+	@Test
+	public void convertAggregate() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.getParallel().setThreshold(DataSize.ofBytes(0));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.param("filter", "name~smith")
+						.param("aggregate", "topSpeed")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(new JSONArray("[{\"count\":2,\"min\":12.1,\"max\":95.5,\"avg\":53.800}]"), actual, true);
+				});
+	}
+
+	@Test
+	public void convertInvalidQuery() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.param("filter", "topSpeed~fast")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.param("groupBy", "transport")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_PROTOBUF))
+				.andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	public void convertParallel() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.getParallel().setThreshold(DataSize.ofBytes(0));
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+	}
+
+	@Test
+	public void convertParallelMalformedEntryValidationEnabled() throws Exception
+	{
+		config.setIpValidationEnabled(false);
+		config.setDataValidationEnabled(true);
+		config.getParallel().setThreshold(DataSize.ofBytes(0));
+
+		mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(malformedEntryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	public void convertMalformedEntryValidationEnabled() throws Exception
 	{
@@ -208,6 +586,203 @@ public class WebControllerTest
 		verify(logService).logRequest(any(LogRequest.class));
 	}
 
+	@Test
+	public void convertRateLimited() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+		config.getAdmission().setEnabled(true);
+		config.getAdmission().setRequestBurst(1);
+		config.getAdmission().setRequestsPerSecond(0.01);
+
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(CompletableFuture.completedFuture(generateValidationResult(SUCCESS)));
+
+		try
+		{
+			final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+							.post("/")
+							.with(request ->
+							{
+								request.setRemoteAddr(RATE_LIMITED_IP);
+								return request;
+							})
+							.content(getEntryFile(entryFileResource))
+							.contentType(MediaType.TEXT_PLAIN))
+					.andReturn();
+			mockMvc.perform(asyncDispatch(mvcResult))
+					.andExpect(status().isOk());
+
+			// The second request is refused before its IP address is validated, and is still logged
+			mockMvc.perform(MockMvcRequestBuilders
+							.post("/")
+							.with(request ->
+							{
+								request.setRemoteAddr(RATE_LIMITED_IP);
+								return request;
+							})
+							.content(getEntryFile(entryFileResource))
+							.contentType(MediaType.TEXT_PLAIN))
+					.andExpect(status().isTooManyRequests())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+			verify(validationService).validateIpAddress(RATE_LIMITED_IP);
+			verify(logService, times(2)).logRequest(any(LogRequest.class));
+		}
+		finally
+		{
+			config.getAdmission().setEnabled(false);
+			config.getAdmission().setRequestBurst(50);
+			config.getAdmission().setRequestsPerSecond(10);
+		}
+	}
+
+	@Test
+	public void convertSpeculative() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+		config.getSpeculative().setEnabled(true);
+
+		final var validation = new CompletableFuture<ValidationResult>();
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(validation);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+		validation.complete(generateValidationResult(SUCCESS));
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(result ->
+				{
+					final var actual = new JSONArray(result.getResponse().getContentAsString());
+					JSONAssert.assertEquals(getOutcome(outcomeResource), actual, true);
+				});
+
+		final var logRequest = ArgumentCaptor.forClass(LogRequest.class);
+		verify(logService).logRequest(logRequest.capture());
+		assertEquals(200, logRequest.getValue().httpStatus());
+	}
+
+	@Test
+	public void convertSpeculativeBlocked() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+		config.getSpeculative().setEnabled(true);
+		// Not even the first record may be read before the client is known to be allowed
+		config.getSpeculative().setMaxBytes(DataSize.ofBytes(0));
+
+		final var validation = new CompletableFuture<ValidationResult>();
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(validation);
+
+		final var mvcResult = mockMvc.perform(MockMvcRequestBuilders
+						.post("/")
+						.content(getEntryFile(entryFileResource))
+						.contentType(MediaType.TEXT_PLAIN)
+						.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+		validation.complete(generateValidationResult(BLOCKED_IP));
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isForbidden());
+
+		final var logRequest = ArgumentCaptor.forClass(LogRequest.class);
+		verify(logService).logRequest(logRequest.capture());
+		assertEquals(403, logRequest.getValue().httpStatus());
+	}
+
+	@Test
+	public void convertSpeculativeBlockedWhileReading() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+		config.getSpeculative().setEnabled(true);
+
+		final var validation = new CompletableFuture<ValidationResult>();
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(validation);
+		final var reading = new CountDownLatch(1);
+		final var received = new CountDownLatch(1);
+		final var body = new StringReader(getEntryFile(entryFileResource))
+		{
+			@Override
+			@SneakyThrows
+			public int read(final char[] buffer, final int offset, final int length)
+			{
+				reading.countDown();
+				received.await();
+				return super.read(buffer, offset, length);
+			}
+		};
+
+		final var mvcResult = mockMvc.perform(servletContext ->
+		{
+			final var request = new MockHttpServletRequest(servletContext, "POST", "/")
+			{
+				@Override
+				public BufferedReader getReader()
+				{
+					return new BufferedReader(body);
+				}
+			};
+			request.setAsyncSupported(true);
+			request.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+			return request;
+		}).andReturn();
+		assertTrue(reading.await(10, TimeUnit.SECONDS));
+		validation.complete(generateValidationResult(BLOCKED_IP));
+
+		// Not until the speculative conversion has stopped reading the request
+		assertThrows(IllegalStateException.class, () -> mvcResult.getAsyncResult(500));
+		received.countDown();
+		mvcResult.getAsyncResult(10_000);
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	public void convertSpeculativeOverLimitConcurrently() throws Exception
+	{
+		config.setIpValidationEnabled(true);
+		config.setDataValidationEnabled(true);
+		config.getSpeculative().setEnabled(true);
+		config.getSpeculative().setMaxBytes(DataSize.ofBytes(0));
+
+		/*
+		 * Twice as many requests as the default application task executor has workers, every one of them waiting on its
+		 * verdict; none of which may need a worker of its own to be given.
+		 */
+		final var validation = new CompletableFuture<ValidationResult>();
+		when(validationService.validateIpAddress(any(String.class)))
+				.thenReturn(validation);
+		final var mvcResults = new ArrayList<MvcResult>();
+		for (int i = 0; i < 16; i++)
+		{
+			mvcResults.add(mockMvc.perform(MockMvcRequestBuilders
+							.post("/")
+							.content(getEntryFile(entryFileResource))
+							.contentType(MediaType.TEXT_PLAIN)
+							.accept(MediaType.APPLICATION_JSON))
+					.andReturn());
+		}
+		validation.complete(generateValidationResult(SUCCESS));
+
+		for (final var mvcResult : mvcResults)
+		{
+			mvcResult.getAsyncResult(10_000);
+			mockMvc.perform(asyncDispatch(mvcResult))
+					.andExpect(status().isOk());
+		}
+	}
+
 	private ValidationResult generateValidationResult(final ValidationResult.Status status)
 	{
 		return new ValidationResult(URI.create("localhost"),